@@ -0,0 +1,44 @@
+#!/usr/bin/env bash
+# Time to first request and resident memory of a freshly started Todo API, used to compare the
+# default packaging with the fast-startup build (Linux, reads RSS from /proc).
+#
+#   loadtest/startup-time.sh 5 java -jar target/todo-0.0.1-SNAPSHOT.jar --spring.profiles.active=prod
+#   loadtest/startup-time.sh 5 java -XX:SharedArchiveFile=target/app.jsa -Dspring.aot.enabled=true \
+#       -jar target/todo-0.0.1-SNAPSHOT.jar --spring.profiles.active=prod,fast-startup
+#
+# Each run starts the command, polls URL until it answers 200, prints the elapsed time and the
+# process RSS at that moment, then stops the process. The last line is the median of the runs.
+set -euo pipefail
+
+RUNS=${1:?usage: startup-time.sh <runs> <command...>}
+shift
+URL=${URL:-http://localhost:8080/api/todos/count}
+TIMEOUT_SECONDS=${TIMEOUT_SECONDS:-120}
+
+times=()
+rss=()
+for run in $(seq "$RUNS"); do
+  start=$(date +%s%N)
+  "$@" > "startup-run-$run.log" 2>&1 &
+  pid=$!
+  deadline=$((start + TIMEOUT_SECONDS * 1000000000))
+  until [ "$(curl -s -o /dev/null -w '%{http_code}' "$URL" || true)" = "200" ]; do
+    if ! kill -0 "$pid" 2>/dev/null || [ "$(date +%s%N)" -gt "$deadline" ]; then
+      echo "run $run: no answer from $URL, see startup-run-$run.log" >&2
+      kill "$pid" 2>/dev/null || true
+      exit 1
+    fi
+    sleep 0.01
+  done
+  elapsed=$((($(date +%s%N) - start) / 1000000))
+  resident=$(awk '/VmRSS/ { print int($2 / 1024) }' "/proc/$pid/status")
+  kill "$pid"
+  wait "$pid" 2>/dev/null || true
+  rm -f "startup-run-$run.log"
+  echo "run $run: first request after ${elapsed} ms, RSS ${resident} MB"
+  times+=("$elapsed")
+  rss+=("$resident")
+done
+
+median() { printf '%s\n' "$@" | sort -n | awk '{ v[NR] = $1 } END { print v[int((NR + 1) / 2)] }'; }
+echo "median: first request after $(median "${times[@]}") ms, RSS $(median "${rss[@]}") MB"
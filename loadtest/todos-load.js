@@ -0,0 +1,57 @@
+// k6 load test for the Todo API, used to compare the default thread pool with the "virtual" profile.
+//
+//   java -jar target/todo-0.0.1-SNAPSHOT.jar                                   # platform threads
+//   java -jar target/todo-0.0.1-SNAPSHOT.jar --spring.profiles.active=virtual  # virtual threads
+//   k6 run -e BASE_URL=http://localhost:8080 -e VUS=400 loadtest/todos-load.js
+//
+// The end-of-test summary reports throughput (http_reqs/s) and p(99) latency per endpoint.
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const VUS = parseInt(__ENV.VUS || '200');
+const HEADERS = { headers: { 'Content-Type': 'application/json' } };
+
+export const options = {
+  scenarios: {
+    mixed: {
+      executor: 'ramping-vus',
+      startVUs: 0,
+      stages: [
+        { duration: '30s', target: VUS },
+        { duration: '2m', target: VUS },
+        { duration: '15s', target: 0 },
+      ],
+    },
+  },
+  summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+  thresholds: {
+    'http_req_failed': ['rate<0.01'],
+  },
+};
+
+export function setup() {
+  const ids = [];
+  for (let i = 0; i < 200; i++) {
+    const res = http.post(`${BASE_URL}/api/todos/createTodo`, JSON.stringify({ title: `load ${i}`, completed: false }), HEADERS);
+    ids.push(res.json('id'));
+  }
+  return { ids };
+}
+
+export default function (data) {
+  const id = data.ids[Math.floor(Math.random() * data.ids.length)];
+  const roll = Math.random();
+  if (roll < 0.6) {
+    check(http.get(`${BASE_URL}/api/todos/getTodo/${id}`, { tags: { name: 'getTodo' } }), { 'getTodo 200': r => r.status === 200 });
+  } else if (roll < 0.8) {
+    check(http.get(`${BASE_URL}/api/todos/getTodosPage?size=50`, { tags: { name: 'getTodosPage' } }), { 'page 200': r => r.status === 200 });
+  } else if (roll < 0.95) {
+    const body = JSON.stringify({ title: `updated ${roll}`, completed: roll < 0.9 });
+    check(http.put(`${BASE_URL}/api/todos/updateTodo/${id}`, body, Object.assign({ tags: { name: 'updateTodo' } }, HEADERS)),
+      { 'updateTodo 200': r => r.status === 200 });
+  } else {
+    check(http.post(`${BASE_URL}/api/todos/createTodo`, JSON.stringify({ title: 'load new', completed: false }),
+      Object.assign({ tags: { name: 'createTodo' } }, HEADERS)), { 'createTodo 201': r => r.status === 201 });
+  }
+}
@@ -0,0 +1,58 @@
+package com.sukruokul.todo.benchmark;
+
+import com.sukruokul.todo.admission.TodoAdmission;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost that admission control adds to every admitted {@code /api/todos} request: one
+ * {@link TodoAdmission#admit} plus {@link TodoAdmission#release}, as the filters call them.
+ * Limits are high enough that nothing is rejected. {@code none} is the filter with both features
+ * off, {@code shedding} the in-flight counters only, {@code ratelimit} adds a token bucket
+ * lookup and update; {@code clients} is the number of distinct client IPs cycled through, so
+ * 10000 also pays for cache misses in the bucket map. Run with {@code -t} above 1 to see
+ * contention on the shared counters.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AdmissionBenchmark {
+
+    @Param({"none", "shedding", "ratelimit"})
+    private String mode;
+
+    @Param({"1", "10000"})
+    private int clients;
+
+    private TodoAdmission admission;
+    private String[] addresses;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        admission = new TodoAdmission("ratelimit".equals(mode), "ip", "default=1000000000/1000000000",
+                100_000, "none".equals(mode) ? 0 : 1_000_000, "none".equals(mode) ? 0 : 1_000_000,
+                Duration.ofSeconds(1), System::nanoTime);
+        addresses = new String[clients];
+        for (int i = 0; i < clients; i++) {
+            addresses[i] = "10." + (i >> 16 & 255) + "." + (i >> 8 & 255) + "." + (i & 255);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+
+    @Benchmark
+    public TodoAdmission.Decision admitAndRelease(Cursor cursor) {
+        String address = addresses[cursor.next++ % addresses.length];
+        TodoAdmission.Decision decision = admission.admit("/api/todos/getTodo/42", "GET", null, address);
+        admission.release(decision);
+        return decision;
+    }
+}
@@ -0,0 +1,42 @@
+package com.sukruokul.todo.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sukruokul.todo.service.StoreReadExecutor;
+import com.sukruokul.todo.service.TodoCache;
+import com.sukruokul.todo.service.TodoEventBus;
+import com.sukruokul.todo.service.TodoMetrics;
+import com.sukruokul.todo.service.TodoOutbox;
+import com.sukruokul.todo.service.TodoReconciler;
+import com.sukruokul.todo.service.TodoReplica;
+import com.sukruokul.todo.service.TodoService;
+import com.sukruokul.todo.service.TodoVersions;
+import com.sukruokul.todo.search.InvertedTodoIndex;
+import com.sukruokul.todo.store.DualTodoStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.time.Duration;
+
+/**
+ * Wiring shared by the benchmark states.
+ */
+final class Benchmarks {
+
+    private Benchmarks() {
+    }
+
+    static TodoService service(InMemoryTodoStore sqlite, InMemoryTodoStore mongo, boolean cacheEnabled) {
+        TodoCache cache = new TodoCache(cacheEnabled, 100_000, Duration.ofMinutes(5), Duration.ofSeconds(10));
+        TodoOutbox outbox = new TodoOutbox(InMemoryTodoStore.sqlite(sqlite), InMemoryTodoStore.mongo(mongo), null, "sync", 500);
+        TodoVersions versions = new TodoVersions();
+        TodoMetrics metrics = new TodoMetrics(new SimpleMeterRegistry());
+        TodoReconciler reconciler = new TodoReconciler(null, null, outbox, metrics, false, 500, Duration.ZERO, Duration.ZERO,
+                Duration.ofMinutes(10), Duration.ofMinutes(1));
+        DualTodoStore store = new DualTodoStore(InMemoryTodoStore.sqlite(sqlite), InMemoryTodoStore.mongo(mongo), outbox,
+                new StoreReadExecutor(false), metrics, reconciler);
+        return new TodoService(store, cache,
+                new TodoReplica(store, null, false, Duration.ofSeconds(2), Duration.ofMinutes(5)),
+                versions,
+                new TodoEventBus(new ObjectMapper().findAndRegisterModules(), 10_000, 1000, 50_000, Duration.ofSeconds(15)),
+                new InvertedTodoIndex(store, 500));
+    }
+}
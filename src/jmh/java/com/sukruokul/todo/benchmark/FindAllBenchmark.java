@@ -0,0 +1,49 @@
+package com.sukruokul.todo.benchmark;
+
+import com.sukruokul.todo.model.Todo;
+import com.sukruokul.todo.model.TodoFilter;
+import com.sukruokul.todo.service.TodoService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dual-store merge and dedupe of {@link TodoService#findAll()} versus the streaming keyset merge,
+ * with every todo present in both stores as after a normal dual write.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class FindAllBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int records;
+
+    private TodoService todoService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        InMemoryTodoStore sqlite = new InMemoryTodoStore();
+        InMemoryTodoStore mongo = new InMemoryTodoStore();
+        for (Todo todo : InMemoryTodoStore.generate(records)) {
+            sqlite.put(todo);
+            mongo.put(todo.copy());
+        }
+        todoService = Benchmarks.service(sqlite, mongo, false);
+    }
+
+    @Benchmark
+    public List<Todo> findAll() {
+        return todoService.findAll();
+    }
+
+    @Benchmark
+    public void streamAll(Blackhole blackhole) {
+        todoService.streamAll(TodoFilter.NONE, 500).forEach(blackhole::consume);
+    }
+}
@@ -0,0 +1,55 @@
+package com.sukruokul.todo.benchmark;
+
+import com.sukruokul.todo.model.Todo;
+import com.sukruokul.todo.service.TodoService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hit and miss paths of {@link TodoService#findById(String)}, with and without the read cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FindByIdBenchmark {
+
+    private static final int RECORDS = 100_000;
+
+    @Param({"false", "true"})
+    private boolean cacheEnabled;
+
+    private TodoService todoService;
+    private String[] ids;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        InMemoryTodoStore sqlite = new InMemoryTodoStore();
+        InMemoryTodoStore mongo = new InMemoryTodoStore();
+        ids = new String[1024];
+        int i = 0;
+        for (Todo todo : InMemoryTodoStore.generate(RECORDS)) {
+            sqlite.put(todo);
+            mongo.put(todo.copy());
+            if (i < ids.length) {
+                ids[i++] = todo.getId();
+            }
+        }
+        todoService = Benchmarks.service(sqlite, mongo, cacheEnabled);
+    }
+
+    @Benchmark
+    public Optional<Todo> hit() {
+        return todoService.findById(ids[next++ & (ids.length - 1)]);
+    }
+
+    @Benchmark
+    public Optional<Todo> miss() {
+        return todoService.findById("missing-" + (next++ & (ids.length - 1)));
+    }
+}
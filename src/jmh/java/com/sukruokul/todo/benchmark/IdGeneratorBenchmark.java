@@ -0,0 +1,103 @@
+package com.sukruokul.todo.benchmark;
+
+import com.sukruokul.todo.id.TodoIdGenerator;
+import com.sukruokul.todo.id.TodoIds;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Random UUIDv4 keys versus the time-ordered generators: raw generation cost, and batched SQLite
+ * inserts into a table shaped like {@code todo} (text primary key plus the createdAt/id index)
+ * that already holds {@value #RECORDS} rows. Random keys land on a different B-tree page on every
+ * insert, so once the index outgrows the page cache most inserts read and rewrite a cold page.
+ * The primary-key index size per 1000 rows is printed at the end of each trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class IdGeneratorBenchmark {
+
+    private static final int RECORDS = 200_000;
+    private static final int BATCH = 100;
+    private static final String INSERT = "insert into todo (completed, created_at, title, id) values (?, ?, ?, ?)";
+
+    @Param({"random", "uuidv7", "ulid"})
+    private String generator;
+
+    private TodoIdGenerator ids;
+    private Path directory;
+    private Connection connection;
+    private PreparedStatement insert;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, SQLException {
+        ids = TodoIds.forName(generator);
+        directory = Files.createTempDirectory("id-bench");
+        connection = DriverManager.getConnection("jdbc:sqlite:" + directory.resolve("todos.db")
+                + "?journal_mode=WAL&synchronous=NORMAL&cache_size=-16000");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("create table todo (id varchar(255) not null primary key, completed boolean not null, "
+                    + "created_at timestamp, title varchar(255))");
+            statement.execute("create index idx_todo_created_at_id on todo (created_at, id)");
+        }
+        insert = connection.prepareStatement(INSERT);
+        connection.setAutoCommit(false);
+        while (next < RECORDS) {
+            insertBatch();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException, SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet size = statement.executeQuery("select sum(pgsize) from dbstat where name = 'sqlite_autoindex_todo_1'")) {
+            size.next();
+            System.out.printf("%n%s: %d rows, primary key index %d KiB (%.1f KiB per 1000 rows)%n",
+                    generator, next, size.getLong(1) / 1024, size.getLong(1) / 1024.0 / next * 1000);
+        } catch (SQLException e) {
+            System.out.printf("%n%s: index size unavailable (%s)%n", generator, e.getMessage());
+        }
+        connection.close();
+        try (var files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public String generate() {
+        return ids.nextId();
+    }
+
+    /** One transaction of {@value #BATCH} inserts, as a bulk create issues. */
+    @Benchmark
+    public int insertBatch() throws SQLException {
+        for (int i = 0; i < BATCH; i++, next++) {
+            insert.setBoolean(1, next % 3 == 0);
+            insert.setLong(2, 1_700_000_000_000L + next);
+            insert.setString(3, "Todo number " + next);
+            insert.setString(4, ids.nextId());
+            insert.addBatch();
+        }
+        int[] counts = insert.executeBatch();
+        connection.commit();
+        return counts.length;
+    }
+}
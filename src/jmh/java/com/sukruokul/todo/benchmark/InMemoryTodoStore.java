@@ -0,0 +1,126 @@
+package com.sukruokul.todo.benchmark;
+
+import com.sukruokul.todo.model.Todo;
+import com.sukruokul.todo.repository.jpa.TodoRepository;
+import com.sukruokul.todo.repository.mongo.TodoMongoRepository;
+import com.sukruokul.todo.model.TodoCursor;
+import com.sukruokul.todo.model.TodoFilter;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Predicate;
+
+/**
+ * In-memory stand-in for {@link TodoRepository} and {@link TodoMongoRepository}, so benchmarks
+ * measure the service code rather than a database. Only the repository methods that
+ * {@code TodoService} calls are implemented.
+ */
+final class InMemoryTodoStore implements InvocationHandler {
+
+    private final Map<String, Todo> byId = new ConcurrentHashMap<>();
+    private final NavigableSet<Todo> ordered = new ConcurrentSkipListSet<>(TodoCursor.ORDER);
+
+    static TodoRepository sqlite(InMemoryTodoStore store) {
+        return (TodoRepository) Proxy.newProxyInstance(TodoRepository.class.getClassLoader(),
+                new Class<?>[]{TodoRepository.class}, store);
+    }
+
+    static TodoMongoRepository mongo(InMemoryTodoStore store) {
+        return (TodoMongoRepository) Proxy.newProxyInstance(TodoMongoRepository.class.getClassLoader(),
+                new Class<?>[]{TodoMongoRepository.class}, store);
+    }
+
+    static List<Todo> generate(int count) {
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 0, 0);
+        List<Todo> todos = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            todos.add(new Todo(String.format("todo-%08d", i), "Todo number " + i, i % 3 == 0, base.plusSeconds(i)));
+        }
+        return todos;
+    }
+
+    void put(Todo todo) {
+        Todo previous = byId.put(todo.getId(), todo);
+        if (previous != null) {
+            ordered.remove(previous);
+        }
+        ordered.add(todo);
+    }
+
+    void remove(String id) {
+        Todo previous = byId.remove(id);
+        if (previous != null) {
+            ordered.remove(previous);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Object invoke(Object proxy, Method method, Object[] args) {
+        switch (method.getName()) {
+            case "findAll":
+                return new ArrayList<>(byId.values());
+            case "findByDeletedAtIsNull":
+                return byId.values().stream().filter(todo -> !todo.isArchived()).toList();
+            case "findById":
+                return Optional.ofNullable(byId.get((String) args[0]));
+            case "findAllById": {
+                List<Todo> found = new ArrayList<>();
+                for (String id : (Iterable<String>) args[0]) {
+                    Todo todo = byId.get(id);
+                    if (todo != null) {
+                        found.add(todo);
+                    }
+                }
+                return found;
+            }
+            case "save":
+                put((Todo) args[0]);
+                return args[0];
+            case "saveAll":
+                ((Iterable<Todo>) args[0]).forEach(this::put);
+                return args[0];
+            case "deleteById":
+                remove((String) args[0]);
+                return null;
+            case "applyBatch":
+                ((Collection<Todo>) args[0]).forEach(this::put);
+                ((Collection<String>) args[1]).forEach(this::remove);
+                return null;
+            case "findFiltered":
+                return findFiltered((TodoFilter) args[0], (TodoCursor) args[1], (Integer) args[2]);
+            case "countFiltered":
+                return ordered.stream().filter(matcher((TodoFilter) args[0])).count();
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "equals":
+                return proxy == args[0];
+            case "toString":
+                return "InMemoryTodoStore(" + byId.size() + ")";
+            default:
+                throw new UnsupportedOperationException(method.toString());
+        }
+    }
+
+    private List<Todo> findFiltered(TodoFilter filter, TodoCursor after, int limit) {
+        NavigableSet<Todo> view = filter.descending() ? ordered.descendingSet() : ordered;
+        if (after != null) {
+            view = view.tailSet(new Todo(after.id(), null, false, after.createdAt()), false);
+        }
+        return view.stream().filter(matcher(filter)).limit(limit).toList();
+    }
+
+    private static Predicate<Todo> matcher(TodoFilter filter) {
+        return filter::matches;
+    }
+}
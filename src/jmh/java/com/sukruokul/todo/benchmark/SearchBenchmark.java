@@ -0,0 +1,183 @@
+package com.sukruokul.todo.benchmark;
+
+import com.sukruokul.todo.model.Todo;
+import com.sukruokul.todo.search.InvertedTodoIndex;
+import com.sukruokul.todo.search.TodoSearchIndex;
+import com.sukruokul.todo.search.TodoTokenizer;
+import com.sukruokul.todo.store.MemoryTodoStore;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * First page of title search over one million todos for both {@code todo.search.backend}s. Titles
+ * are three to six words drawn from a skewed vocabulary, so there are very common, middling and
+ * rare words. The FTS5 case uses the table, tokenizer and query {@code TodoRepositoryCustomImpl}
+ * issues, over plain JDBC. Queries: one rare word, two common words, and a two-letter prefix
+ * that expands to many terms.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class SearchBenchmark {
+
+    private static final int RECORDS = 1_000_000;
+    private static final int VOCABULARY = 5_000;
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"memory", "fts5"})
+    private String backend;
+
+    @Param({"rare", "common", "prefix"})
+    private String query;
+
+    private String text;
+    private InvertedTodoIndex index;
+    private Path directory;
+    private Connection connection;
+    private PreparedStatement page;
+    private PreparedStatement count;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, SQLException, InterruptedException {
+        String[] words = vocabulary();
+        text = switch (query) {
+            case "rare" -> words[VOCABULARY / 2];
+            case "common" -> words[0] + " " + words[1];
+            default -> words[2].substring(0, 2);
+        };
+        if ("memory".equals(backend)) {
+            index = new InvertedTodoIndex(new MemoryTodoStore(), 1);
+            index.start();
+            while (!index.isReady()) {
+                Thread.sleep(10);
+            }
+            generate(words, index::indexed);
+        } else {
+            directory = Files.createTempDirectory("search-bench");
+            connection = DriverManager.getConnection("jdbc:sqlite:" + directory.resolve("todos.db"));
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("create table todo (id varchar(255) not null primary key, completed boolean not null, "
+                        + "created_at timestamp, updated_at timestamp, title varchar(255))");
+                statement.execute("create virtual table todo_fts using fts5("
+                        + "title, content='', tokenize='unicode61 remove_diacritics 2')");
+                connection.setAutoCommit(false);
+                try (PreparedStatement insert = connection.prepareStatement(
+                        "insert into todo (id, completed, created_at, updated_at, title) values (?, ?, ?, ?, ?)")) {
+                    generate(words, todo -> {
+                        try {
+                            insert.setString(1, todo.getId());
+                            insert.setBoolean(2, todo.isCompleted());
+                            insert.setString(3, todo.getCreatedAt().toString());
+                            insert.setString(4, todo.getUpdatedAt().toString());
+                            insert.setString(5, todo.getTitle());
+                            insert.addBatch();
+                        } catch (SQLException e) {
+                            throw new IllegalStateException(e);
+                        }
+                    });
+                    insert.executeBatch();
+                }
+                statement.execute("insert into todo_fts(rowid, title) select rowid, replace(title, 'ı', 'i') from todo");
+                connection.commit();
+                connection.setAutoCommit(true);
+            }
+            String match = TodoTokenizer.tokenize(text).stream()
+                    .map(term -> "\"" + term + "\"*")
+                    .collect(Collectors.joining(" "));
+            page = connection.prepareStatement("select t.* from todo_fts join todo t on t.rowid = todo_fts.rowid "
+                    + "where todo_fts match ? order by todo_fts.rank, t.created_at desc limit " + PAGE_SIZE + " offset 0");
+            page.setString(1, match);
+            count = connection.prepareStatement("select count(*) from todo_fts where todo_fts match ?");
+            count.setString(1, match);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException, SQLException {
+        if (index != null) {
+            index.stop();
+        }
+        if (connection != null) {
+            connection.close();
+            try (var files = Files.list(directory)) {
+                for (Path file : files.toList()) {
+                    Files.deleteIfExists(file);
+                }
+            }
+            Files.deleteIfExists(directory);
+        }
+    }
+
+    @Benchmark
+    public void firstPage(Blackhole blackhole) throws SQLException {
+        if (index != null) {
+            TodoSearchIndex.Result result = index.search(text, 0, PAGE_SIZE);
+            blackhole.consume(result.todos());
+            blackhole.consume(result.total());
+            return;
+        }
+        try (ResultSet rows = page.executeQuery()) {
+            while (rows.next()) {
+                blackhole.consume(rows.getString("id"));
+                blackhole.consume(rows.getString("title"));
+            }
+        }
+        try (ResultSet rows = count.executeQuery()) {
+            rows.next();
+            blackhole.consume(rows.getLong(1));
+        }
+    }
+
+    /** Pronounceable, distinct words; index 0 is the most frequent. */
+    private static String[] vocabulary() {
+        String consonants = "bcdfgklmnprstvz";
+        String vowels = "aeiou";
+        String[] words = new String[VOCABULARY];
+        for (int i = 0; i < VOCABULARY; i++) {
+            StringBuilder word = new StringBuilder();
+            int n = i;
+            do {
+                word.append(consonants.charAt(n % consonants.length()));
+                n /= consonants.length();
+                word.append(vowels.charAt(n % vowels.length()));
+                n /= vowels.length();
+            } while (n > 0);
+            words[i] = word.append(consonants.charAt(i % consonants.length())).toString();
+        }
+        return words;
+    }
+
+    /** Word ranks follow a Zipf-like distribution, so the first words are in most titles. */
+    private static void generate(String[] words, Consumer<Todo> sink) {
+        Random random = new Random(42);
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 0, 0);
+        for (int i = 0; i < RECORDS; i++) {
+            int length = 3 + random.nextInt(4);
+            StringBuilder title = new StringBuilder();
+            for (int w = 0; w < length; w++) {
+                int rank = (int) Math.min(VOCABULARY - 1, Math.floor(Math.pow(VOCABULARY, random.nextDouble())) - 1);
+                title.append(w == 0 ? "" : " ").append(words[rank]);
+            }
+            LocalDateTime createdAt = base.plusSeconds(i);
+            sink.accept(new Todo(String.format("todo-%08d", i), title.toString(), i % 3 == 0, createdAt, createdAt));
+        }
+    }
+}
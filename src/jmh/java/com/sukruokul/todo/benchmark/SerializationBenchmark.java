@@ -0,0 +1,109 @@
+package com.sukruokul.todo.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.sukruokul.todo.json.TodoJsonModule;
+import com.sukruokul.todo.model.Todo;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Serialization of the {@code getAllTodos} body, using mappers configured like the ones Spring
+ * Boot builds. {@code reflective} is the bean serializer Jackson derives from {@link Todo};
+ * {@code json}, {@code cbor} and {@code smile} use {@link TodoJsonModule}.
+ * {@code serializeList} buffers the whole list into a byte array; {@code streamList} writes a
+ * {@code Stream<Todo>} to an output stream, as the message converter does with the response.
+ * Run with {@code -prof gc}: {@code gc.alloc.rate.norm} divided by {@code records} is the
+ * allocation per todo. Payload size per todo is printed at the end of each trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"100", "10000"})
+    private int records;
+
+    @Param({"reflective", "json", "cbor", "smile"})
+    private String format;
+
+    private ObjectMapper objectMapper;
+    private ObjectWriter streamWriter;
+    private List<Todo> todos;
+    private final CountingOutputStream out = new CountingOutputStream();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        if (!"reflective".equals(format)) {
+            builder.modulesToInstall(new TodoJsonModule());
+        }
+        switch (format) {
+            case "cbor" -> builder.factory(new CBORFactory());
+            case "smile" -> builder.factory(new SmileFactory());
+            default -> {
+            }
+        }
+        objectMapper = builder.build();
+        streamWriter = objectMapper.writerFor(objectMapper.getTypeFactory().constructParametricType(Stream.class, Todo.class));
+        todos = InMemoryTodoStore.generate(records);
+        // Stored timestamps carry milliseconds, and updatedAt is set on every write.
+        for (int i = 0; i < todos.size(); i++) {
+            Todo todo = todos.get(i);
+            todo.setCreatedAt(todo.getCreatedAt().plusNanos((i * 37L % 1000 + 1) * 1_000_000));
+            todo.setUpdatedAt(todo.getCreatedAt().plusMinutes(i % 60));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        out.count = 0;
+        streamWriter.writeValue(out, todos.stream());
+        System.out.printf("%n%s: %.1f bytes per todo%n", format, (double) out.count / records);
+    }
+
+    @Benchmark
+    public byte[] serializeList() throws IOException {
+        return objectMapper.writeValueAsBytes(todos);
+    }
+
+    @Benchmark
+    public long streamList() throws IOException {
+        out.count = 0;
+        streamWriter.writeValue(out, todos.stream());
+        return out.count;
+    }
+
+    /** Stands in for the response stream: counts and discards. */
+    private static final class CountingOutputStream extends OutputStream {
+
+        long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
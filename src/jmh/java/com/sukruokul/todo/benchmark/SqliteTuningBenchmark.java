@@ -0,0 +1,163 @@
+package com.sukruokul.todo.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Before/after comparison of the {@code prod} SQLite profile: the default rollback journal
+ * without secondary indexes versus WAL, {@code synchronous=NORMAL}, mmap and the
+ * {@code todo} indexes. Uses the SQL Hibernate issues for the corresponding repository calls,
+ * with one writer thread and three reader threads sharing the database file. Timestamps are bound
+ * with {@code setTimestamp}, as Hibernate binds them, so they are stored and compared as the
+ * epoch-millisecond integers the application writes. The busy timeout is
+ * raised above the production value so blocked readers in the default profile show up as lost
+ * throughput rather than {@code SQLITE_BUSY} failures.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class SqliteTuningBenchmark {
+
+    private static final int RECORDS = 100_000;
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private static final String TUNED_PARAMS =
+            "?journal_mode=WAL&synchronous=NORMAL&mmap_size=268435456&busy_timeout=30000&cache_size=-16000&temp_store=MEMORY";
+
+    @Param({"default", "tuned"})
+    private String profile;
+
+    private Path directory;
+    private String url;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, SQLException {
+        directory = Files.createTempDirectory("sqlite-bench");
+        url = "jdbc:sqlite:" + directory.resolve("todos.db")
+                + ("tuned".equals(profile) ? TUNED_PARAMS : "?busy_timeout=30000");
+        try (Connection connection = DriverManager.getConnection(url); Statement statement = connection.createStatement()) {
+            statement.execute("create table todo (id varchar(255) not null primary key, completed boolean not null, "
+                    + "created_at timestamp, title varchar(255))");
+            if ("tuned".equals(profile)) {
+                statement.execute("create index idx_todo_created_at_id on todo (created_at, id)");
+                statement.execute("create index idx_todo_completed_created_at on todo (completed, created_at)");
+            }
+            connection.setAutoCommit(false);
+            try (PreparedStatement insert = connection.prepareStatement(WriterConnection.INSERT)) {
+                for (int i = 0; i < RECORDS; i++) {
+                    WriterConnection.bind(insert, UUID.randomUUID().toString(), i);
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+            }
+            connection.commit();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (var files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+        Files.deleteIfExists(directory);
+    }
+
+    @State(Scope.Thread)
+    public static class WriterConnection {
+        static final String INSERT = "insert into todo (completed, created_at, title, id) values (?, ?, ?, ?)";
+
+        private Connection connection;
+        private PreparedStatement insert;
+        private int next = RECORDS;
+
+        static void bind(PreparedStatement insert, String id, int i) throws SQLException {
+            insert.setBoolean(1, i % 3 == 0);
+            insert.setTimestamp(2, Timestamp.valueOf(BASE.plus(i, ChronoUnit.MILLIS)));
+            insert.setString(3, "Todo number " + i);
+            insert.setString(4, id);
+        }
+
+        @Setup(Level.Trial)
+        public void open(SqliteTuningBenchmark benchmark) throws SQLException {
+            connection = DriverManager.getConnection(benchmark.url);
+            insert = connection.prepareStatement(INSERT);
+        }
+
+        @TearDown(Level.Trial)
+        public void close() throws SQLException {
+            connection.close();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ReaderConnection {
+        private Connection connection;
+        private PreparedStatement page;
+        private PreparedStatement completed;
+        private int next;
+
+        @Setup(Level.Trial)
+        public void open(SqliteTuningBenchmark benchmark) throws SQLException {
+            connection = DriverManager.getConnection(benchmark.url);
+            page = connection.prepareStatement("select id, completed, created_at, title from todo "
+                    + "where created_at >= ? and (created_at > ? or id > ?) order by created_at, id limit 50");
+            completed = connection.prepareStatement("select id, completed, created_at, title from todo "
+                    + "where completed = ? order by created_at limit 50");
+        }
+
+        @TearDown(Level.Trial)
+        public void close() throws SQLException {
+            connection.close();
+        }
+    }
+
+    /** Single-row autocommit insert, as issued by {@code createTodo}. */
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(1)
+    public int insert(WriterConnection writer) throws SQLException {
+        WriterConnection.bind(writer.insert, UUID.randomUUID().toString(), writer.next++);
+        return writer.insert.executeUpdate();
+    }
+
+    /** Keyset page of 50 ordered by (createdAt, id), as issued by {@code getTodosPage}. */
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(3)
+    public void keysetPage(ReaderConnection reader, Blackhole blackhole) throws SQLException {
+        Timestamp position = Timestamp.valueOf(BASE.plusSeconds(reader.next++ % 3600));
+        reader.page.setTimestamp(1, position);
+        reader.page.setTimestamp(2, position);
+        reader.page.setString(3, "");
+        consume(reader.page, blackhole);
+        reader.completed.setBoolean(1, reader.next % 2 == 0);
+        consume(reader.completed, blackhole);
+    }
+
+    private static void consume(PreparedStatement query, Blackhole blackhole) throws SQLException {
+        try (ResultSet rows = query.executeQuery()) {
+            while (rows.next()) {
+                blackhole.consume(rows.getString(1));
+            }
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.sukruokul.todo.benchmark;
+
+import com.sukruokul.todo.TodoApplication;
+import com.sukruokul.todo.dto.TodoPageDTO;
+import com.sukruokul.todo.model.Todo;
+import com.sukruokul.todo.model.TodoFilter;
+import com.sukruokul.todo.model.TodoPatch;
+import com.sukruokul.todo.service.TodoService;
+import com.sukruokul.todo.service.VersionedTodo;
+import com.sukruokul.todo.store.TodoStore;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The same {@link TodoService} operations against each {@code todo.store.backend}, in a real
+ * application context with the read cache off so every call reaches the store. Throughput and
+ * sampled latency (p50/p99) are both reported. SQLite uses a fresh file per trial; {@code mongo}
+ * and {@code dual} need a Mongo at the configured address, so without one run
+ * {@code -p backend=memory,sqlite}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+// The reactive Mongo driver's event loop outlives the context by a few seconds; don't wait 30s for it.
+@Fork(value = 1, jvmArgsAppend = "-Djmh.shutdownTimeout=1")
+public class StoreBackendBenchmark {
+
+    private static final int RECORDS = 10_000;
+    private static final TodoPatch PATCH = new TodoPatch(null, true);
+
+    @Param({"memory", "sqlite", "mongo", "dual"})
+    private String backend;
+
+    private Path directory;
+    private ConfigurableApplicationContext context;
+    private TodoService todoService;
+    private String[] ids;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("store-bench");
+        context = new SpringApplicationBuilder(TodoApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--todo.store.backend=" + backend,
+                        "--spring.datasource.url=jdbc:sqlite:" + directory.resolve("todos.db"),
+                        "--spring.data.mongodb.database=todo-bench",
+                        "--spring.jpa.show-sql=false",
+                        "--todo.cache.enabled=false",
+                        "--logging.level.root=WARN");
+        TodoStore store = context.getBean(TodoStore.class);
+        List<Todo> todos = InMemoryTodoStore.generate(RECORDS);
+        store.applyBatch(todos, List.of());
+        ids = new String[1024];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = todos.get(i * (RECORDS / ids.length)).getId();
+        }
+        todoService = context.getBean(TodoService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        List<Todo> all = todoService.findAll();
+        context.getBean(TodoStore.class).applyBatch(List.of(), all.stream().map(Todo::getId).toList());
+        context.close();
+        try (var files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public Todo save() {
+        Todo todo = new Todo();
+        todo.setTitle("Benchmark todo");
+        return todoService.save(todo);
+    }
+
+    @Benchmark
+    public Optional<Todo> findById() {
+        return todoService.findById(ids[next++ & (ids.length - 1)]);
+    }
+
+    @Benchmark
+    public Optional<VersionedTodo> patch() {
+        return todoService.update(ids[next++ & (ids.length - 1)], PATCH, null);
+    }
+
+    @Benchmark
+    public TodoPageDTO firstPage() {
+        return todoService.findPage(TodoFilter.NONE, null, 50);
+    }
+
+    @Benchmark
+    public long count() {
+        return todoService.count(new TodoFilter(true, null, null, false));
+    }
+}
@@ -0,0 +1,54 @@
+package com.sukruokul.todo.benchmark;
+
+import com.sukruokul.todo.model.Todo;
+import com.sukruokul.todo.service.TodoService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link TodoService#save(Todo)} and {@link TodoService#update(Todo)} against in-memory stores,
+ * i.e. the service-side cost of a dual write.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WriteBenchmark {
+
+    @Param({"false", "true"})
+    private boolean cacheEnabled;
+
+    private TodoService todoService;
+    private List<Todo> existing;
+    private int next;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        InMemoryTodoStore sqlite = new InMemoryTodoStore();
+        InMemoryTodoStore mongo = new InMemoryTodoStore();
+        existing = InMemoryTodoStore.generate(1024);
+        existing.forEach(todo -> {
+            sqlite.put(todo);
+            mongo.put(todo.copy());
+        });
+        todoService = Benchmarks.service(sqlite, mongo, cacheEnabled);
+    }
+
+    @Benchmark
+    public Todo save() {
+        Todo todo = new Todo();
+        todo.setTitle("Benchmark todo");
+        return todoService.save(todo);
+    }
+
+    @Benchmark
+    public Todo update() {
+        Todo todo = existing.get(next++ & (existing.size() - 1));
+        todo.setCompleted(!todo.isCompleted());
+        return todoService.update(todo);
+    }
+}
@@ -0,0 +1,85 @@
+package com.sukruokul.todo.admission;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.RequestPath;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Applies {@link TodoAdmission} to servlet requests, after the observation filter so rejections
+ * still show up in {@code http.server.requests}. Async responses (NDJSON export) keep their
+ * in-flight slot until the async request completes.
+ * author: sukru.okul
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@RequiredArgsConstructor
+public class AdmissionFilter extends OncePerRequestFilter {
+
+    private final TodoAdmission admission;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String header = admission.clientHeader();
+        String path = TodoAdmission.matchedPath(RequestPath.parse(request.getRequestURI(), request.getContextPath()).pathWithinApplication());
+        TodoAdmission.Decision decision = admission.admit(path, request.getMethod(),
+                header == null ? null : request.getHeader(header), request.getRemoteAddr());
+        if (!decision.admitted()) {
+            response.setStatus(decision.status().value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(decision.retryAfterSeconds()));
+            return;
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new Release(decision));
+            } else {
+                admission.release(decision);
+            }
+        }
+    }
+
+    /**
+     * onComplete also follows errors and timeouts, so it is the only place that releases.
+     */
+    private final class Release implements AsyncListener {
+
+        private final TodoAdmission.Decision decision;
+
+        private Release(TodoAdmission.Decision decision) {
+            this.decision = decision;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            admission.release(decision);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
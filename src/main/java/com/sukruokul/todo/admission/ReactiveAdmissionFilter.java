@@ -0,0 +1,50 @@
+package com.sukruokul.todo.admission;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+
+/**
+ * Applies {@link TodoAdmission} to the reactive routes; the in-flight slot is released when the
+ * response completes, fails or is cancelled by the client.
+ * author: sukru.okul
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@RequiredArgsConstructor
+public class ReactiveAdmissionFilter implements WebFilter {
+
+    private final TodoAdmission admission;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        String header = admission.clientHeader();
+        InetSocketAddress remote = request.getRemoteAddress();
+        TodoAdmission.Decision decision = admission.admit(TodoAdmission.matchedPath(request.getPath().pathWithinApplication()),
+                request.getMethod().name(), header == null ? null : request.getHeaders().getFirst(header),
+                remote == null || remote.getAddress() == null ? null : remote.getAddress().getHostAddress());
+        if (!decision.admitted()) {
+            ServerHttpResponse response = exchange.getResponse();
+            response.setStatusCode(decision.status());
+            response.getHeaders().set(HttpHeaders.RETRY_AFTER, Long.toString(decision.retryAfterSeconds()));
+            return response.setComplete();
+        }
+        if (!decision.inFlight()) {
+            return chain.filter(exchange);
+        }
+        return chain.filter(exchange).doFinally(signal -> admission.release(decision));
+    }
+}
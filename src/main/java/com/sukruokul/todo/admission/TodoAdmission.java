@@ -0,0 +1,258 @@
+package com.sukruokul.todo.admission;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.PathContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * Admission control for {@code /api/todos}, shared by the servlet and reactive filters. A request
+ * first takes a permit from its client's token bucket for the endpoint (429 when empty), then an
+ * in-flight slot (503 when the API, or its writes, are at the configured concurrency). Both
+ * rejections carry {@code Retry-After} and happen before any store is touched.
+ * <p>
+ * Endpoints are the first path segment after {@code /api/todos}. The change streams
+ * ({@code stream}, {@code ws}) are rate limited on connect but hold no in-flight slot, since they
+ * stay open without doing store work.
+ * author: sukru.okul
+ */
+@Component
+public class TodoAdmission implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(TodoAdmission.class);
+
+    private static final String PREFIX = "/api/todos";
+    private static final String DEFAULT_LIMIT = "default";
+    private static final String OTHER = "other";
+    private static final int MAX_CLIENT_KEY_LENGTH = 128;
+    private static final Set<String> ENDPOINTS = Set.of("", "getTodos", "getTodosPage", "stream", "count", "search", "archive",
+            "createTodo", "bulk", "getTodo", "updateTodo", "deleteTodo", "ws");
+    private static final Set<String> LONG_LIVED = Set.of("stream", "ws");
+
+    private final Map<String, TokenBucketLimiter> limiters;
+    private final TokenBucketLimiter defaultLimiter;
+    private final String clientHeader;
+    private final int maxInFlight;
+    private final int maxInFlightWrites;
+    private final long retryAfterSeconds;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger inFlightWrites = new AtomicInteger();
+    private volatile MeterRegistry registry;
+
+    @Autowired
+    public TodoAdmission(@Value("${todo.ratelimit.enabled:false}") boolean rateLimitEnabled,
+                         @Value("${todo.ratelimit.client-key:ip}") String clientKey,
+                         @Value("${todo.ratelimit.limits:default=50/100}") String limits,
+                         @Value("${todo.ratelimit.max-clients:100000}") int maxClients,
+                         @Value("${todo.shedding.max-in-flight:400}") int maxInFlight,
+                         @Value("${todo.shedding.max-in-flight-writes:100}") int maxInFlightWrites,
+                         @Value("${todo.shedding.retry-after:1s}") Duration retryAfter) {
+        this(rateLimitEnabled, clientKey, limits, maxClients, maxInFlight, maxInFlightWrites, retryAfter, System::nanoTime);
+    }
+
+    /**
+     * @throws IllegalArgumentException if {@code clientKey} is not {@code ip} or {@code header:<name>},
+     *                                  or {@code limits} has an entry that is not {@code endpoint=rate/burst}
+     */
+    public TodoAdmission(boolean rateLimitEnabled, String clientKey, String limits, int maxClients,
+                         int maxInFlight, int maxInFlightWrites, Duration retryAfter, LongSupplier clock) {
+        this.limiters = rateLimitEnabled ? parseLimits(limits, maxClients, clock) : Map.of();
+        this.defaultLimiter = limiters.get(DEFAULT_LIMIT);
+        this.clientHeader = parseClientHeader(clientKey);
+        this.maxInFlight = maxInFlight;
+        this.maxInFlightWrites = maxInFlightWrites;
+        this.retryAfterSeconds = Math.max(1, retryAfter.toSeconds());
+        if (rateLimitEnabled) {
+            logger.info("Rate limiting /api/todos per {}: {}", clientHeader == null ? "client IP" : clientHeader, limits);
+        }
+    }
+
+    /**
+     * Header naming the client, or {@code null} when clients are keyed by IP.
+     */
+    public String clientHeader() {
+        return clientHeader;
+    }
+
+    /**
+     * Decides whether a request may proceed. An admitted decision must be passed to
+     * {@link #release(Decision)} once the response is complete.
+     *
+     * @param path          path within the application, as {@link #matchedPath} gives it
+     * @param clientId      value of {@link #clientHeader()}, or {@code null}; the remote address
+     *                      is used when it is missing or implausibly long
+     */
+    public Decision admit(String path, String method, String clientId, String remoteAddress) {
+        String endpoint = endpointOf(path);
+        if (endpoint == null) {
+            return Decision.UNCOUNTED;
+        }
+        TokenBucketLimiter limiter = limiters.isEmpty() ? null : limiters.getOrDefault(endpoint, defaultLimiter);
+        if (limiter != null) {
+            String client = clientId == null || clientId.isBlank() || clientId.length() > MAX_CLIENT_KEY_LENGTH
+                    ? remoteAddress : clientId;
+            long wait = limiter.tryAcquire(client == null ? "" : client, remoteAddress == null ? "" : remoteAddress);
+            if (wait > 0) {
+                return reject(HttpStatus.TOO_MANY_REQUESTS, "rate_limited", endpoint,
+                        Math.max(1, (wait + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1)));
+            }
+        }
+        if (LONG_LIVED.contains(endpoint)) {
+            return Decision.UNCOUNTED;
+        }
+        boolean write = !"GET".equals(method) && !"HEAD".equals(method) && !"OPTIONS".equals(method);
+        if (write && inFlightWrites.incrementAndGet() > maxInFlightWrites && maxInFlightWrites > 0) {
+            inFlightWrites.decrementAndGet();
+            return reject(HttpStatus.SERVICE_UNAVAILABLE, "overloaded", endpoint, retryAfterSeconds);
+        }
+        if (inFlight.incrementAndGet() > maxInFlight && maxInFlight > 0) {
+            inFlight.decrementAndGet();
+            if (write) {
+                inFlightWrites.decrementAndGet();
+            }
+            return reject(HttpStatus.SERVICE_UNAVAILABLE, "overloaded", endpoint, retryAfterSeconds);
+        }
+        return write ? Decision.WRITE : Decision.READ;
+    }
+
+    public void release(Decision decision) {
+        if (decision.inFlight()) {
+            inFlight.decrementAndGet();
+        }
+        if (decision.write()) {
+            inFlightWrites.decrementAndGet();
+        }
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    @Scheduled(fixedDelayString = "${todo.ratelimit.sweep-interval:60000}")
+    public void evictIdleClients() {
+        limiters.values().forEach(TokenBucketLimiter::evictIdle);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        this.registry = registry;
+        Gauge.builder("todo.admission.in_flight", inFlight, AtomicInteger::get)
+                .description("Requests to /api/todos holding an in-flight slot")
+                .register(registry);
+        Gauge.builder("todo.ratelimit.clients", this, admission -> admission.limiters.values().stream()
+                        .mapToInt(TokenBucketLimiter::size).sum())
+                .description("Client buckets tracked by the rate limiter")
+                .register(registry);
+    }
+
+    /**
+     * A request path as Spring's handler mappings match it: every segment percent-decoded and
+     * stripped of matrix parameters, so {@code /api/todos/create%54odo;x=1} is charged to the
+     * {@code createTodo} limit it reaches rather than passing for an unknown endpoint.
+     */
+    public static String matchedPath(PathContainer path) {
+        StringBuilder matched = new StringBuilder();
+        for (PathContainer.Element element : path.elements()) {
+            matched.append(element instanceof PathContainer.PathSegment segment ? segment.valueToMatch() : element.value());
+        }
+        return matched.toString();
+    }
+
+    /**
+     * Endpoint of a request path: the segment after {@code /api/todos}, {@code ""} for the
+     * collection itself, {@code other} for unknown segments and {@code null} outside the API.
+     */
+    static String endpointOf(String path) {
+        if (path == null || !path.startsWith(PREFIX)) {
+            return null;
+        }
+        if (path.length() == PREFIX.length()) {
+            return "";
+        }
+        if (path.charAt(PREFIX.length()) != '/') {
+            return null;
+        }
+        int end = path.indexOf('/', PREFIX.length() + 1);
+        String endpoint = path.substring(PREFIX.length() + 1, end < 0 ? path.length() : end);
+        return ENDPOINTS.contains(endpoint) ? endpoint : OTHER;
+    }
+
+    private Decision reject(HttpStatus status, String reason, String endpoint, long retryAfter) {
+        MeterRegistry meters = registry;
+        if (meters != null) {
+            Counter.builder("todo.admission.rejected")
+                    .description("Requests to /api/todos turned away before reaching the stores")
+                    .tag("reason", reason)
+                    .tag("endpoint", endpoint.isEmpty() ? "root" : endpoint)
+                    .register(meters)
+                    .increment();
+        }
+        logger.debug("Rejected {} request with {}, retry after {}s", endpoint, status.value(), retryAfter);
+        return new Decision(status, retryAfter, false, false);
+    }
+
+    private static String parseClientHeader(String clientKey) {
+        String key = clientKey.trim();
+        if (key.equalsIgnoreCase("ip")) {
+            return null;
+        }
+        if (key.regionMatches(true, 0, "header:", 0, 7) && key.length() > 7) {
+            return key.substring(7).trim();
+        }
+        throw new IllegalArgumentException("todo.ratelimit.client-key must be ip or header:<name>, got: " + clientKey);
+    }
+
+    private static Map<String, TokenBucketLimiter> parseLimits(String limits, int maxClients, LongSupplier clock) {
+        Map<String, TokenBucketLimiter> parsed = new HashMap<>();
+        for (String entry : limits.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            String[] nameAndLimit = entry.split("=");
+            String[] rateAndBurst = nameAndLimit.length == 2 ? nameAndLimit[1].split("/") : new String[0];
+            String name = nameAndLimit[0].trim();
+            if (rateAndBurst.length != 2 || !(ENDPOINTS.contains(name) || name.equals(DEFAULT_LIMIT))) {
+                throw new IllegalArgumentException("Invalid todo.ratelimit.limits entry, expected endpoint=rate/burst: " + entry);
+            }
+            try {
+                parsed.put(name, new TokenBucketLimiter(Double.parseDouble(rateAndBurst[0].trim()),
+                        Integer.parseInt(rateAndBurst[1].trim()), maxClients, clock));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid todo.ratelimit.limits entry, expected endpoint=rate/burst: " + entry, e);
+            }
+        }
+        return Map.copyOf(parsed);
+    }
+
+    /**
+     * Outcome of {@link #admit}: admitted when {@code status} is {@code null}, otherwise the
+     * response to send with {@code Retry-After: retryAfterSeconds}.
+     */
+    public record Decision(HttpStatus status, long retryAfterSeconds, boolean inFlight, boolean write) {
+
+        static final Decision UNCOUNTED = new Decision(null, 0, false, false);
+        static final Decision READ = new Decision(null, 0, true, false);
+        static final Decision WRITE = new Decision(null, 0, true, true);
+
+        public boolean admitted() {
+            return status == null;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.sukruokul.todo.admission;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Token buckets keyed by client, one {@link AtomicLong} per key. Each bucket stores the time at
+ * which it will be full again (the generic cell rate algorithm), so taking a permit is one read
+ * and one compare-and-set, without a refill timer or a lock. A request is admitted while that
+ * time is at most {@code burst} permit intervals ahead of now.
+ * <p>
+ * Memory is bounded: full buckets are equivalent to absent ones and are dropped by
+ * {@link #evictIdle()}. Once {@code maxKeys} clients are tracked, a new client is charged to an
+ * overflow bucket of its remote address instead, so a caller that invents a new client key per
+ * request (a rotating header value) fills the table but then only drains its own address's
+ * overflow bucket, not the one newcomers from other addresses get. Overflow buckets are capped at
+ * {@code maxKeys} as well, past which the remaining clients share a single bucket until eviction
+ * makes room.
+ * author: sukru.okul
+ */
+public final class TokenBucketLimiter {
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final long interval;
+    private final long tolerance;
+    private final int maxKeys;
+    private final LongSupplier clock;
+    private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, AtomicLong> overflowByAddress = new ConcurrentHashMap<>();
+    private final AtomicLong overflow = new AtomicLong(Long.MIN_VALUE);
+
+    /**
+     * @param permitsPerSecond sustained rate per key
+     * @param burst            permits a key with a full bucket may take at once
+     * @param clock            monotonic nanoseconds, such as {@link System#nanoTime()}
+     * @throws IllegalArgumentException if the rate is not positive or the burst is below one
+     */
+    public TokenBucketLimiter(double permitsPerSecond, int burst, int maxKeys, LongSupplier clock) {
+        if (!(permitsPerSecond > 0) || burst < 1 || maxKeys < 1) {
+            throw new IllegalArgumentException("Rate limit needs a positive rate, burst and key count: "
+                    + permitsPerSecond + "/" + burst + ", " + maxKeys + " keys");
+        }
+        this.interval = Math.max(1, Math.round(NANOS_PER_SECOND / permitsPerSecond));
+        this.tolerance = interval * burst;
+        this.maxKeys = maxKeys;
+        this.clock = clock;
+    }
+
+    /**
+     * Takes one permit from the bucket of {@code key}, a client whose key is its address.
+     *
+     * @see #tryAcquire(String, String)
+     */
+    public long tryAcquire(String key) {
+        return tryAcquire(key, key);
+    }
+
+    /**
+     * Takes one permit from the bucket of {@code key}, or from the overflow bucket of
+     * {@code address} when the key is new and the table is full.
+     *
+     * @return 0 if the permit was taken, otherwise the nanoseconds until one is available;
+     * a rejected call takes nothing
+     */
+    public long tryAcquire(String key, String address) {
+        AtomicLong bucket = buckets.get(key);
+        if (bucket == null) {
+            bucket = buckets.size() < maxKeys ? buckets.computeIfAbsent(key, k -> new AtomicLong(Long.MIN_VALUE)) : overflowOf(address);
+        }
+        long now = clock.getAsLong();
+        while (true) {
+            long full = bucket.get();
+            long next = Math.max(full, now) + interval;
+            long wait = next - now - tolerance;
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(full, next)) {
+                return 0;
+            }
+        }
+    }
+
+    private AtomicLong overflowOf(String address) {
+        AtomicLong bucket = overflowByAddress.get(address);
+        if (bucket != null) {
+            return bucket;
+        }
+        return overflowByAddress.size() < maxKeys ? overflowByAddress.computeIfAbsent(address, a -> new AtomicLong(Long.MIN_VALUE)) : overflow;
+    }
+
+    /**
+     * Drops the buckets that have refilled completely. A permit taken concurrently from a bucket
+     * being dropped is forgotten, which can admit at most one extra request for that key.
+     */
+    public void evictIdle() {
+        long now = clock.getAsLong();
+        buckets.values().removeIf(bucket -> bucket.get() <= now);
+        overflowByAddress.values().removeIf(bucket -> bucket.get() <= now);
+    }
+
+    /**
+     * Buckets tracked, overflow buckets of addresses included.
+     */
+    public int size() {
+        return buckets.size() + overflowByAddress.size();
+    }
+}
@@ -0,0 +1,21 @@
+package com.sukruokul.todo.config;
+
+import com.sukruokul.todo.id.TodoIdGenerator;
+import com.sukruokul.todo.id.TodoIds;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * author: sukru.okul
+ */
+@Configuration
+public class IdGeneratorConfig {
+
+    @Bean
+    public TodoIdGenerator todoIdGenerator(@Value("${todo.id.generator:ulid}") String name) {
+        TodoIdGenerator generator = TodoIds.forName(name);
+        TodoIds.use(generator);
+        return generator;
+    }
+}
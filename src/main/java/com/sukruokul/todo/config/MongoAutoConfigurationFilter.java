@@ -0,0 +1,73 @@
+package com.sukruokul.todo.config;
+
+import org.springframework.boot.autoconfigure.AutoConfigurationImportFilter;
+import org.springframework.boot.autoconfigure.AutoConfigurationMetadata;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.env.Environment;
+
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Drops the reactive Mongo auto-configuration unless the app runs in reactive mode with the dual
+ * store, the only combination that uses the reactive driver, and the blocking one unless the
+ * store backend is dual or mongo. Both Mongo starters are on the classpath, so without this a
+ * servlet app, or one on another backend, would still build the reactive client and its Netty
+ * event loops, and the sqlite and memory backends would still start a Mongo client that keeps
+ * trying to reach a server they never use. Registered in {@code META-INF/spring.factories}.
+ * author: sukru.okul
+ */
+public class MongoAutoConfigurationFilter implements AutoConfigurationImportFilter, EnvironmentAware {
+
+    private static final Set<String> REACTIVE_MONGO = Set.of(
+            "org.springframework.boot.autoconfigure.mongo.MongoReactiveAutoConfiguration",
+            "org.springframework.boot.autoconfigure.data.mongo.MongoReactiveDataAutoConfiguration",
+            "org.springframework.boot.autoconfigure.data.mongo.MongoReactiveRepositoriesAutoConfiguration");
+
+    private static final Set<String> BLOCKING_MONGO = Set.of(
+            "org.springframework.boot.autoconfigure.mongo.MongoAutoConfiguration",
+            "org.springframework.boot.autoconfigure.data.mongo.MongoDataAutoConfiguration",
+            "org.springframework.boot.autoconfigure.data.mongo.MongoRepositoriesAutoConfiguration");
+
+    private Environment environment;
+
+    @Override
+    public void setEnvironment(Environment environment) {
+        this.environment = environment;
+    }
+
+    @Override
+    public boolean[] match(String[] autoConfigurationClasses, AutoConfigurationMetadata autoConfigurationMetadata) {
+        boolean mongo = usesMongo(environment);
+        boolean reactiveMongo = usesReactiveMongo(environment);
+        boolean[] matches = new boolean[autoConfigurationClasses.length];
+        for (int i = 0; i < autoConfigurationClasses.length; i++) {
+            // Entries an earlier filter already removed are null.
+            String candidate = autoConfigurationClasses[i];
+            matches[i] = candidate == null
+                    || (reactiveMongo || !REACTIVE_MONGO.contains(candidate)) && (mongo || !BLOCKING_MONGO.contains(candidate));
+        }
+        return matches;
+    }
+
+    /**
+     * {@code todo.store.backend} is dual or mongo; also gates {@link MongoConfig}.
+     */
+    static boolean usesMongo(Environment environment) {
+        String backend = backend(environment);
+        return backend.equals("dual") || backend.equals("mongo");
+    }
+
+    /**
+     * {@code spring.main.web-application-type=reactive} (the {@code reactive} profile) and
+     * {@code todo.store.backend=dual}; also gates {@link ReactiveMongoConfig}.
+     */
+    static boolean usesReactiveMongo(Environment environment) {
+        return "reactive".equalsIgnoreCase(environment.getProperty("spring.main.web-application-type", "").trim())
+                && backend(environment).equals("dual");
+    }
+
+    private static String backend(Environment environment) {
+        return environment.getProperty("todo.store.backend", "dual").trim().toLowerCase(Locale.ROOT);
+    }
+}
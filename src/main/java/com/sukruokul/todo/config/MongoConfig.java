@@ -0,0 +1,35 @@
+package com.sukruokul.todo.config;
+
+import com.sukruokul.todo.repository.mongo.MongoTodoChangeFeed;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Condition;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.repository.config.EnableMongoRepositories;
+
+/**
+ * Blocking Mongo repositories and change feed, for the dual and mongo store backends only; with
+ * the sqlite or memory backend neither these nor the Mongo client behind them are created.
+ * author: sukru.okul
+ */
+@Configuration
+@Conditional(MongoConfig.UsesMongo.class)
+@EnableMongoRepositories(basePackages = "com.sukruokul.todo.repository.mongo")
+public class MongoConfig {
+
+    @Bean
+    public MongoTodoChangeFeed mongoTodoChangeFeed(MongoTemplate mongoTemplate) {
+        return new MongoTodoChangeFeed(mongoTemplate);
+    }
+
+    static class UsesMongo implements Condition {
+
+        @Override
+        public boolean matches(ConditionContext context, AnnotatedTypeMetadata metadata) {
+            return MongoAutoConfigurationFilter.usesMongo(context.getEnvironment());
+        }
+    }
+}
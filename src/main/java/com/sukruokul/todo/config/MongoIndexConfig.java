@@ -0,0 +1,77 @@
+package com.sukruokul.todo.config;
+
+import com.sukruokul.todo.model.Todo;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+
+import java.time.Duration;
+
+/**
+ * Creates the indexes declared on {@link Todo} in the {@code todos} collection. Spring Data's
+ * auto-index-creation is off by default and would fail startup when Mongo is down, so this runs
+ * in the background once the application is ready and only logs failures. The template is looked
+ * up on that thread too, so under lazy initialization the Mongo client is not built on the main
+ * thread. The TTL index that expires archived todos is created here as well, since its expiry
+ * comes from {@code todo.archive.retention}. Registered for the dual and mongo store backends only.
+ */
+@Configuration
+@Conditional(MongoConfig.UsesMongo.class)
+public class MongoIndexConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(MongoIndexConfig.class);
+    private static final String TTL_INDEX = "deletedAt_ttl";
+
+    private final ObjectProvider<MongoTemplate> mongoTemplate;
+    private final Duration archiveRetention;
+
+    public MongoIndexConfig(ObjectProvider<MongoTemplate> mongoTemplate,
+                            @Value("${todo.archive.retention:7d}") Duration archiveRetention) {
+        this.mongoTemplate = mongoTemplate;
+        this.archiveRetention = archiveRetention;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureIndexes() {
+        Thread.ofVirtual().name("mongo-index-init").start(() -> {
+            try {
+                MongoTemplate template = mongoTemplate.getObject();
+                IndexOperations indexOps = template.indexOps(Todo.class);
+                IndexResolver.create(template.getConverter().getMappingContext())
+                        .resolveIndexFor(Todo.class)
+                        .forEach(indexOps::ensureIndex);
+                ensureTtlIndex(template, indexOps);
+                logger.info("Mongo indexes for {} are in place.", Todo.class.getSimpleName());
+            } catch (Exception e) {
+                logger.warn("Could not ensure Mongo indexes: {}", e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Mongo removes a document about a minute after its {@code deletedAt} is older than the
+     * retention. A changed retention is applied to the existing index with {@code collMod}.
+     */
+    private void ensureTtlIndex(MongoTemplate template, IndexOperations indexOps) {
+        try {
+            indexOps.ensureIndex(new Index("deletedAt", Sort.Direction.ASC).named(TTL_INDEX).expire(archiveRetention));
+        } catch (DataAccessException e) {
+            // IndexOptionsConflict: the index exists with another expireAfterSeconds.
+            template.executeCommand(new Document("collMod", template.getCollectionName(Todo.class))
+                    .append("index", new Document("name", TTL_INDEX).append("expireAfterSeconds", archiveRetention.toSeconds())));
+            logger.info("Mongo TTL for archived todos changed to {}.", archiveRetention);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.sukruokul.todo.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.config.CorsRegistry;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Active only when the app runs as a reactive web application ({@code reactive} profile).
+ * author: sukru.okul
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveConfig implements WebFluxConfigurer {
+
+    @Value("${frontent.address}")
+    private String frontentAddress;
+
+    /**
+     * Tomcat is on the classpath for the MVC mode and would otherwise be picked as the reactive
+     * server too; Netty keeps connections on a handful of event-loop threads.
+     */
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    /**
+     * JDBC and the blocking service paths run here instead of on the event loop. The thread cap
+     * keeps SQLite from being hit by more callers than its pool can serve; the queue cap turns an
+     * overload into a rejected task instead of unbounded memory growth.
+     */
+    @Bean(destroyMethod = "dispose")
+    public Scheduler sqliteScheduler(@Value("${todo.reactive.sqlite-threads:8}") int threads,
+                                     @Value("${todo.reactive.sqlite-queue:10000}") int queueSize) {
+        return Schedulers.newBoundedElastic(threads, queueSize, "todo-sqlite");
+    }
+
+    @Override
+    public void addCorsMappings(CorsRegistry registry) {
+        registry.addMapping("/**")
+                .allowedOrigins(frontentAddress)
+                .allowedMethods("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS")
+                .allowedHeaders("*")
+                .exposedHeaders("ETag")
+                .allowCredentials(true);
+    }
+}
@@ -0,0 +1,27 @@
+package com.sukruokul.todo.config;
+
+import org.springframework.context.annotation.Condition;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+import org.springframework.data.mongodb.repository.config.EnableReactiveMongoRepositories;
+
+/**
+ * Reactive Mongo repositories, for the dual store in reactive mode only; every other combination
+ * reaches Mongo, if at all, through the blocking repositories.
+ * author: sukru.okul
+ */
+@Configuration
+@Conditional(ReactiveMongoConfig.UsesReactiveMongo.class)
+@EnableReactiveMongoRepositories(basePackages = "com.sukruokul.todo.repository.reactive")
+public class ReactiveMongoConfig {
+
+    static class UsesReactiveMongo implements Condition {
+
+        @Override
+        public boolean matches(ConditionContext context, AnnotatedTypeMetadata metadata) {
+            return MongoAutoConfigurationFilter.usesReactiveMongo(context.getEnvironment());
+        }
+    }
+}
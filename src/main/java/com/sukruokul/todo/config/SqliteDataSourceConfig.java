@@ -0,0 +1,72 @@
+package com.sukruokul.todo.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * SQLite allows one writer at a time, so with {@code todo.sqlite.split-pool=true} writes share a
+ * single pooled connection while read-only transactions (every Spring Data finder) use a separate
+ * reader pool. In WAL mode the readers never block on, or are blocked by, the writer.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "todo.sqlite", name = "split-pool", havingValue = "true")
+public class SqliteDataSourceConfig {
+
+    private enum Route {
+        WRITER,
+        READER
+    }
+
+    @Bean(destroyMethod = "close")
+    public HikariDataSource sqliteWriterDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = pool(properties, "sqlite-writer");
+        dataSource.setMaximumPoolSize(1);
+        return dataSource;
+    }
+
+    @Bean(destroyMethod = "close")
+    public HikariDataSource sqliteReaderDataSource(DataSourceProperties properties,
+                                                   @Value("${todo.sqlite.reader-pool-size:4}") int readerPoolSize) {
+        HikariDataSource dataSource = pool(properties, "sqlite-reader");
+        dataSource.setMaximumPoolSize(readerPoolSize);
+        dataSource.setConnectionInitSql("PRAGMA query_only = 1");
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("sqliteWriterDataSource") DataSource writer,
+                                 @Qualifier("sqliteReaderDataSource") DataSource reader) {
+        AbstractRoutingDataSource routing = new AbstractRoutingDataSource() {
+            @Override
+            protected Object determineCurrentLookupKey() {
+                return TransactionSynchronizationManager.isCurrentTransactionReadOnly() ? Route.READER : Route.WRITER;
+            }
+        };
+        routing.setTargetDataSources(Map.of(Route.WRITER, writer, Route.READER, reader));
+        routing.setDefaultTargetDataSource(writer);
+        routing.afterPropertiesSet();
+        // Defers the physical connection until the first statement, when the read-only flag of the
+        // surrounding transaction is known.
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    private static HikariDataSource pool(DataSourceProperties properties, String poolName) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName(poolName);
+        dataSource.setMinimumIdle(1);
+        return dataSource;
+    }
+}
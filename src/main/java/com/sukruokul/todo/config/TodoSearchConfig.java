@@ -0,0 +1,42 @@
+package com.sukruokul.todo.config;
+
+import com.sukruokul.todo.repository.jpa.TodoRepository;
+import com.sukruokul.todo.search.Fts5TodoSearchIndex;
+import com.sukruokul.todo.search.InvertedTodoIndex;
+import com.sukruokul.todo.search.TodoSearchIndex;
+import com.sukruokul.todo.store.TodoStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+
+import java.util.Locale;
+
+/**
+ * author: sukru.okul
+ */
+@Configuration
+public class TodoSearchConfig {
+
+    // Never lazy: the index starts building on ApplicationReadyEvent, and a bean that was never
+    // created has its listeners looked up on the declared TodoSearchIndex type, which has none.
+    @Bean
+    @Lazy(false)
+    public TodoSearchIndex todoSearchIndex(@Value("${todo.search.backend:memory}") String backend,
+                                           @Value("${todo.store.backend:dual}") String storeBackend,
+                                           @Value("${todo.stream.chunk-size:500}") int buildChunkSize,
+                                           TodoStore todoStore,
+                                           TodoRepository todoSqliteRepository) {
+        return switch (backend.trim().toLowerCase(Locale.ROOT)) {
+            case "memory" -> new InvertedTodoIndex(todoStore, buildChunkSize);
+            case "fts5" -> {
+                String store = storeBackend.trim().toLowerCase(Locale.ROOT);
+                if (!store.equals("dual") && !store.equals("sqlite")) {
+                    throw new IllegalArgumentException("todo.search.backend=fts5 requires todo.store.backend=dual or sqlite");
+                }
+                yield new Fts5TodoSearchIndex(todoSqliteRepository);
+            }
+            default -> throw new IllegalArgumentException("Unknown todo search backend: " + backend);
+        };
+    }
+}
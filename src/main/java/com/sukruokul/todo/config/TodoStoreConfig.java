@@ -0,0 +1,58 @@
+package com.sukruokul.todo.config;
+
+import com.sukruokul.todo.repository.jpa.TodoRepository;
+import com.sukruokul.todo.repository.mongo.TodoMongoRepository;
+import com.sukruokul.todo.service.StoreReadExecutor;
+import com.sukruokul.todo.service.TodoMetrics;
+import com.sukruokul.todo.service.TodoOutbox;
+import com.sukruokul.todo.service.TodoReconciler;
+import com.sukruokul.todo.service.TodoReplica;
+import com.sukruokul.todo.store.DualTodoStore;
+import com.sukruokul.todo.store.MemoryTodoStore;
+import com.sukruokul.todo.store.MongoTodoStore;
+import com.sukruokul.todo.store.SqliteTodoStore;
+import com.sukruokul.todo.store.TodoStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+
+import java.util.Locale;
+
+/**
+ * author: sukru.okul
+ */
+@Configuration
+public class TodoStoreConfig {
+
+    @Bean
+    public TodoStore todoStore(@Value("${todo.store.backend:dual}") String backend,
+                               TodoRepository todoSqliteRepository,
+                               @Lazy TodoMongoRepository todoMongoRepository,
+                               TodoOutbox todoOutbox,
+                               StoreReadExecutor readExecutor,
+                               TodoMetrics todoMetrics,
+                               TodoReconciler todoReconciler,
+                               TodoReplica todoReplica) {
+        String name = backend.trim().toLowerCase(Locale.ROOT);
+        if (!name.equals("dual")) {
+            // These keep two stores in step and have nothing to do with a single one.
+            if (todoOutbox.isEnabled()) {
+                throw new IllegalArgumentException("todo.write.mode=outbox requires todo.store.backend=dual");
+            }
+            if (todoReconciler.isEnabled()) {
+                throw new IllegalArgumentException("todo.reconcile.enabled requires todo.store.backend=dual");
+            }
+        }
+        if (todoReplica.isEnabled() && !name.equals("dual") && !name.equals("mongo")) {
+            throw new IllegalArgumentException("todo.replica.enabled requires todo.store.backend=dual or mongo");
+        }
+        return switch (name) {
+            case "dual" -> new DualTodoStore(todoSqliteRepository, todoMongoRepository, todoOutbox, readExecutor, todoMetrics, todoReconciler);
+            case "sqlite" -> new SqliteTodoStore(todoSqliteRepository);
+            case "mongo" -> new MongoTodoStore(todoMongoRepository);
+            case "memory" -> new MemoryTodoStore();
+            default -> throw new IllegalArgumentException("Unknown todo store backend: " + backend);
+        };
+    }
+}
@@ -0,0 +1,63 @@
+package com.sukruokul.todo.config;
+
+import org.flywaydb.core.api.MigrationVersion;
+import org.flywaydb.core.api.migration.Context;
+import org.flywaydb.core.api.migration.JavaMigration;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Migration 1.1: adds {@code todo.updated_at} to tables created before the column existed and
+ * fills it with {@code created_at}. SQLite has no {@code add column if not exists}, so the
+ * column list is checked first; on a database V1 created the column is already there and this
+ * does nothing. Spring Boot hands {@link JavaMigration} beans to Flyway, which runs this between
+ * V1 and V2, whose index needs the column.
+ * author: sukru.okul
+ */
+@Component
+public class TodoUpdatedAtMigration implements JavaMigration {
+
+    @Override
+    public MigrationVersion getVersion() {
+        return MigrationVersion.fromVersion("1.1");
+    }
+
+    @Override
+    public String getDescription() {
+        return "add todo updated at";
+    }
+
+    @Override
+    public Integer getChecksum() {
+        return null;
+    }
+
+    @Override
+    public boolean canExecuteInTransaction() {
+        return true;
+    }
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        try (Statement statement = context.getConnection().createStatement()) {
+            if (!hasColumn(statement, "todo", "updated_at")) {
+                statement.executeUpdate("alter table todo add column updated_at timestamp");
+                statement.executeUpdate("update todo set updated_at = created_at");
+            }
+        }
+    }
+
+    private static boolean hasColumn(Statement statement, String table, String column) throws SQLException {
+        try (ResultSet columns = statement.executeQuery("pragma table_info(" + table + ")")) {
+            while (columns.next()) {
+                if (column.equalsIgnoreCase(columns.getString("name"))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
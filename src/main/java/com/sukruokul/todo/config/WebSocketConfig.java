@@ -0,0 +1,38 @@
+package com.sukruokul.todo.config;
+
+import com.sukruokul.todo.controller.TodoEventWebSocketHandler;
+import com.sukruokul.todo.service.TodoEventBus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+
+/**
+ * Serves the todo change stream over WebSocket at {@code /api/todos/ws} when
+ * {@code todo.events.websocket.enabled=true}; SSE at {@code /api/todos/stream} is always on.
+ * author: sukru.okul
+ */
+@Configuration
+@EnableWebSocket
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "todo.events.websocket.enabled", havingValue = "true")
+public class WebSocketConfig implements WebSocketConfigurer {
+
+    @Value("${frontent.address}")
+    private String frontentAddress;
+
+    private final TodoEventBus todoEventBus;
+
+    public WebSocketConfig(TodoEventBus todoEventBus) {
+        this.todoEventBus = todoEventBus;
+    }
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        registry.addHandler(new TodoEventWebSocketHandler(todoEventBus), "/api/todos/ws")
+                .setAllowedOrigins(frontentAddress);
+    }
+}
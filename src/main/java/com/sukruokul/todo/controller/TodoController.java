@@ -1,29 +1,61 @@
 package com.sukruokul.todo.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sukruokul.todo.dto.BulkTodoOperationDTO;
+import com.sukruokul.todo.dto.BulkTodoResultDTO;
 import com.sukruokul.todo.dto.TodoDTO;
+import com.sukruokul.todo.dto.TodoPageDTO;
+import com.sukruokul.todo.dto.TodoSearchPageDTO;
+import com.sukruokul.todo.dto.TodoPatchDTO;
+import com.sukruokul.todo.dto.TodoQueryDTO;
 import com.sukruokul.todo.model.Todo;
+import com.sukruokul.todo.model.TodoFilter;
+import com.sukruokul.todo.model.TodoPatch;
+import com.sukruokul.todo.service.PreconditionFailedException;
+import com.sukruokul.todo.service.TodoEvent;
+import com.sukruokul.todo.service.TodoEventBus;
 import com.sukruokul.todo.service.TodoService;
+import com.sukruokul.todo.service.TodoVersions;
+import com.sukruokul.todo.service.VersionedTodo;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springdoc.core.annotations.ParameterObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.validation.Valid;
 
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 /**
  * author: sukru.okul
  */
 @Tag(name = "TodoController", description = "REST APIs for managing Todo items")
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/api/todos")
 @RequiredArgsConstructor
 public class TodoController {
@@ -31,25 +63,227 @@ public class TodoController {
     private static final Logger logger = LoggerFactory.getLogger(TodoController.class);
 
     private final TodoService todoService;
+    private final ObjectMapper objectMapper;
+    private final TodoEventBus todoEventBus;
 
-    @Operation(summary = "Get all Todo items", description = "Retrieves a comprehensive list of all Todo items in the system.")
+    @Value("${todo.page.max-size:500}")
+    private int maxPageSize;
+
+    @Value("${todo.stream.chunk-size:500}")
+    private int streamChunkSize;
+
+    @Value("${todo.bulk.max-size:5000}")
+    private int maxBulkSize;
+
+    @Value("${todo.events.timeout:30m}")
+    private Duration eventsTimeout;
+
+    @Value("${todo.search.max-results:10000}")
+    private int maxSearchResults;
+
+    @Operation(summary = "Get all Todo items", description = "Retrieves all Todo items, optionally filtered and sorted by creation time on the server, "
+            + "as JSON, CBOR or Smile depending on Accept. Supports If-None-Match.")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Successfully retrieved list of todos"),
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved list of todos",
+                    content = @Content(array = @ArraySchema(schema = @Schema(implementation = Todo.class)))),
+            @ApiResponse(responseCode = "304", description = "No todo changed since the given ETag"),
+            @ApiResponse(responseCode = "400", description = "Invalid filter or sort"),
             @ApiResponse(responseCode = "500", description = "Internal server error")
     })
     @GetMapping("/getTodos")
-    public ResponseEntity<List<Todo>> getAllTodos() {
-        logger.info("Received request to get all todos.");
+    public ResponseEntity<Stream<Todo>> getAllTodos(@ParameterObject TodoQueryDTO query, WebRequest webRequest) {
+        logger.debug("Received request to get all todos with {}.", query);
+        // Taken before reading, so a write racing with the read can only make the tag older than the body.
+        String eTag = todoService.listETag();
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
         try {
-            List<Todo> todoList = todoService.findAll();
-            logger.debug("Returning {} todos.", todoList.size());
-            return ResponseEntity.ok(todoList);
+            // Read chunk by chunk while the message converter writes the array to the response,
+            // which closes the stream; a store failure midway truncates the body.
+            return ResponseEntity.ok().eTag(eTag).body(todoService.streamAll(query.toFilter(), streamChunkSize));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Rejected todo list request with {}: {}", query, e.getMessage());
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             logger.error("Error retrieving all todos: {}", e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
 
+    @Operation(summary = "Get a page of Todo items", description = "Retrieves Todo items ordered by creation time using an opaque continuation cursor.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved page of todos"),
+            @ApiResponse(responseCode = "400", description = "Invalid page size, cursor, filter or sort"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    @GetMapping("/getTodosPage")
+    public ResponseEntity<TodoPageDTO> getTodosPage(@RequestParam(value = "size", defaultValue = "50") int size,
+                                                    @RequestParam(value = "cursor", required = false) String cursor,
+                                                    @ParameterObject TodoQueryDTO query) {
+        logger.debug("Received request to get todo page of size {} after cursor {} with {}.", size, cursor, query);
+        if (size < 1 || size > maxPageSize) {
+            logger.warn("Rejected todo page request with size {}.", size);
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            return ResponseEntity.ok(todoService.findPage(query.toFilter(), cursor, size));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Rejected todo page request with cursor {} and {}: {}", cursor, query, e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            logger.error("Error retrieving todo page: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    @Operation(summary = "Stream all Todo items", description = "Streams matching Todo items as newline-delimited JSON without buffering the whole list. Supports If-None-Match.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Todos streamed successfully"),
+            @ApiResponse(responseCode = "304", description = "No todo changed since the given ETag"),
+            @ApiResponse(responseCode = "400", description = "Invalid filter or sort")
+    })
+    @GetMapping(value = "/getTodos", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllTodos(@ParameterObject TodoQueryDTO query, WebRequest webRequest) {
+        logger.debug("Received request to stream all todos with {}.", query);
+        String eTag = todoService.listETag();
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+        TodoFilter filter;
+        try {
+            filter = query.toFilter();
+        } catch (IllegalArgumentException e) {
+            logger.warn("Rejected todo stream request with {}: {}", query, e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+        StreamingResponseBody body = ndjson(() -> todoService.streamAll(filter, streamChunkSize));
+        return ResponseEntity.ok().eTag(eTag).contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    @Operation(summary = "Export archived Todo items", description = "Streams every archived Todo item, oldest first, as newline-delimited JSON "
+            + "including its deletedAt. Archived todos are deleted once todo.archive.retention has passed, so export at least that often to keep them.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Archived todos streamed successfully")
+    })
+    @GetMapping(value = "/archive", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportArchivedTodos() {
+        logger.debug("Received request to export archived todos.");
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(ndjson(() -> todoService.streamArchived(streamChunkSize)));
+    }
+
+    /**
+     * One JSON document per line, written as the store is read chunk by chunk.
+     */
+    private StreamingResponseBody ndjson(Supplier<Stream<Todo>> source) {
+        return out -> {
+            try (Stream<Todo> todos = source.get();
+                 JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                // Lines are separated by the newline alone, not Jackson's default space as well.
+                generator.setRootValueSeparator(null);
+                Iterator<Todo> iterator = todos.iterator();
+                while (iterator.hasNext()) {
+                    generator.writeObject(iterator.next());
+                    generator.writeRaw('\n');
+                }
+            }
+        };
+    }
+
+    @Operation(summary = "Stream Todo changes", description = "Pushes created, updated and deleted Todo items as Server-Sent Events instead of polling getTodos. "
+            + "Reconnecting with Last-Event-ID resumes after that event; a reset event means the list must be reloaded.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Event stream opened"),
+            @ApiResponse(responseCode = "503", description = "Subscriber limit reached")
+    })
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamTodoChanges(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        logger.debug("Received request to stream todo changes after event {}.", lastEventId);
+        if (!todoEventBus.acceptsSubscribers()) {
+            logger.warn("Rejected todo change stream: subscriber limit reached.");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        SseEmitter emitter = new SseEmitter(eventsTimeout.toMillis());
+        TodoEventBus.Subscription subscription;
+        try {
+            subscription = todoEventBus.subscribe(new TodoEventBus.Sink() {
+                @Override
+                public void send(TodoEvent event) throws IOException {
+                    emitter.send(SseEmitter.event()
+                            .id(Long.toString(event.id()))
+                            .name(event.type().eventName())
+                            .data(event.data()));
+                }
+
+                @Override
+                public void heartbeat() throws IOException {
+                    emitter.send(SseEmitter.event().comment("keep-alive"));
+                }
+
+                @Override
+                public void close() {
+                    emitter.complete();
+                }
+            }, lastEventId);
+        } catch (IllegalStateException e) {
+            logger.warn("Rejected todo change stream: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        emitter.onCompletion(subscription::close);
+        emitter.onTimeout(subscription::close);
+        emitter.onError(e -> subscription.close());
+        return ResponseEntity.ok(emitter);
+    }
+
+    @Operation(summary = "Count Todo items", description = "Counts Todo items matching the optional filters without transferring them.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully counted todos"),
+            @ApiResponse(responseCode = "400", description = "Invalid filter"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    @GetMapping("/count")
+    public ResponseEntity<Long> countTodos(@ParameterObject TodoQueryDTO query) {
+        logger.debug("Received request to count todos with {}.", query);
+        try {
+            return ResponseEntity.ok(todoService.count(query.toFilter()));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Rejected todo count request with {}: {}", query, e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            logger.error("Error counting todos: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    @Operation(summary = "Search Todo items by title", description = "Ranked full-text search over titles. Every word of q must match the start of a title word; results are paginated with page and size.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully searched todos"),
+            @ApiResponse(responseCode = "400", description = "Missing query, or invalid page or size"),
+            @ApiResponse(responseCode = "503", description = "Search index is still being built"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    @GetMapping("/search")
+    public ResponseEntity<TodoSearchPageDTO> searchTodos(@RequestParam("q") String query,
+                                                         @RequestParam(value = "page", defaultValue = "0") int page,
+                                                         @RequestParam(value = "size", defaultValue = "20") int size) {
+        logger.debug("Received request to search todos for '{}', page {} of size {}.", query, page, size);
+        if (query.isBlank() || page < 0 || size < 1 || size > maxPageSize || (long) (page + 1) * size > maxSearchResults) {
+            logger.warn("Rejected todo search for '{}' with page {} and size {}.", query, page, size);
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            return ResponseEntity.ok(todoService.search(query, page, size));
+        } catch (IllegalStateException e) {
+            logger.warn("Rejected todo search: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        } catch (Exception e) {
+            logger.error("Error searching todos: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
     @Operation(summary = "Create a new Todo item", description = "Adds a new Todo item to the system.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "201", description = "Todo item created successfully"),
@@ -58,14 +292,14 @@ public class TodoController {
     })
     @PostMapping("/createTodo")
     public ResponseEntity<Todo> createTodo(@Valid @RequestBody TodoDTO todoDTO) {
-        logger.info("Received request to create new todo: {}", todoDTO);
+        logger.debug("Received request to create new todo: {}", todoDTO);
         try {
             Todo newTodo = new Todo();
             newTodo.setTitle(todoDTO.getTitle());
             newTodo.setCompleted(todoDTO.isCompleted());
 
             Todo savedTodo = todoService.save(newTodo);
-            logger.info("Todo created successfully: {}", savedTodo);
+            logger.debug("Todo created successfully: {}", savedTodo);
             return ResponseEntity.status(HttpStatus.CREATED).body(savedTodo);
         } catch (Exception e) {
             logger.error("Error creating todo {}: {}", todoDTO, e.getMessage(), e);
@@ -73,20 +307,49 @@ public class TodoController {
         }
     }
 
-    @Operation(summary = "Get a Todo item by ID", description = "Retrieves a single Todo item based on its unique identifier.")
+    @Operation(summary = "Apply Todo operations in bulk", description = "Creates, updates and deletes many Todo items in one request and reports a status per item.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Bulk request processed, see per-item statuses"),
+            @ApiResponse(responseCode = "400", description = "Empty or oversized bulk request"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    @PostMapping("/bulk")
+    public ResponseEntity<List<BulkTodoResultDTO>> bulkTodos(@RequestBody List<BulkTodoOperationDTO> operations) {
+        logger.debug("Received bulk request with {} operations.", operations.size());
+        if (operations.isEmpty() || operations.size() > maxBulkSize) {
+            logger.warn("Rejected bulk request with {} operations.", operations.size());
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            List<BulkTodoResultDTO> results = todoService.bulk(operations);
+            logger.debug("Bulk request processed: {} results.", results.size());
+            return ResponseEntity.ok(results);
+        } catch (Exception e) {
+            logger.error("Error processing bulk request: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    @Operation(summary = "Get a Todo item by ID", description = "Retrieves a single Todo item based on its unique identifier. Supports If-None-Match.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Todo item found"),
+            @ApiResponse(responseCode = "304", description = "Todo item unchanged since the given ETag"),
             @ApiResponse(responseCode = "404", description = "Todo item not found"),
             @ApiResponse(responseCode = "500", description = "Internal server error")
     })
     @GetMapping("/getTodo/{id}")
-    public ResponseEntity<Todo> getTodoById(@PathVariable("id") String id) {
-        logger.info("Received request to get todo with ID: {}", id);
+    public ResponseEntity<Todo> getTodoById(@PathVariable("id") String id, WebRequest webRequest) {
+        logger.debug("Received request to get todo with ID: {}", id);
         try {
             Optional<Todo> todo = todoService.findById(id);
             if (todo.isPresent()) {
+                // Tagged from the todo read, so the tag always names the body.
+                String eTag = TodoVersions.itemETag(todo.get());
+                if (webRequest.checkNotModified(eTag)) {
+                    return null;
+                }
                 logger.debug("Todo with ID {} found.", id);
-                return ResponseEntity.ok(todo.get());
+                return ResponseEntity.ok().eTag(eTag).body(todo.get());
             } else {
                 logger.warn("Todo with ID {} not found.", id);
                 return ResponseEntity.notFound().build();
@@ -97,31 +360,56 @@ public class TodoController {
         }
     }
 
-    @Operation(summary = "Update an existing Todo item", description = "Updates the details of an existing Todo item identified by its ID.")
+    @Operation(summary = "Update an existing Todo item", description = "Updates the details of an existing Todo item identified by its ID. With If-Match, only if it is still at that ETag.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Todo item updated successfully"),
             @ApiResponse(responseCode = "400", description = "Invalid Todo input"),
             @ApiResponse(responseCode = "404", description = "Todo item not found"),
+            @ApiResponse(responseCode = "412", description = "Todo item changed since the If-Match ETag"),
             @ApiResponse(responseCode = "500", description = "Internal server error")
     })
     @PutMapping("/updateTodo/{id}")
     public ResponseEntity<Todo> updateTodo(@PathVariable("id") String id,
+                                           @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
                                            @Valid @RequestBody TodoDTO todoDTO) {
-        logger.info("Received request to update todo with ID {}. New data: {}", id, todoDTO);
+        logger.debug("Received request to update todo with ID {}. New data: {}", id, todoDTO);
+        return applyUpdate(id, new TodoPatch(todoDTO.getTitle(), todoDTO.isCompleted()), ifMatch);
+    }
+
+    @Operation(summary = "Partially update a Todo item", description = "Changes only the given fields of an existing Todo item, e.g. just completed. With If-Match, only if it is still at that ETag.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Todo item updated successfully"),
+            @ApiResponse(responseCode = "400", description = "Empty patch or blank title"),
+            @ApiResponse(responseCode = "404", description = "Todo item not found"),
+            @ApiResponse(responseCode = "412", description = "Todo item changed since the If-Match ETag"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    @PatchMapping("/updateTodo/{id}")
+    public ResponseEntity<Todo> patchTodo(@PathVariable("id") String id,
+                                          @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                          @Valid @RequestBody TodoPatchDTO patchDTO) {
+        logger.debug("Received request to patch todo with ID {}: {}", id, patchDTO);
+        TodoPatch patch = patchDTO.toPatch();
+        if (patch.isEmpty() || (patch.title() != null && patch.title().isBlank())) {
+            logger.warn("Rejected invalid patch of todo with ID {}: {}", id, patchDTO);
+            return ResponseEntity.badRequest().build();
+        }
+        return applyUpdate(id, patch, ifMatch);
+    }
+
+    private ResponseEntity<Todo> applyUpdate(String id, TodoPatch patch, String ifMatch) {
         try {
-            Optional<Todo> todoData = todoService.findById(id);
-            if (todoData.isPresent()) {
-                Todo existingTodo = todoData.get();
-                existingTodo.setTitle(todoDTO.getTitle());
-                existingTodo.setCompleted(todoDTO.isCompleted());
-
-                Todo updatedTodo = todoService.update(existingTodo);
-                logger.info("Todo with ID {} updated successfully: {}", id, updatedTodo);
-                return ResponseEntity.ok(updatedTodo);
+            Optional<VersionedTodo> updatedTodo = todoService.update(id, patch, ifMatch);
+            if (updatedTodo.isPresent()) {
+                logger.debug("Todo with ID {} updated successfully: {}", id, updatedTodo.get().todo());
+                return ResponseEntity.ok().eTag(updatedTodo.get().eTag()).body(updatedTodo.get().todo());
             } else {
                 logger.warn("Todo with ID {} not found for update.", id);
                 return ResponseEntity.notFound().build();
             }
+        } catch (PreconditionFailedException e) {
+            logger.warn("Rejected update of todo with ID {}: {}", id, e.getMessage());
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).eTag(e.getCurrentETag()).build();
         } catch (Exception e) {
             logger.error("Error updating todo with ID {}: {}", id, e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -136,12 +424,10 @@ public class TodoController {
     })
     @DeleteMapping("/deleteTodo/{id}")
     public ResponseEntity<Void> deleteTodo(@PathVariable("id") String id) {
-        logger.info("Received request to delete todo with ID: {}", id);
+        logger.debug("Received request to delete todo with ID: {}", id);
         try {
-            Optional<Todo> todo = todoService.findById(id);
-            if (todo.isPresent()) {
-                todoService.deleteById(id);
-                logger.info("Todo with ID {} deleted successfully.", id);
+            if (todoService.deleteById(id) > 0) {
+                logger.debug("Todo with ID {} deleted successfully.", id);
                 return ResponseEntity.noContent().build();
             } else {
                 logger.warn("Todo with ID {} not found for deletion.", id);
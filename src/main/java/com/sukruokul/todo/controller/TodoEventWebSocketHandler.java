@@ -0,0 +1,75 @@
+package com.sukruokul.todo.controller;
+
+import com.sukruokul.todo.service.TodoEvent;
+import com.sukruokul.todo.service.TodoEventBus;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.PingMessage;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.io.IOException;
+
+/**
+ * WebSocket variant of {@code /api/todos/stream}: the same events as JSON text frames of the form
+ * {@code {"id":..,"type":"updated","data":{..}}}. Browsers cannot set {@code Last-Event-ID} on a
+ * WebSocket, so a reconnecting client passes the last id as the {@code lastEventId} query
+ * parameter. Messages from the client are ignored.
+ * author: sukru.okul
+ */
+@RequiredArgsConstructor
+public class TodoEventWebSocketHandler extends TextWebSocketHandler {
+
+    private static final Logger logger = LoggerFactory.getLogger(TodoEventWebSocketHandler.class);
+
+    private static final String SUBSCRIPTION = TodoEventBus.Subscription.class.getName();
+
+    private final TodoEventBus todoEventBus;
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) throws IOException {
+        String lastEventId = session.getUri() == null ? null
+                : UriComponentsBuilder.fromUri(session.getUri()).build().getQueryParams().getFirst("lastEventId");
+        logger.debug("Todo change WebSocket {} opened after event {}.", session.getId(), lastEventId);
+        try {
+            TodoEventBus.Subscription subscription = todoEventBus.subscribe(new TodoEventBus.Sink() {
+                @Override
+                public void send(TodoEvent event) throws IOException {
+                    session.sendMessage(new TextMessage("{\"id\":" + event.id()
+                            + ",\"type\":\"" + event.type().eventName()
+                            + "\",\"data\":" + event.data() + "}"));
+                }
+
+                @Override
+                public void heartbeat() throws IOException {
+                    session.sendMessage(new PingMessage());
+                }
+
+                @Override
+                public void close() {
+                    try {
+                        session.close(CloseStatus.GOING_AWAY);
+                    } catch (IOException e) {
+                        logger.debug("Could not close todo change WebSocket {}: {}", session.getId(), e.getMessage());
+                    }
+                }
+            }, lastEventId);
+            session.getAttributes().put(SUBSCRIPTION, subscription);
+        } catch (IllegalStateException e) {
+            logger.warn("Rejected todo change WebSocket: {}", e.getMessage());
+            session.close(CloseStatus.SERVICE_OVERLOAD);
+        }
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        Object subscription = session.getAttributes().remove(SUBSCRIPTION);
+        if (subscription != null) {
+            ((TodoEventBus.Subscription) subscription).close();
+        }
+    }
+}
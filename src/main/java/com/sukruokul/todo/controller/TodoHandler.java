@@ -0,0 +1,260 @@
+package com.sukruokul.todo.controller;
+
+import com.sukruokul.todo.dto.BulkTodoOperationDTO;
+import com.sukruokul.todo.dto.TodoDTO;
+import com.sukruokul.todo.dto.TodoPatchDTO;
+import com.sukruokul.todo.dto.TodoQueryDTO;
+import com.sukruokul.todo.model.Todo;
+import com.sukruokul.todo.model.TodoFilter;
+import com.sukruokul.todo.model.TodoPatch;
+import com.sukruokul.todo.service.PreconditionFailedException;
+import com.sukruokul.todo.service.ReactiveTodoService;
+import com.sukruokul.todo.service.TodoVersions;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Functional-endpoint counterpart of {@link TodoController} for the {@code reactive} profile,
+ * with the same paths, status codes and validation.
+ * author: sukru.okul
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequiredArgsConstructor
+public class TodoHandler {
+
+    private static final Logger logger = LoggerFactory.getLogger(TodoHandler.class);
+
+    private static final ParameterizedTypeReference<List<BulkTodoOperationDTO>> BULK_OPERATIONS = new ParameterizedTypeReference<>() {
+    };
+
+    private final ReactiveTodoService todoService;
+
+    @Value("${todo.page.max-size:500}")
+    private int maxPageSize;
+
+    @Value("${todo.stream.chunk-size:500}")
+    private int streamChunkSize;
+
+    @Value("${todo.bulk.max-size:5000}")
+    private int maxBulkSize;
+
+    @Value("${todo.search.max-results:10000}")
+    private int maxSearchResults;
+
+    public Mono<ServerResponse> getAllTodos(ServerRequest request) {
+        return listTodos(request, MediaType.APPLICATION_JSON);
+    }
+
+    public Mono<ServerResponse> streamAllTodos(ServerRequest request) {
+        return listTodos(request, MediaType.APPLICATION_NDJSON);
+    }
+
+    private Mono<ServerResponse> listTodos(ServerRequest request, MediaType contentType) {
+        // Taken before reading, so a write racing with the read can only make the tag older than the body.
+        return todoService.listETag()
+                .flatMap(eTag -> request.checkNotModified(eTag)
+                        .switchIfEmpty(Mono.defer(() -> withFilter(request, filter -> ServerResponse.ok()
+                                .eTag(eTag)
+                                .contentType(contentType)
+                                .body(todoService.findAll(filter, streamChunkSize), Todo.class)))));
+    }
+
+    public Mono<ServerResponse> exportArchivedTodos(ServerRequest request) {
+        return ServerResponse.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(todoService.findArchived(streamChunkSize), Todo.class);
+    }
+
+    public Mono<ServerResponse> streamTodoChanges(ServerRequest request) {
+        String lastEventId = request.headers().firstHeader("Last-Event-ID");
+        if (!todoService.acceptsSubscribers()) {
+            logger.warn("Rejected todo change stream: subscriber limit reached.");
+            return ServerResponse.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        return ServerResponse.ok()
+                .contentType(MediaType.TEXT_EVENT_STREAM)
+                .body(BodyInserters.fromServerSentEvents(todoService.events(lastEventId)));
+    }
+
+    public Mono<ServerResponse> getTodosPage(ServerRequest request) {
+        int size;
+        try {
+            size = Integer.parseInt(request.queryParam("size").orElse("50"));
+        } catch (NumberFormatException e) {
+            return ServerResponse.badRequest().build();
+        }
+        if (size < 1 || size > maxPageSize) {
+            logger.warn("Rejected todo page request with size {}.", size);
+            return ServerResponse.badRequest().build();
+        }
+        String cursor = request.queryParam("cursor").orElse(null);
+        return withFilter(request, filter -> todoService.findPage(filter, cursor, size)
+                .flatMap(page -> ServerResponse.ok().bodyValue(page)));
+    }
+
+    public Mono<ServerResponse> countTodos(ServerRequest request) {
+        return withFilter(request, filter -> todoService.count(filter)
+                .flatMap(count -> ServerResponse.ok().bodyValue(count)));
+    }
+
+    public Mono<ServerResponse> searchTodos(ServerRequest request) {
+        String query = request.queryParam("q").orElse("");
+        int page;
+        int size;
+        try {
+            page = Integer.parseInt(request.queryParam("page").orElse("0"));
+            size = Integer.parseInt(request.queryParam("size").orElse("20"));
+        } catch (NumberFormatException e) {
+            return ServerResponse.badRequest().build();
+        }
+        if (query.isBlank() || page < 0 || size < 1 || size > maxPageSize || (long) (page + 1) * size > maxSearchResults) {
+            logger.warn("Rejected todo search for '{}' with page {} and size {}.", query, page, size);
+            return ServerResponse.badRequest().build();
+        }
+        return todoService.search(query, page, size)
+                .flatMap(result -> ServerResponse.ok().bodyValue(result))
+                .onErrorResume(IllegalStateException.class, e -> {
+                    logger.warn("Rejected todo search: {}", e.getMessage());
+                    return ServerResponse.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+                })
+                .onErrorResume(e -> serverError("searching todos", e));
+    }
+
+    public Mono<ServerResponse> createTodo(ServerRequest request) {
+        return request.bodyToMono(TodoDTO.class)
+                .flatMap(todoDTO -> {
+                    if (!isValid(todoDTO)) {
+                        return ServerResponse.badRequest().build();
+                    }
+                    Todo newTodo = new Todo();
+                    newTodo.setTitle(todoDTO.getTitle());
+                    newTodo.setCompleted(todoDTO.isCompleted());
+                    return todoService.save(newTodo)
+                            .flatMap(savedTodo -> ServerResponse.status(HttpStatus.CREATED).bodyValue(savedTodo));
+                })
+                .switchIfEmpty(ServerResponse.badRequest().build())
+                .onErrorResume(e -> serverError("creating todo", e));
+    }
+
+    public Mono<ServerResponse> bulkTodos(ServerRequest request) {
+        return request.bodyToMono(BULK_OPERATIONS)
+                .flatMap(operations -> {
+                    if (operations.isEmpty() || operations.size() > maxBulkSize) {
+                        logger.warn("Rejected bulk request with {} operations.", operations.size());
+                        return ServerResponse.badRequest().build();
+                    }
+                    return todoService.bulk(operations)
+                            .flatMap(results -> ServerResponse.ok().bodyValue(results));
+                })
+                .switchIfEmpty(ServerResponse.badRequest().build())
+                .onErrorResume(e -> serverError("processing bulk request", e));
+    }
+
+    public Mono<ServerResponse> getTodoById(ServerRequest request) {
+        String id = request.pathVariable("id");
+        // Tagged from the todo read, so the tag always names the body.
+        return todoService.findById(id)
+                .flatMap(todo -> {
+                    String eTag = TodoVersions.itemETag(todo);
+                    return request.checkNotModified(eTag)
+                            .switchIfEmpty(Mono.defer(() -> ServerResponse.ok().eTag(eTag).bodyValue(todo)));
+                })
+                .switchIfEmpty(ServerResponse.notFound().build())
+                .onErrorResume(e -> serverError("retrieving todo " + id, e));
+    }
+
+    public Mono<ServerResponse> updateTodo(ServerRequest request) {
+        return request.bodyToMono(TodoDTO.class)
+                .flatMap(todoDTO -> isValid(todoDTO)
+                        ? applyUpdate(request, new TodoPatch(todoDTO.getTitle(), todoDTO.isCompleted()))
+                        : ServerResponse.badRequest().build())
+                .switchIfEmpty(ServerResponse.badRequest().build());
+    }
+
+    public Mono<ServerResponse> patchTodo(ServerRequest request) {
+        return request.bodyToMono(TodoPatchDTO.class)
+                .flatMap(patchDTO -> {
+                    TodoPatch patch = patchDTO.toPatch();
+                    if (patch.isEmpty() || (patch.title() != null && patch.title().isBlank())) {
+                        logger.warn("Rejected invalid patch {}.", patchDTO);
+                        return ServerResponse.badRequest().build();
+                    }
+                    return applyUpdate(request, patch);
+                })
+                .switchIfEmpty(ServerResponse.badRequest().build());
+    }
+
+    private Mono<ServerResponse> applyUpdate(ServerRequest request, TodoPatch patch) {
+        String id = request.pathVariable("id");
+        String ifMatch = request.headers().firstHeader(HttpHeaders.IF_MATCH);
+        return todoService.update(id, patch, ifMatch)
+                .flatMap(updatedTodo -> ServerResponse.ok().eTag(updatedTodo.eTag()).bodyValue(updatedTodo.todo()))
+                .switchIfEmpty(ServerResponse.notFound().build())
+                .onErrorResume(PreconditionFailedException.class, e -> {
+                    logger.warn("Rejected update of todo with ID {}: {}", id, e.getMessage());
+                    return ServerResponse.status(HttpStatus.PRECONDITION_FAILED).eTag(e.getCurrentETag()).build();
+                })
+                .onErrorResume(e -> serverError("updating todo " + id, e));
+    }
+
+    public Mono<ServerResponse> deleteTodo(ServerRequest request) {
+        String id = request.pathVariable("id");
+        return todoService.deleteById(id)
+                .flatMap(deleted -> deleted > 0 ? ServerResponse.noContent().build() : ServerResponse.notFound().build())
+                .onErrorResume(e -> serverError("deleting todo " + id, e));
+    }
+
+    private Mono<ServerResponse> withFilter(ServerRequest request, Function<TodoFilter, Mono<ServerResponse>> handler) {
+        TodoQueryDTO query = new TodoQueryDTO();
+        TodoFilter filter;
+        try {
+            request.queryParam("completed").ifPresent(value -> query.setCompleted(Boolean.valueOf(value)));
+            request.queryParam("createdAfter").ifPresent(value -> query.setCreatedAfter(LocalDateTime.parse(value)));
+            request.queryParam("titlePrefix").ifPresent(query::setTitlePrefix);
+            request.queryParam("sort").ifPresent(query::setSort);
+            filter = query.toFilter();
+        } catch (RuntimeException e) {
+            logger.warn("Rejected todo request with {}: {}", request.queryParams(), e.getMessage());
+            return ServerResponse.badRequest().build();
+        }
+        return handler.apply(filter)
+                .onErrorResume(IllegalArgumentException.class, e -> {
+                    logger.warn("Rejected todo request with {}: {}", request.queryParams(), e.getMessage());
+                    return ServerResponse.badRequest().build();
+                })
+                .onErrorResume(e -> serverError("retrieving todos", e));
+    }
+
+    /**
+     * Functional endpoints have no {@code @Valid}; this enforces the {@link TodoDTO} title constraint.
+     */
+    private boolean isValid(TodoDTO todoDTO) {
+        if (todoDTO.getTitle() == null || todoDTO.getTitle().isBlank()) {
+            logger.warn("Rejected invalid todo {}: Title cannot be empty", todoDTO);
+            return false;
+        }
+        return true;
+    }
+
+    private Mono<ServerResponse> serverError(String action, Throwable e) {
+        logger.error("Error {}: {}", action, e.getMessage(), e);
+        return ServerResponse.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+    }
+}
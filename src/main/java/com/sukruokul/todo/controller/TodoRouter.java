@@ -0,0 +1,47 @@
+package com.sukruokul.todo.controller;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import static org.springframework.web.reactive.function.server.RouterFunctions.route;
+
+/**
+ * Routes for the {@code reactive} profile, mirroring every {@link TodoController} mapping.
+ * author: sukru.okul
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class TodoRouter {
+
+    @Bean
+    public RouterFunction<ServerResponse> todoRoutes(TodoHandler handler) {
+        return route().path("/api/todos", builder -> builder
+                        .GET("/getTodos", TodoRouter::acceptsNdjson, handler::streamAllTodos)
+                        .GET("/getTodos", handler::getAllTodos)
+                        .GET("/getTodosPage", handler::getTodosPage)
+                        .GET("/archive", handler::exportArchivedTodos)
+                        .GET("/stream", handler::streamTodoChanges)
+                        .GET("/count", handler::countTodos)
+                        .GET("/search", handler::searchTodos)
+                        .POST("/createTodo", handler::createTodo)
+                        .POST("/bulk", handler::bulkTodos)
+                        .GET("/getTodo/{id}", handler::getTodoById)
+                        .PUT("/updateTodo/{id}", handler::updateTodo)
+                        .PATCH("/updateTodo/{id}", handler::patchTodo)
+                        .DELETE("/deleteTodo/{id}", handler::deleteTodo))
+                .build();
+    }
+
+    /**
+     * Unlike {@code RequestPredicates.accept}, a wildcard Accept header does not match, so plain
+     * clients keep getting the JSON array as they do from the MVC controller.
+     */
+    private static boolean acceptsNdjson(ServerRequest request) {
+        return request.headers().accept().stream().anyMatch(MediaType.APPLICATION_NDJSON::equalsTypeAndSubtype);
+    }
+}
@@ -0,0 +1,26 @@
+package com.sukruokul.todo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * author: sukru.okul
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkTodoOperationDTO {
+
+    public enum Action {
+        CREATE,
+        UPDATE,
+        DELETE
+    }
+
+    private Action action;
+    /** Target todo for UPDATE and DELETE; ignored for CREATE. */
+    private String id;
+    private String title;
+    private boolean completed;
+}
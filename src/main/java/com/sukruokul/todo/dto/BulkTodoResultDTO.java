@@ -0,0 +1,20 @@
+package com.sukruokul.todo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one operation of a bulk request, in request order.
+ * author: sukru.okul
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkTodoResultDTO {
+    private int index;
+    private String id;
+    /** HTTP status the equivalent single-item endpoint would have returned. */
+    private int status;
+    private String error;
+}
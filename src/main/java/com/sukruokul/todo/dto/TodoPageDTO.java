@@ -0,0 +1,18 @@
+package com.sukruokul.todo.dto;
+
+import com.sukruokul.todo.model.Todo;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * author: sukru.okul
+ */
+@Data
+@AllArgsConstructor
+public class TodoPageDTO {
+    private List<Todo> items;
+    /** Opaque token for the next page, {@code null} when this is the last page. */
+    private String nextCursor;
+}
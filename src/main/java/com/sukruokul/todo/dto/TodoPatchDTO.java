@@ -0,0 +1,25 @@
+package com.sukruokul.todo.dto;
+
+import com.sukruokul.todo.model.TodoPatch;
+import jakarta.validation.constraints.Pattern;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Partial update body; an omitted field keeps its stored value.
+ * author: sukru.okul
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TodoPatchDTO {
+
+    @Pattern(regexp = "(?s).*\\S.*", message = "Title cannot be empty")
+    private String title;
+    private Boolean completed;
+
+    public TodoPatch toPatch() {
+        return new TodoPatch(title, completed);
+    }
+}
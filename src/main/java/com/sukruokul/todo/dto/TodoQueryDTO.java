@@ -0,0 +1,42 @@
+package com.sukruokul.todo.dto;
+
+import com.sukruokul.todo.model.TodoFilter;
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+/**
+ * Query parameters shared by the list endpoints.
+ * author: sukru.okul
+ */
+@Data
+public class TodoQueryDTO {
+    private Boolean completed;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime createdAfter;
+    private String titlePrefix;
+    /** {@code createdAt}, {@code createdAt,asc} or {@code createdAt,desc}. */
+    private String sort;
+
+    /**
+     * @throws IllegalArgumentException if {@code sort} is not on createdAt
+     */
+    public TodoFilter toFilter() {
+        boolean descending = false;
+        if (sort != null && !sort.isBlank()) {
+            String[] parts = sort.split(",");
+            if (!"createdAt".equals(parts[0].trim()) || parts.length > 2) {
+                throw new IllegalArgumentException("Unsupported sort: " + sort);
+            }
+            if (parts.length == 2) {
+                String direction = parts[1].trim();
+                if (!direction.equalsIgnoreCase("asc") && !direction.equalsIgnoreCase("desc")) {
+                    throw new IllegalArgumentException("Unsupported sort direction: " + direction);
+                }
+                descending = direction.equalsIgnoreCase("desc");
+            }
+        }
+        return new TodoFilter(completed, createdAfter, titlePrefix, descending);
+    }
+}
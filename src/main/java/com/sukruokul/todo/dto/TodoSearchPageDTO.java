@@ -0,0 +1,20 @@
+package com.sukruokul.todo.dto;
+
+import com.sukruokul.todo.model.Todo;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * author: sukru.okul
+ */
+@Data
+@AllArgsConstructor
+public class TodoSearchPageDTO {
+    /** Matches on this page, best first. */
+    private List<Todo> items;
+    private long total;
+    /** Page number to request next, {@code null} when this is the last page. */
+    private Integer nextPage;
+}
@@ -0,0 +1,15 @@
+package com.sukruokul.todo.id;
+
+import java.util.UUID;
+
+/**
+ * The original scheme: random version 4 UUIDs, 36 characters, no ordering.
+ * author: sukru.okul
+ */
+public class RandomUuidGenerator implements TodoIdGenerator {
+
+    @Override
+    public String nextId() {
+        return UUID.randomUUID().toString();
+    }
+}
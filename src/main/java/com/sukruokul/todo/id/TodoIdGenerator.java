@@ -0,0 +1,11 @@
+package com.sukruokul.todo.id;
+
+/**
+ * Source of primary keys for new todos. Ids are opaque strings in both stores, so a generator can
+ * be swapped without migrating rows written by another one.
+ * author: sukru.okul
+ */
+public interface TodoIdGenerator {
+
+    String nextId();
+}
@@ -0,0 +1,34 @@
+package com.sukruokul.todo.id;
+
+/**
+ * Process-wide id generator used by {@link com.sukruokul.todo.model.Todo#generateId()}. Entities
+ * are not Spring beans, so the configured generator is installed here once at startup.
+ * author: sukru.okul
+ */
+public final class TodoIds {
+
+    private static volatile TodoIdGenerator generator = new UlidGenerator();
+
+    private TodoIds() {
+    }
+
+    public static String next() {
+        return generator.nextId();
+    }
+
+    public static void use(TodoIdGenerator idGenerator) {
+        generator = idGenerator;
+    }
+
+    /**
+     * @throws IllegalArgumentException if {@code name} is not {@code ulid}, {@code uuidv7} or {@code random}
+     */
+    public static TodoIdGenerator forName(String name) {
+        return switch (name.trim().toLowerCase()) {
+            case "ulid" -> new UlidGenerator();
+            case "uuidv7" -> new UuidV7Generator();
+            case "random" -> new RandomUuidGenerator();
+            default -> throw new IllegalArgumentException("Unknown todo id generator: " + name);
+        };
+    }
+}
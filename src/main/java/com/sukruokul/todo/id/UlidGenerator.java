@@ -0,0 +1,67 @@
+package com.sukruokul.todo.id;
+
+import java.security.SecureRandom;
+import java.util.Random;
+import java.util.function.LongSupplier;
+
+/**
+ * Monotonic ULIDs: a 48-bit millisecond timestamp followed by 80 random bits, written as 26
+ * Crockford base32 characters. The encoding sorts lexicographically in generation order and is 10
+ * characters shorter than a UUID string in every primary key and index entry.
+ * <p>
+ * Within one millisecond the random part is incremented instead of redrawn, so ids from this
+ * generator stay strictly increasing even when the clock stalls or steps back.
+ * author: sukru.okul
+ */
+public class UlidGenerator implements TodoIdGenerator {
+
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final long RANDOM_HIGH_MASK = 0xFFFFL;
+
+    private final Random random;
+    private final LongSupplier clock;
+
+    private long lastMillis = -1;
+    private long randomHigh;
+    private long randomLow;
+
+    public UlidGenerator() {
+        this(new SecureRandom(), System::currentTimeMillis);
+    }
+
+    public UlidGenerator(Random random, LongSupplier clock) {
+        this.random = random;
+        this.clock = clock;
+    }
+
+    @Override
+    public synchronized String nextId() {
+        long now = clock.getAsLong();
+        if (now > lastMillis) {
+            lastMillis = now;
+            randomHigh = random.nextInt() & RANDOM_HIGH_MASK;
+            randomLow = random.nextLong();
+        } else if (++randomLow == 0) {
+            randomHigh = (randomHigh + 1) & RANDOM_HIGH_MASK;
+            if (randomHigh == 0) {
+                // 2^80 ids in one millisecond: borrow the next one rather than wrap around.
+                lastMillis++;
+            }
+        }
+        return encode(lastMillis, randomHigh, randomLow);
+    }
+
+    private static String encode(long millis, long high, long low) {
+        char[] chars = new char[26];
+        for (int i = 9; i >= 0; i--) {
+            chars[i] = ALPHABET[(int) (millis & 31)];
+            millis >>>= 5;
+        }
+        for (int i = 25; i >= 10; i--) {
+            chars[i] = ALPHABET[(int) (low & 31)];
+            low = (low >>> 5) | (high << 59);
+            high >>>= 5;
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,53 @@
+package com.sukruokul.todo.id;
+
+import java.security.SecureRandom;
+import java.util.Random;
+import java.util.UUID;
+import java.util.function.LongSupplier;
+
+/**
+ * Monotonic version 7 UUIDs (RFC 9562): a 48-bit millisecond timestamp followed by 74 random
+ * bits. The canonical lowercase form keeps the 36-character UUID shape for clients that validate
+ * it, and sorts in generation order. Within one millisecond the random bits act as a counter, as
+ * in {@link UlidGenerator}.
+ * author: sukru.okul
+ */
+public class UuidV7Generator implements TodoIdGenerator {
+
+    private static final long RAND_A_MASK = 0xFFFL;
+    private static final long RAND_B_MASK = 0x3FFF_FFFF_FFFF_FFFFL;
+
+    private final Random random;
+    private final LongSupplier clock;
+
+    private long lastMillis = -1;
+    private long randA;
+    private long randB;
+
+    public UuidV7Generator() {
+        this(new SecureRandom(), System::currentTimeMillis);
+    }
+
+    public UuidV7Generator(Random random, LongSupplier clock) {
+        this.random = random;
+        this.clock = clock;
+    }
+
+    @Override
+    public synchronized String nextId() {
+        long now = clock.getAsLong();
+        if (now > lastMillis) {
+            lastMillis = now;
+            randA = random.nextInt() & RAND_A_MASK;
+            randB = random.nextLong() & RAND_B_MASK;
+        } else if ((randB = (randB + 1) & RAND_B_MASK) == 0) {
+            randA = (randA + 1) & RAND_A_MASK;
+            if (randA == 0) {
+                lastMillis++;
+            }
+        }
+        long mostSignificant = (lastMillis << 16) | 0x7000L | randA;
+        long leastSignificant = 0x8000_0000_0000_0000L | randB;
+        return new UUID(mostSignificant, leastSignificant).toString();
+    }
+}
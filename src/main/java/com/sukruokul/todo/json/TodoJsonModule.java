@@ -0,0 +1,19 @@
+package com.sukruokul.todo.json;
+
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.sukruokul.todo.model.Todo;
+import org.springframework.stereotype.Component;
+
+/**
+ * Registers {@link TodoSerializer}. Spring Boot installs every {@code Module} bean into the
+ * application's Jackson mappers, so JSON responses, SSE events and the binary formats all use it.
+ * author: sukru.okul
+ */
+@Component
+public class TodoJsonModule extends SimpleModule {
+
+    public TodoJsonModule() {
+        super("todo");
+        addSerializer(Todo.class, new TodoSerializer());
+    }
+}
@@ -0,0 +1,109 @@
+package com.sukruokul.todo.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.sukruokul.todo.model.Todo;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Writes a {@link Todo} exactly as the bean serializer would, without its per-property
+ * reflection: field names are encoded once, and timestamps are formatted as
+ * {@link DateTimeFormatter#ISO_LOCAL_DATE_TIME} straight into a reused char buffer rather than
+ * through a formatter and an intermediate string.
+ * author: sukru.okul
+ */
+public class TodoSerializer extends StdSerializer<Todo> {
+
+    private static final SerializedString ID = new SerializedString("id");
+    private static final SerializedString TITLE = new SerializedString("title");
+    private static final SerializedString COMPLETED = new SerializedString("completed");
+    private static final SerializedString CREATED_AT = new SerializedString("createdAt");
+    private static final SerializedString UPDATED_AT = new SerializedString("updatedAt");
+    private static final SerializedString DELETED_AT = new SerializedString("deletedAt");
+
+    /** yyyy-MM-ddTHH:mm:ss.nnnnnnnnn */
+    private static final int MAX_DATE_TIME_LENGTH = 29;
+    // The generator copies the chars before returning, so one buffer per thread is enough.
+    private static final ThreadLocal<char[]> DATE_TIME_BUFFER = ThreadLocal.withInitial(() -> new char[MAX_DATE_TIME_LENGTH]);
+
+    public TodoSerializer() {
+        super(Todo.class);
+    }
+
+    @Override
+    public void serialize(Todo todo, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        generator.writeStartObject(todo);
+        generator.writeFieldName(ID);
+        generator.writeString(todo.getId());
+        generator.writeFieldName(TITLE);
+        generator.writeString(todo.getTitle());
+        generator.writeFieldName(COMPLETED);
+        generator.writeBoolean(todo.isCompleted());
+        generator.writeFieldName(CREATED_AT);
+        writeDateTime(todo.getCreatedAt(), generator, provider);
+        generator.writeFieldName(UPDATED_AT);
+        writeDateTime(todo.getUpdatedAt(), generator, provider);
+        if (todo.getDeletedAt() != null) {
+            generator.writeFieldName(DELETED_AT);
+            writeDateTime(todo.getDeletedAt(), generator, provider);
+        }
+        generator.writeEndObject();
+    }
+
+    private static void writeDateTime(LocalDateTime dateTime, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        if (dateTime == null) {
+            generator.writeNull();
+        } else if (provider.isEnabled(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)) {
+            provider.defaultSerializeValue(dateTime, generator);
+        } else if (dateTime.getYear() < 0 || dateTime.getYear() > 9999) {
+            generator.writeString(DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(dateTime));
+        } else {
+            char[] text = DATE_TIME_BUFFER.get();
+            generator.writeString(text, 0, format(dateTime, text));
+        }
+    }
+
+    /**
+     * ISO_LOCAL_DATE_TIME for years 0 to 9999: seconds always, the fraction only when non-zero
+     * and without trailing zeros.
+     *
+     * @return the number of chars written to {@code text}
+     */
+    static int format(LocalDateTime dateTime, char[] text) {
+        digits(text, 0, dateTime.getYear(), 4);
+        text[4] = '-';
+        digits(text, 5, dateTime.getMonthValue(), 2);
+        text[7] = '-';
+        digits(text, 8, dateTime.getDayOfMonth(), 2);
+        text[10] = 'T';
+        digits(text, 11, dateTime.getHour(), 2);
+        text[13] = ':';
+        digits(text, 14, dateTime.getMinute(), 2);
+        text[16] = ':';
+        digits(text, 17, dateTime.getSecond(), 2);
+        int nano = dateTime.getNano();
+        if (nano == 0) {
+            return 19;
+        }
+        text[19] = '.';
+        digits(text, 20, nano, 9);
+        int end = 29;
+        while (text[end - 1] == '0') {
+            end--;
+        }
+        return end;
+    }
+
+    private static void digits(char[] text, int offset, int value, int width) {
+        for (int i = offset + width - 1; i >= offset; i--) {
+            text[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+}
@@ -1,20 +1,37 @@
 package com.sukruokul.todo.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.sukruokul.todo.id.TodoIds;
 import jakarta.persistence.*;
 import lombok.*;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
-import java.util.UUID;
+import java.time.temporal.ChronoUnit;
 
 /**
  * author: sukru.okul
  */
 @Entity
-@Table(name = "todo")
+@Table(name = "todo", indexes = {
+        @Index(name = "idx_todo_created_at_id", columnList = "createdAt, id"),
+        @Index(name = "idx_todo_completed_created_at", columnList = "completed, createdAt"),
+        @Index(name = "idx_todo_title", columnList = "title"),
+        @Index(name = "idx_todo_completed_updated_at", columnList = "completed, updatedAt"),
+        @Index(name = "idx_todo_deleted_at", columnList = "deletedAt")
+})
 @Document(collection = "todos")
-@JsonIgnoreProperties(value = {"createdAt"}, allowGetters = true)
+@CompoundIndexes({
+        @CompoundIndex(name = "createdAt_id", def = "{'createdAt': 1, '_id': 1}"),
+        @CompoundIndex(name = "completed_createdAt", def = "{'completed': 1, 'createdAt': 1}"),
+        @CompoundIndex(name = "completed_updatedAt", def = "{'completed': 1, 'updatedAt': 1}")
+})
+@JsonIgnoreProperties(value = {"createdAt", "updatedAt", "deletedAt"}, allowGetters = true)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -23,17 +40,53 @@ public class Todo {
     @Id
     private String id;
 
+    @Indexed
     private String title;
     private boolean completed;
     private LocalDateTime createdAt;
+    /** Last write through the service; the polling watermark of {@code TodoReplica}. */
+    @Indexed
+    private LocalDateTime updatedAt;
+    /**
+     * Set when the todo is archived; archived todos are left out of every read except the archive
+     * export, and purged once {@code todo.archive.retention} has passed (the TTL index in Mongo).
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private LocalDateTime deletedAt;
+
+    public Todo(String id, String title, boolean completed, LocalDateTime createdAt) {
+        this(id, title, completed, createdAt, null);
+    }
+
+    public Todo(String id, String title, boolean completed, LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this(id, title, completed, createdAt, updatedAt, null);
+    }
 
     @PrePersist
     public void generateId() {
         if (this.id == null) {
-            this.id = UUID.randomUUID().toString();
+            // Time-ordered, see todo.id.generator; ids written by earlier generators stay valid as-is.
+            this.id = TodoIds.next();
         }
         if (this.createdAt == null) {
-            this.createdAt = LocalDateTime.now();
+            // Mongo keeps millisecond precision only; truncating keeps the (createdAt, id) keyset identical in both stores.
+            this.createdAt = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        }
+        if (this.updatedAt == null) {
+            this.updatedAt = this.createdAt;
         }
     }
+
+    public void touch() {
+        this.updatedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+    }
+
+    @JsonIgnore
+    public boolean isArchived() {
+        return deletedAt != null;
+    }
+
+    public Todo copy() {
+        return new Todo(id, title, completed, createdAt, updatedAt, deletedAt);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,56 @@
+package com.sukruokul.todo.model;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.Comparator;
+
+/**
+ * Keyset position in the (createdAt, id) ordering shared by both stores.
+ * Clients only ever see the opaque {@link #encode() encoded} form.
+ */
+public record TodoCursor(LocalDateTime createdAt, String id) {
+
+    /**
+     * createdAt is compared at the millisecond precision both stores keep, so the two copies of a
+     * todo sort together even when one of them carries a finer createdAt.
+     */
+    public static final Comparator<Todo> ORDER = Comparator
+            .comparing((Todo todo) -> millis(todo.getCreatedAt()), Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(Todo::getId);
+
+    /** {@link #ORDER} over positions, for maps keyed by them. */
+    public static final Comparator<TodoCursor> KEY_ORDER = Comparator
+            .comparing(TodoCursor::createdAt, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(TodoCursor::id);
+
+    private static final char SEPARATOR = '|';
+
+    public static TodoCursor of(Todo todo) {
+        return new TodoCursor(todo.getCreatedAt(), todo.getId());
+    }
+
+    private static LocalDateTime millis(LocalDateTime time) {
+        return time == null ? null : time.truncatedTo(ChronoUnit.MILLIS);
+    }
+
+    public String encode() {
+        String raw = createdAt + String.valueOf(SEPARATOR) + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static TodoCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            if (separator <= 0 || separator == raw.length() - 1) {
+                throw new IllegalArgumentException("Malformed cursor: " + token);
+            }
+            return new TodoCursor(LocalDateTime.parse(raw.substring(0, separator)), raw.substring(separator + 1));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Malformed cursor: " + token, e);
+        }
+    }
+}
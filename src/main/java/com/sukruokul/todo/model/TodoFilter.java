@@ -0,0 +1,67 @@
+package com.sukruokul.todo.model;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+
+/**
+ * Optional list predicates plus the createdAt sort direction, pushed down into both stores.
+ * A {@code null} predicate means "no restriction". Live todos and archived ones are never mixed:
+ * {@code archived} selects which of the two a filter reads.
+ */
+public record TodoFilter(Boolean completed, LocalDateTime createdAfter, String titlePrefix, boolean descending, boolean archived) {
+
+    public static final TodoFilter NONE = new TodoFilter(null, null, null, false);
+
+    /** Every archived todo, oldest first; the archive export. */
+    public static final TodoFilter ARCHIVED = new TodoFilter(null, null, null, false, true);
+
+    public TodoFilter {
+        if (titlePrefix != null && titlePrefix.isEmpty()) {
+            titlePrefix = null;
+        }
+    }
+
+    /**
+     * Live todos only.
+     */
+    public TodoFilter(Boolean completed, LocalDateTime createdAfter, String titlePrefix, boolean descending) {
+        this(completed, createdAfter, titlePrefix, descending, false);
+    }
+
+    /**
+     * Every live todo.
+     */
+    public boolean isUnfiltered() {
+        return completed == null && createdAfter == null && titlePrefix == null && !archived;
+    }
+
+    /**
+     * In-memory form of the predicates the repositories push down, for callers that already
+     * hold the todos.
+     */
+    public boolean matches(Todo todo) {
+        return archived == todo.isArchived()
+                && (completed == null || completed == todo.isCompleted())
+                && (createdAfter == null || (todo.getCreatedAt() != null && todo.getCreatedAt().isAfter(createdAfter)))
+                && (titlePrefix == null || (todo.getTitle() != null && todo.getTitle().startsWith(titlePrefix)));
+    }
+
+    public Comparator<Todo> order() {
+        return descending ? TodoCursor.ORDER.reversed() : TodoCursor.ORDER;
+    }
+
+    /**
+     * Exclusive upper bound for the title prefix, so the prefix match becomes an index range
+     * {@code [titlePrefix, titlePrefixUpperBound)} in both stores; {@code null} if unbounded.
+     */
+    public String titlePrefixUpperBound() {
+        if (titlePrefix == null) {
+            return null;
+        }
+        char last = titlePrefix.charAt(titlePrefix.length() - 1);
+        if (last == Character.MAX_VALUE) {
+            return null;
+        }
+        return titlePrefix.substring(0, titlePrefix.length() - 1) + (char) (last + 1);
+    }
+}
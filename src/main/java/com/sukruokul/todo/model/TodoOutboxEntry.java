@@ -0,0 +1,79 @@
+package com.sukruokul.todo.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pending mirror write to Mongo, appended in the same SQLite transaction as the primary write.
+ * Ids are assigned here rather than by the database, so Hibernate can batch the inserts of a
+ * bulk write; they are time-ordered, which keeps the drain in write order across restarts.
+ * author: sukru.okul
+ */
+@Entity
+@Table(name = "todo_outbox")
+@Data
+@NoArgsConstructor
+public class TodoOutboxEntry implements Persistable<Long> {
+
+    public enum Operation {
+        UPSERT,
+        DELETE
+    }
+
+    /** Milliseconds shifted left by this many bits, leaving 4096 ids per millisecond. */
+    private static final int SEQUENCE_BITS = 12;
+    private static final AtomicLong LAST_ID = new AtomicLong();
+
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private String todoId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Operation operation;
+
+    private LocalDateTime createdAt;
+
+    /** With assigned ids Spring Data cannot tell a new entry by a null id, and would merge it. */
+    @Transient
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private boolean fresh = true;
+
+    public TodoOutboxEntry(Long id, String todoId, Operation operation, LocalDateTime createdAt) {
+        this.id = id;
+        this.todoId = todoId;
+        this.operation = operation;
+        this.createdAt = createdAt;
+    }
+
+    public TodoOutboxEntry(String todoId, Operation operation) {
+        this(nextId(), todoId, operation, LocalDateTime.now());
+    }
+
+    /**
+     * Strictly increasing within the process and above the row ids the table handed out before ids
+     * were assigned here; a burst of more than 4096 entries in a millisecond borrows from the next.
+     */
+    static long nextId() {
+        long now = System.currentTimeMillis() << SEQUENCE_BITS;
+        return LAST_ID.updateAndGet(last -> Math.max(last + 1, now));
+    }
+
+    @Override
+    public boolean isNew() {
+        return fresh;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markStored() {
+        fresh = false;
+    }
+}
@@ -0,0 +1,12 @@
+package com.sukruokul.todo.model;
+
+/**
+ * Field changes of a conditional update, pushed down into both stores as a single
+ * {@code UPDATE ... WHERE id = ?} / {@code findAndModify}. A {@code null} field is left as stored.
+ */
+public record TodoPatch(String title, Boolean completed) {
+
+    public boolean isEmpty() {
+        return title == null && completed == null;
+    }
+}
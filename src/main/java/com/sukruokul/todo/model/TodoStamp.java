@@ -0,0 +1,43 @@
+package com.sukruokul.todo.model;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Number of live todos and the latest {@code updatedAt} among them, read from the stored data
+ * behind the list ETag. Every write through the service sets {@code updatedAt}, so a create or
+ * update moves the latest one forward and a delete or archival lowers the count; two writes in
+ * the same millisecond with nothing else in between are the one change it can miss.
+ */
+public record TodoStamp(long count, LocalDateTime lastUpdatedAt) {
+
+    public static final TodoStamp EMPTY = new TodoStamp(0, null);
+
+    /**
+     * Stamp of the union of two stores' todos, for the dual store's merged reads.
+     */
+    public TodoStamp plus(TodoStamp other) {
+        LocalDateTime last = lastUpdatedAt == null || (other.lastUpdatedAt != null && other.lastUpdatedAt.isAfter(lastUpdatedAt))
+                ? other.lastUpdatedAt : lastUpdatedAt;
+        return new TodoStamp(count + other.count, last);
+    }
+
+    /**
+     * Milliseconds since the epoch of {@link #lastUpdatedAt()}, 0 when there is none.
+     */
+    public long lastUpdatedMillis() {
+        return lastUpdatedAt == null ? 0 : lastUpdatedAt.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    public static TodoStamp of(Iterable<Todo> todos) {
+        long count = 0;
+        LocalDateTime last = null;
+        for (Todo todo : todos) {
+            count++;
+            if (todo.getUpdatedAt() != null && (last == null || todo.getUpdatedAt().isAfter(last))) {
+                last = todo.getUpdatedAt();
+            }
+        }
+        return new TodoStamp(count, last);
+    }
+}
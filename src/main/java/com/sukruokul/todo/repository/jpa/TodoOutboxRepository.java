@@ -0,0 +1,26 @@
+package com.sukruokul.todo.repository.jpa;
+
+import com.sukruokul.todo.model.TodoOutboxEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * author: sukru.okul
+ */
+@Repository("todoOutboxRepository")
+public interface TodoOutboxRepository extends JpaRepository<TodoOutboxEntry, Long> {
+
+    List<TodoOutboxEntry> findAllByOrderByIdAsc(Pageable pageable);
+
+    boolean existsByTodoId(String todoId);
+
+    List<TodoOutboxEntry> findByTodoIdIn(Collection<String> todoIds);
+
+    @Query("select distinct e.todoId from TodoOutboxEntry e")
+    List<String> findPendingTodoIds();
+}
@@ -1,12 +1,45 @@
 package com.sukruokul.todo.repository.jpa;
 
 import com.sukruokul.todo.model.Todo;
+import com.sukruokul.todo.model.TodoStamp;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 /**
  * author: sukru.okul
  */
 @Repository("todoRepository")
-public interface TodoRepository extends JpaRepository<Todo, String> {
-}
\ No newline at end of file
+public interface TodoRepository extends JpaRepository<Todo, String>, TodoRepositoryCustom {
+
+    /**
+     * Every live todo; {@code findAll} would include the archived ones too.
+     */
+    List<Todo> findByDeletedAtIsNull();
+
+    /**
+     * Ids of every live todo, without loading the todos.
+     */
+    @Query("select t.id from Todo t where t.deletedAt is null")
+    List<String> findLiveIds();
+
+    /**
+     * Count and latest {@code updatedAt} of the live todos.
+     */
+    @Query("select new com.sukruokul.todo.model.TodoStamp(count(t), max(t.updatedAt)) from Todo t where t.deletedAt is null")
+    TodoStamp stamp();
+
+    /**
+     * Todos written since {@code since}, archived ones included.
+     */
+    List<Todo> findByUpdatedAtGreaterThan(LocalDateTime since);
+
+    /**
+     * Next chunk of the primary-key order after {@code id}, for the reconciliation walk.
+     */
+    List<Todo> findByIdGreaterThanOrderByIdAsc(String id, Pageable pageable);
+}
@@ -0,0 +1,89 @@
+package com.sukruokul.todo.repository.jpa;
+
+import com.sukruokul.todo.model.Todo;
+import com.sukruokul.todo.model.TodoCursor;
+import com.sukruokul.todo.model.TodoFilter;
+import com.sukruokul.todo.model.TodoPatch;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * author: sukru.okul
+ */
+public interface TodoRepositoryCustom {
+
+    /**
+     * Keyset page of todos matching {@code filter}, strictly after {@code after} (or from the
+     * start when {@code null}) in the filter's createdAt direction.
+     */
+    List<Todo> findFiltered(TodoFilter filter, TodoCursor after, int limit);
+
+    long countFiltered(TodoFilter filter);
+
+    /**
+     * Applies all upserts and deletes in a single transaction, letting Hibernate group the
+     * statements into JDBC batches ({@code hibernate.jdbc.batch_size}).
+     */
+    void applyBatch(Collection<Todo> upserts, Collection<String> deletes);
+
+    /**
+     * Applies {@code patch} with one JPQL {@code update} by id, without loading the row first.
+     *
+     * @return rows affected, 0 if there is no live todo with {@code id}
+     */
+    int updateIfExists(String id, TodoPatch patch, LocalDateTime updatedAt);
+
+    /**
+     * Deletes with one JPQL {@code delete} by id; unlike {@code deleteById} it neither loads the
+     * row first nor ignores a missing one.
+     *
+     * @return rows affected, 0 or 1; archived todos are not deleted
+     */
+    int removeById(String id);
+
+    /**
+     * Archives up to {@code limit} completed live todos last written before {@code updatedBefore},
+     * oldest first, setting their {@code deletedAt} and {@code updatedAt} to {@code deletedAt}.
+     *
+     * @return ids of the todos archived
+     */
+    List<String> archiveCompleted(LocalDateTime updatedBefore, LocalDateTime deletedAt, int limit);
+
+    /**
+     * Archives the live todos among {@code ids}, mirroring an archival made in the other store.
+     */
+    int markArchived(Collection<String> ids, LocalDateTime deletedAt);
+
+    /**
+     * Deletes up to {@code limit} todos archived before {@code deletedBefore}, in one short
+     * transaction so the single writer is never held for long.
+     *
+     * @return rows deleted
+     */
+    int purgeArchived(LocalDateTime deletedBefore, int limit);
+
+    /**
+     * Returns up to {@code maxPages} free pages to the file system with
+     * {@code PRAGMA incremental_vacuum}; a no-op unless the database uses
+     * {@code auto_vacuum=INCREMENTAL}.
+     *
+     * @return pages still free afterwards
+     */
+    long incrementalVacuum(int maxPages);
+
+    /**
+     * Creates the {@code todo_fts} FTS5 table over the titles of live todos, with triggers that
+     * keep it in step with every insert, update, archival and delete of {@code todo}, and rebuilds
+     * it from the table. Safe to call on every startup.
+     */
+    void createTitleSearchIndex();
+
+    /**
+     * Todos whose title matches the FTS5 {@code match} expression, best BM25 rank first.
+     */
+    List<Todo> searchTitles(String match, int offset, int limit);
+
+    long countTitleMatches(String match);
+}
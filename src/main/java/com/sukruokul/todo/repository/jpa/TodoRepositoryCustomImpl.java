@@ -0,0 +1,250 @@
+package com.sukruokul.todo.repository.jpa;
+
+import com.sukruokul.todo.model.Todo;
+import com.sukruokul.todo.model.TodoCursor;
+import com.sukruokul.todo.model.TodoFilter;
+import com.sukruokul.todo.model.TodoPatch;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * author: sukru.okul
+ */
+public class TodoRepositoryCustomImpl implements TodoRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Todo> findFiltered(TodoFilter filter, TodoCursor after, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Todo> query = cb.createQuery(Todo.class);
+        Root<Todo> todo = query.from(Todo.class);
+        Path<LocalDateTime> createdAt = todo.get("createdAt");
+        Path<String> id = todo.get("id");
+
+        List<Predicate> predicates = predicates(cb, todo, filter);
+        if (after != null) {
+            // Leading createdAt bound keeps this a range scan of the (createdAt, id) index.
+            if (filter.descending()) {
+                predicates.add(cb.lessThanOrEqualTo(createdAt, after.createdAt()));
+                predicates.add(cb.or(cb.lessThan(createdAt, after.createdAt()), cb.lessThan(id, after.id())));
+            } else {
+                predicates.add(cb.greaterThanOrEqualTo(createdAt, after.createdAt()));
+                predicates.add(cb.or(cb.greaterThan(createdAt, after.createdAt()), cb.greaterThan(id, after.id())));
+            }
+        }
+        query.where(predicates.toArray(Predicate[]::new))
+                .orderBy(filter.descending()
+                        ? List.of(cb.desc(createdAt), cb.desc(id))
+                        : List.of(cb.asc(createdAt), cb.asc(id)));
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long countFiltered(TodoFilter filter) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Todo> todo = query.from(Todo.class);
+        query.select(cb.count(todo)).where(predicates(cb, todo, filter).toArray(Predicate[]::new));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private static List<Predicate> predicates(CriteriaBuilder cb, Root<Todo> todo, TodoFilter filter) {
+        List<Predicate> predicates = new ArrayList<>();
+        Path<LocalDateTime> deletedAt = todo.get("deletedAt");
+        predicates.add(filter.archived() ? cb.isNotNull(deletedAt) : cb.isNull(deletedAt));
+        if (filter.completed() != null) {
+            predicates.add(cb.equal(todo.get("completed"), filter.completed()));
+        }
+        if (filter.createdAfter() != null) {
+            predicates.add(cb.greaterThan(todo.get("createdAt"), filter.createdAfter()));
+        }
+        if (filter.titlePrefix() != null) {
+            Path<String> title = todo.get("title");
+            predicates.add(cb.greaterThanOrEqualTo(title, filter.titlePrefix()));
+            String upperBound = filter.titlePrefixUpperBound();
+            if (upperBound != null) {
+                predicates.add(cb.lessThan(title, upperBound));
+            }
+        }
+        return predicates;
+    }
+
+    @Override
+    @Transactional
+    public void applyBatch(Collection<Todo> upserts, Collection<String> deletes) {
+        if (!upserts.isEmpty()) {
+            // One IN query instead of the per-entity SELECT that merge() would issue for assigned ids.
+            List<String> ids = upserts.stream().map(Todo::getId).toList();
+            Map<String, Todo> existing = entityManager
+                    .createQuery("select t from Todo t where t.id in :ids", Todo.class)
+                    .setParameter("ids", ids)
+                    .getResultStream()
+                    .collect(Collectors.toMap(Todo::getId, Function.identity()));
+            for (Todo todo : upserts) {
+                Todo managed = existing.get(todo.getId());
+                if (managed == null) {
+                    entityManager.persist(todo);
+                } else {
+                    managed.setTitle(todo.getTitle());
+                    managed.setCompleted(todo.isCompleted());
+                    managed.setUpdatedAt(todo.getUpdatedAt());
+                    managed.setDeletedAt(todo.getDeletedAt());
+                }
+            }
+        }
+        if (!deletes.isEmpty()) {
+            entityManager.flush();
+            entityManager.createQuery("delete from Todo t where t.id in :ids")
+                    .setParameter("ids", deletes)
+                    .executeUpdate();
+        }
+    }
+
+    @Override
+    @Transactional
+    public int updateIfExists(String id, TodoPatch patch, LocalDateTime updatedAt) {
+        StringBuilder jpql = new StringBuilder("update Todo t set t.updatedAt = :updatedAt");
+        if (patch.title() != null) {
+            jpql.append(", t.title = :title");
+        }
+        if (patch.completed() != null) {
+            jpql.append(", t.completed = :completed");
+        }
+        Query update = entityManager.createQuery(jpql.append(" where t.id = :id and t.deletedAt is null").toString())
+                .setParameter("updatedAt", updatedAt)
+                .setParameter("id", id);
+        if (patch.title() != null) {
+            update.setParameter("title", patch.title());
+        }
+        if (patch.completed() != null) {
+            update.setParameter("completed", patch.completed());
+        }
+        return update.executeUpdate();
+    }
+
+    @Override
+    @Transactional
+    public int removeById(String id) {
+        return entityManager.createQuery("delete from Todo t where t.id = :id and t.deletedAt is null")
+                .setParameter("id", id)
+                .executeUpdate();
+    }
+
+    @Override
+    @Transactional
+    public List<String> archiveCompleted(LocalDateTime updatedBefore, LocalDateTime deletedAt, int limit) {
+        // A range scan of idx_todo_completed_updated_at. SQLite transactions are serializable, so
+        // the update below changes exactly the rows selected here.
+        List<String> ids = entityManager.createQuery("select t.id from Todo t where t.completed = true "
+                        + "and t.updatedAt < :updatedBefore and t.deletedAt is null order by t.updatedAt", String.class)
+                .setParameter("updatedBefore", updatedBefore)
+                .setMaxResults(limit)
+                .getResultList();
+        if (!ids.isEmpty()) {
+            markArchived(ids, deletedAt);
+        }
+        return ids;
+    }
+
+    @Override
+    @Transactional
+    public int markArchived(Collection<String> ids, LocalDateTime deletedAt) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        return entityManager.createQuery("update Todo t set t.deletedAt = :deletedAt, t.updatedAt = :deletedAt "
+                        + "where t.id in :ids and t.deletedAt is null")
+                .setParameter("deletedAt", deletedAt)
+                .setParameter("ids", ids)
+                .executeUpdate();
+    }
+
+    @Override
+    @Transactional
+    public int purgeArchived(LocalDateTime deletedBefore, int limit) {
+        List<String> ids = entityManager.createQuery("select t.id from Todo t where t.deletedAt < :deletedBefore "
+                        + "order by t.deletedAt", String.class)
+                .setParameter("deletedBefore", deletedBefore)
+                .setMaxResults(limit)
+                .getResultList();
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        return entityManager.createQuery("delete from Todo t where t.id in :ids and t.deletedAt is not null")
+                .setParameter("ids", ids)
+                .executeUpdate();
+    }
+
+    @Override
+    @Transactional
+    public long incrementalVacuum(int maxPages) {
+        entityManager.createNativeQuery("pragma incremental_vacuum(" + maxPages + ")").executeUpdate();
+        return ((Number) entityManager.createNativeQuery("pragma freelist_count").getSingleResult()).longValue();
+    }
+
+    @Override
+    @Transactional
+    public void createTitleSearchIndex() {
+        // Contentless: the index stores only terms, keyed by the rowid of todo. Titles go in with
+        // the dotless ı folded to i, which unicode61 does not do, to match TodoTokenizer. A full
+        // VACUUM may renumber the rowids of todo, which the reload below repairs. Archived todos are
+        // not indexed; a contentless table must only be sent deletes for rows it holds, hence the
+        // deleted_at guards. The triggers are recreated so databases indexed before archival
+        // existed pick up those guards.
+        String folded = "replace(%s.title, 'ı', 'i')";
+        String insertNew = "insert into todo_fts(rowid, title) select new.rowid, " + folded.formatted("new") + " where new.deleted_at is null; ";
+        String deleteOld = "insert into todo_fts(todo_fts, rowid, title) select 'delete', old.rowid, " + folded.formatted("old")
+                + " where old.deleted_at is null; ";
+        List.of(
+                "create virtual table if not exists todo_fts using fts5("
+                        + "title, content='', tokenize='unicode61 remove_diacritics 2')",
+                "drop trigger if exists todo_fts_insert",
+                "drop trigger if exists todo_fts_delete",
+                "drop trigger if exists todo_fts_update",
+                "create trigger todo_fts_insert after insert on todo begin " + insertNew + "end",
+                "create trigger todo_fts_delete after delete on todo begin " + deleteOld + "end",
+                "create trigger todo_fts_update after update of title, deleted_at on todo begin " + deleteOld + insertNew + "end",
+                "insert into todo_fts(todo_fts) values ('delete-all')",
+                "insert into todo_fts(rowid, title) select rowid, " + folded.formatted("todo") + " from todo where deleted_at is null"
+        ).forEach(sql -> entityManager.createNativeQuery(sql).executeUpdate());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @SuppressWarnings("unchecked")
+    public List<Todo> searchTitles(String match, int offset, int limit) {
+        return entityManager.createNativeQuery("select t.* from todo_fts join todo t on t.rowid = todo_fts.rowid "
+                        + "where todo_fts match :match order by todo_fts.rank, t.created_at desc limit :limit offset :offset", Todo.class)
+                .setParameter("match", match)
+                .setParameter("limit", limit)
+                .setParameter("offset", offset)
+                .getResultList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long countTitleMatches(String match) {
+        return ((Number) entityManager.createNativeQuery("select count(*) from todo_fts where todo_fts match :match")
+                .setParameter("match", match)
+                .getSingleResult()).longValue();
+    }
+}
@@ -0,0 +1,13 @@
+package com.sukruokul.todo.repository.mongo;
+
+/**
+ * The Mongo deployment cannot stream changes, e.g. a standalone server without a replica set.
+ * Permanent for the deployment, so callers fall back to polling instead of retrying.
+ * author: sukru.okul
+ */
+public class ChangeStreamsUnsupportedException extends RuntimeException {
+
+    public ChangeStreamsUnsupportedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,119 @@
+package com.sukruokul.todo.repository.mongo;
+
+import com.mongodb.MongoCommandException;
+import com.mongodb.MongoException;
+import com.mongodb.client.ChangeStreamIterable;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import com.sukruokul.todo.model.Todo;
+import lombok.RequiredArgsConstructor;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link TodoChangeFeed} over a Mongo change stream on the {@code todos} collection. The resume
+ * token of the last delivered event is kept so a dropped connection resumes where it stopped.
+ * Declared in {@code MongoConfig}, with the backends that use Mongo.
+ * author: sukru.okul
+ */
+@RequiredArgsConstructor
+public class MongoTodoChangeFeed implements TodoChangeFeed {
+
+    private static final Logger logger = LoggerFactory.getLogger(MongoTodoChangeFeed.class);
+
+    /** "The $changeStream stage is only supported on replica sets". */
+    private static final int CHANGE_STREAMS_UNSUPPORTED = 40573;
+    /** Resume token no longer in the oplog. */
+    private static final int CHANGE_STREAM_HISTORY_LOST = 286;
+    private static final long RETRY_DELAY_MILLIS = 1000;
+
+    private final MongoTemplate mongoTemplate;
+
+    private volatile boolean closed;
+    private volatile MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor;
+    private BsonDocument resumeToken;
+
+    @Override
+    public void watch(Listener listener) {
+        closed = false;
+        while (!closed) {
+            try {
+                ChangeStreamIterable<Document> stream = mongoTemplate.getCollection(mongoTemplate.getCollectionName(Todo.class))
+                        .watch()
+                        .fullDocument(FullDocument.UPDATE_LOOKUP)
+                        .maxAwaitTime(1, TimeUnit.SECONDS);
+                if (resumeToken != null) {
+                    stream = stream.resumeAfter(resumeToken);
+                }
+                try (MongoChangeStreamCursor<ChangeStreamDocument<Document>> opened = stream.cursor()) {
+                    cursor = opened;
+                    while (!closed) {
+                        ChangeStreamDocument<Document> change = opened.tryNext();
+                        if (change != null) {
+                            dispatch(change, listener);
+                            resumeToken = change.getResumeToken();
+                        }
+                    }
+                }
+            } catch (MongoCommandException e) {
+                if (e.getErrorCode() == CHANGE_STREAMS_UNSUPPORTED) {
+                    throw new ChangeStreamsUnsupportedException(e.getErrorMessage(), e);
+                }
+                if (e.getErrorCode() == CHANGE_STREAM_HISTORY_LOST) {
+                    resumeToken = null;
+                    listener.invalidated();
+                }
+                retryAfterFailure(e);
+            } catch (MongoException | IllegalStateException e) {
+                retryAfterFailure(e);
+            } finally {
+                cursor = null;
+            }
+        }
+    }
+
+    private void dispatch(ChangeStreamDocument<Document> change, Listener listener) {
+        switch (change.getOperationType()) {
+            case INSERT, UPDATE, REPLACE -> {
+                if (change.getFullDocument() != null) {
+                    listener.upserted(mongoTemplate.getConverter().read(Todo.class, change.getFullDocument()));
+                }
+            }
+            case DELETE -> listener.deleted(change.getDocumentKey().getString("_id").getValue());
+            case DROP, RENAME, DROP_DATABASE, INVALIDATE -> {
+                resumeToken = null;
+                listener.invalidated();
+            }
+            default -> {
+            }
+        }
+    }
+
+    private void retryAfterFailure(Exception e) {
+        if (closed) {
+            return;
+        }
+        logger.warn("Todo change stream failed, reconnecting: {}", e.getMessage());
+        try {
+            Thread.sleep(RETRY_DELAY_MILLIS);
+        } catch (InterruptedException interrupted) {
+            Thread.currentThread().interrupt();
+            closed = true;
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        MongoChangeStreamCursor<ChangeStreamDocument<Document>> current = cursor;
+        if (current != null) {
+            current.close();
+        }
+    }
+}
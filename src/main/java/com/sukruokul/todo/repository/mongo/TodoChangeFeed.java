@@ -0,0 +1,34 @@
+package com.sukruokul.todo.repository.mongo;
+
+import com.sukruokul.todo.model.Todo;
+
+/**
+ * Push notifications for writes to the {@code todos} collection, from any application instance.
+ * author: sukru.okul
+ */
+public interface TodoChangeFeed {
+
+    /**
+     * Delivers changes to {@code listener} on the calling thread until {@link #close()} is called,
+     * then returns normally. Transient failures are retried internally without losing events.
+     *
+     * @throws ChangeStreamsUnsupportedException if the deployment cannot stream changes, e.g. a
+     *                                           standalone server without a replica set
+     */
+    void watch(Listener listener);
+
+    void close();
+
+    interface Listener {
+
+        void upserted(Todo todo);
+
+        void deleted(String id);
+
+        /**
+         * The feed lost its position (collection dropped or renamed, resume token expired) and
+         * events may have been missed.
+         */
+        void invalidated();
+    }
+}
@@ -0,0 +1,110 @@
+package com.sukruokul.todo.repository.mongo;
+
+import com.sukruokul.todo.model.TodoCursor;
+import com.sukruokul.todo.model.TodoFilter;
+import com.sukruokul.todo.model.TodoPatch;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Builds {@code todos} queries for {@link TodoFilter}, shared by the blocking and reactive Mongo repositories.
+ * author: sukru.okul
+ */
+public final class TodoMongoQueries {
+
+    private TodoMongoQueries() {
+    }
+
+    /**
+     * The todo with {@code id} unless it is archived; the target of updates and deletes.
+     */
+    public static Query liveById(String id) {
+        return Query.query(where("_id").is(id).and("deletedAt").is(null));
+    }
+
+    /**
+     * Completed live todos last written before {@code updatedBefore}, oldest first; served by the
+     * {@code completed_updatedAt} index.
+     */
+    public static Query archivable(LocalDateTime updatedBefore) {
+        return Query.query(where("completed").is(true).and("updatedAt").lt(updatedBefore).and("deletedAt").is(null))
+                .with(Sort.by(Sort.Direction.ASC, "updatedAt"));
+    }
+
+    /**
+     * Archives a todo at {@code deletedAt}, which is also its last write.
+     */
+    public static Update archive(LocalDateTime deletedAt) {
+        return new Update().set("deletedAt", deletedAt).set("updatedAt", deletedAt);
+    }
+
+    /**
+     * {@code $set} of the patched fields and {@code updatedAt}; the fields it leaves out keep their stored values.
+     */
+    public static Update patch(TodoPatch patch, LocalDateTime updatedAt) {
+        Update update = new Update().set("updatedAt", updatedAt);
+        if (patch.title() != null) {
+            update.set("title", patch.title());
+        }
+        if (patch.completed() != null) {
+            update.set("completed", patch.completed());
+        }
+        return update;
+    }
+
+    /**
+     * Todos matching {@code filter}, strictly after {@code after} when given, in the filter's createdAt order.
+     */
+    public static Query filtered(TodoFilter filter, TodoCursor after) {
+        List<Criteria> criteria = criteria(filter);
+        if (after != null) {
+            if (filter.descending()) {
+                criteria.add(where("createdAt").lte(after.createdAt()));
+                criteria.add(new Criteria().orOperator(where("createdAt").lt(after.createdAt()), where("_id").lt(after.id())));
+            } else {
+                criteria.add(where("createdAt").gte(after.createdAt()));
+                criteria.add(new Criteria().orOperator(where("createdAt").gt(after.createdAt()), where("_id").gt(after.id())));
+            }
+        }
+        Sort.Direction direction = filter.descending() ? Sort.Direction.DESC : Sort.Direction.ASC;
+        return query(criteria).with(Sort.by(direction, "createdAt", "_id"));
+    }
+
+    /**
+     * Unordered query for counting todos matching {@code filter}.
+     */
+    public static Query matching(TodoFilter filter) {
+        return query(criteria(filter));
+    }
+
+    private static List<Criteria> criteria(TodoFilter filter) {
+        List<Criteria> criteria = new ArrayList<>();
+        // {deletedAt: null} also matches documents written before the field existed.
+        criteria.add(filter.archived() ? where("deletedAt").ne(null) : where("deletedAt").is(null));
+        if (filter.completed() != null) {
+            criteria.add(where("completed").is(filter.completed()));
+        }
+        if (filter.createdAfter() != null) {
+            criteria.add(where("createdAt").gt(filter.createdAfter()));
+        }
+        if (filter.titlePrefix() != null) {
+            // A range rather than a regex so the prefix matches exactly like the SQLite side.
+            Criteria title = where("title").gte(filter.titlePrefix());
+            String upperBound = filter.titlePrefixUpperBound();
+            criteria.add(upperBound == null ? title : title.lt(upperBound));
+        }
+        return criteria;
+    }
+
+    private static Query query(List<Criteria> criteria) {
+        return new Query(new Criteria().andOperator(criteria));
+    }
+}
@@ -1,12 +1,31 @@
 package com.sukruokul.todo.repository.mongo;
 
 import com.sukruokul.todo.model.Todo;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 /**
  * author: sukru.okul
  */
 @Repository("todoMongoRepository")
-public interface TodoMongoRepository extends MongoRepository<Todo, String> {
-}
\ No newline at end of file
+public interface TodoMongoRepository extends MongoRepository<Todo, String>, TodoMongoRepositoryCustom {
+
+    /**
+     * Every live todo; {@code findAll} would include the archived ones too.
+     */
+    List<Todo> findByDeletedAtIsNull();
+
+    /**
+     * Todos written since {@code since}; served by the {@code updatedAt} index.
+     */
+    List<Todo> findByUpdatedAtGreaterThan(LocalDateTime since);
+
+    /**
+     * Next chunk of the {@code _id} order after {@code id}, for the reconciliation walk.
+     */
+    List<Todo> findByIdGreaterThanOrderByIdAsc(String id, Pageable pageable);
+}
@@ -0,0 +1,72 @@
+package com.sukruokul.todo.repository.mongo;
+
+import com.sukruokul.todo.model.Todo;
+import com.sukruokul.todo.model.TodoCursor;
+import com.sukruokul.todo.model.TodoFilter;
+import com.sukruokul.todo.model.TodoPatch;
+import com.sukruokul.todo.model.TodoStamp;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * author: sukru.okul
+ */
+public interface TodoMongoRepositoryCustom {
+
+    /**
+     * Keyset page of todos matching {@code filter}, strictly after {@code after} (or from the
+     * start when {@code null}) in the filter's createdAt direction.
+     */
+    List<Todo> findFiltered(TodoFilter filter, TodoCursor after, int limit);
+
+    long countFiltered(TodoFilter filter);
+
+    /**
+     * Ids of every live todo, read from the {@code _id} field alone.
+     */
+    List<String> findLiveIds();
+
+    /**
+     * Count and latest {@code updatedAt} of the live todos, with one {@code $group} aggregation.
+     */
+    TodoStamp stamp();
+
+    /**
+     * Sends all upserts and deletes to Mongo as a single unordered {@code bulkWrite}.
+     */
+    void applyBatch(Collection<Todo> upserts, Collection<String> deletes);
+
+    /**
+     * Applies {@code patch} with a single {@code findAndModify}.
+     *
+     * @return the todo as stored after the update, or empty if there is no live todo with {@code id}
+     */
+    Optional<Todo> updateIfExists(String id, TodoPatch patch, LocalDateTime updatedAt);
+
+    /**
+     * Deletes with a single {@code deleteOne}.
+     *
+     * @return the number of todos deleted, 0 or 1; archived todos are not deleted
+     */
+    long removeById(String id);
+
+    /**
+     * Archives up to {@code limit} completed live todos last written before {@code updatedBefore},
+     * oldest first, with one {@code updateMany}; the TTL index on {@code deletedAt} removes them
+     * once the retention has passed.
+     *
+     * @return ids of the todos archived
+     */
+    List<String> archiveCompleted(LocalDateTime updatedBefore, LocalDateTime deletedAt, int limit);
+
+    /**
+     * Archives those of {@code ids} that are completed live todos last written before
+     * {@code updatedBefore}, with one {@code updateMany}; for candidates another store selected.
+     *
+     * @return ids of the todos archived
+     */
+    List<String> archiveCompleted(Collection<String> ids, LocalDateTime updatedBefore, LocalDateTime deletedAt);
+}
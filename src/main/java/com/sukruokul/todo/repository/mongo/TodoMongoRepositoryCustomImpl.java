@@ -0,0 +1,112 @@
+package com.sukruokul.todo.repository.mongo;
+
+import com.sukruokul.todo.model.Todo;
+import com.sukruokul.todo.model.TodoCursor;
+import com.sukruokul.todo.model.TodoFilter;
+import com.sukruokul.todo.model.TodoPatch;
+import com.sukruokul.todo.model.TodoStamp;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * author: sukru.okul
+ */
+@RequiredArgsConstructor
+public class TodoMongoRepositoryCustomImpl implements TodoMongoRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public List<Todo> findFiltered(TodoFilter filter, TodoCursor after, int limit) {
+        return mongoTemplate.find(TodoMongoQueries.filtered(filter, after).limit(limit), Todo.class);
+    }
+
+    @Override
+    public long countFiltered(TodoFilter filter) {
+        return mongoTemplate.count(TodoMongoQueries.matching(filter), Todo.class);
+    }
+
+    @Override
+    public List<String> findLiveIds() {
+        Query live = Query.query(where("deletedAt").is(null));
+        live.fields().include("_id");
+        return mongoTemplate.find(live, Todo.class).stream().map(Todo::getId).toList();
+    }
+
+    @Override
+    public TodoStamp stamp() {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(where("deletedAt").is(null)),
+                Aggregation.group().count().as("count").max("updatedAt").as("lastUpdatedAt"));
+        Document stamp = mongoTemplate.aggregate(aggregation, Todo.class, Document.class).getUniqueMappedResult();
+        if (stamp == null) {
+            return TodoStamp.EMPTY;
+        }
+        Date last = stamp.getDate("lastUpdatedAt");
+        // Stored the way the LocalDateTime converter writes it, in the default zone.
+        return new TodoStamp(((Number) stamp.get("count")).longValue(),
+                last == null ? null : LocalDateTime.ofInstant(last.toInstant(), ZoneId.systemDefault()));
+    }
+
+    @Override
+    public void applyBatch(Collection<Todo> upserts, Collection<String> deletes) {
+        if (upserts.isEmpty() && deletes.isEmpty()) {
+            return;
+        }
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Todo.class);
+        FindAndReplaceOptions upsert = FindAndReplaceOptions.options().upsert();
+        upserts.forEach(todo -> bulk.replaceOne(Query.query(where("_id").is(todo.getId())), todo, upsert));
+        if (!deletes.isEmpty()) {
+            bulk.remove(Query.query(where("_id").in(deletes)));
+        }
+        bulk.execute();
+    }
+
+    @Override
+    public Optional<Todo> updateIfExists(String id, TodoPatch patch, LocalDateTime updatedAt) {
+        return Optional.ofNullable(mongoTemplate.findAndModify(TodoMongoQueries.liveById(id),
+                TodoMongoQueries.patch(patch, updatedAt), FindAndModifyOptions.options().returnNew(true), Todo.class));
+    }
+
+    @Override
+    public long removeById(String id) {
+        return mongoTemplate.remove(TodoMongoQueries.liveById(id), Todo.class).getDeletedCount();
+    }
+
+    @Override
+    public List<String> archiveCompleted(LocalDateTime updatedBefore, LocalDateTime deletedAt, int limit) {
+        Query candidates = TodoMongoQueries.archivable(updatedBefore).limit(limit);
+        candidates.fields().include("_id");
+        List<String> ids = mongoTemplate.find(candidates, Todo.class).stream().map(Todo::getId).toList();
+        return archiveCompleted(ids, updatedBefore, deletedAt);
+    }
+
+    @Override
+    public List<String> archiveCompleted(Collection<String> ids, LocalDateTime updatedBefore, LocalDateTime deletedAt) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        mongoTemplate.updateMulti(Query.query(where("_id").in(ids).and("completed").is(true)
+                        .and("updatedAt").lt(updatedBefore).and("deletedAt").is(null)),
+                TodoMongoQueries.archive(deletedAt), Todo.class);
+        // A todo written or deleted since it was selected was skipped by the update.
+        Query archived = Query.query(where("_id").in(ids).and("deletedAt").is(deletedAt));
+        archived.fields().include("_id");
+        return mongoTemplate.find(archived, Todo.class).stream().map(Todo::getId).toList();
+    }
+}
@@ -0,0 +1,14 @@
+package com.sukruokul.todo.repository.reactive;
+
+import com.sukruokul.todo.model.Todo;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Non-blocking counterpart of {@link com.sukruokul.todo.repository.mongo.TodoMongoRepository}
+ * over the same {@code todos} collection, used by the reactive profile.
+ * author: sukru.okul
+ */
+@Repository("reactiveTodoMongoRepository")
+public interface ReactiveTodoMongoRepository extends ReactiveMongoRepository<Todo, String>, ReactiveTodoMongoRepositoryCustom {
+}
@@ -0,0 +1,32 @@
+package com.sukruokul.todo.repository.reactive;
+
+import com.sukruokul.todo.model.Todo;
+import com.sukruokul.todo.model.TodoFilter;
+import com.sukruokul.todo.model.TodoPatch;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+/**
+ * author: sukru.okul
+ */
+public interface ReactiveTodoMongoRepositoryCustom {
+
+    /**
+     * Streams every todo matching {@code filter} in the filter's createdAt order from a single
+     * server-side cursor; demand from the subscriber drives the batch fetches.
+     */
+    Flux<Todo> findFiltered(TodoFilter filter);
+
+    /**
+     * Applies {@code patch} with a single {@code findAndModify}, emitting the updated todo or
+     * completing empty if there is no todo with {@code id}.
+     */
+    Mono<Todo> updateIfExists(String id, TodoPatch patch, LocalDateTime updatedAt);
+
+    /**
+     * Deletes with a single {@code deleteOne}, emitting the number of todos deleted.
+     */
+    Mono<Long> removeById(String id);
+}
@@ -0,0 +1,39 @@
+package com.sukruokul.todo.repository.reactive;
+
+import com.sukruokul.todo.model.Todo;
+import com.sukruokul.todo.model.TodoFilter;
+import com.sukruokul.todo.model.TodoPatch;
+import com.sukruokul.todo.repository.mongo.TodoMongoQueries;
+import lombok.RequiredArgsConstructor;
+import com.mongodb.client.result.DeleteResult;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+/**
+ * author: sukru.okul
+ */
+@RequiredArgsConstructor
+public class ReactiveTodoMongoRepositoryCustomImpl implements ReactiveTodoMongoRepositoryCustom {
+
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+
+    @Override
+    public Flux<Todo> findFiltered(TodoFilter filter) {
+        return reactiveMongoTemplate.find(TodoMongoQueries.filtered(filter, null), Todo.class);
+    }
+
+    @Override
+    public Mono<Todo> updateIfExists(String id, TodoPatch patch, LocalDateTime updatedAt) {
+        return reactiveMongoTemplate.findAndModify(TodoMongoQueries.liveById(id),
+                TodoMongoQueries.patch(patch, updatedAt), FindAndModifyOptions.options().returnNew(true), Todo.class);
+    }
+
+    @Override
+    public Mono<Long> removeById(String id) {
+        return reactiveMongoTemplate.remove(TodoMongoQueries.liveById(id), Todo.class).map(DeleteResult::getDeletedCount);
+    }
+}
@@ -0,0 +1,74 @@
+package com.sukruokul.todo.search;
+
+import com.sukruokul.todo.model.Todo;
+import com.sukruokul.todo.repository.jpa.TodoRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * SQLite FTS5 title index. Triggers on the {@code todo} table keep it current for every write
+ * that reaches SQLite, including outbox commits and reconciliation repairs, so nothing needs to
+ * be done per write here; ranking is FTS5's BM25 with exact words ahead of prefixes. Needs a
+ * backend that writes SQLite ({@code dual} or {@code sqlite}).
+ */
+public class Fts5TodoSearchIndex implements TodoSearchIndex {
+
+    private final TodoRepository todoSqliteRepository;
+    private volatile boolean ready;
+
+    public Fts5TodoSearchIndex(TodoRepository todoSqliteRepository) {
+        this.todoSqliteRepository = todoSqliteRepository;
+    }
+
+    /**
+     * Runs once Hibernate has created the {@code todo} table.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        todoSqliteRepository.createTitleSearchIndex();
+        ready = true;
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    @Override
+    public Result search(String query, int offset, int limit) {
+        if (!ready) {
+            throw new IllegalStateException("Todo search index is still being built");
+        }
+        List<String> terms = TodoTokenizer.tokenize(query);
+        if (terms.isEmpty()) {
+            return new Result(List.of(), 0);
+        }
+        String match = matchExpression(terms);
+        List<Todo> todos = limit == 0 ? List.of() : todoSqliteRepository.searchTitles(match, offset, limit);
+        return new Result(todos, todoSqliteRepository.countTitleMatches(match));
+    }
+
+    /**
+     * Every term as {@code ("term" OR "term"*)}, AND-ed. The OR matches the same rows as the
+     * prefix alone, but BM25 scores each phrase, so a title holding the exact word scores on both
+     * and ranks above one that only starts with it, "milk" above "milkshake", as in
+     * {@link InvertedTodoIndex}. Quoting keeps FTS5 operators in the user's text literal.
+     */
+    static String matchExpression(List<String> terms) {
+        return terms.stream()
+                .map(term -> "\"" + term.replace("\"", "\"\"") + "\"")
+                .map(quoted -> "(" + quoted + " OR " + quoted + "*)")
+                .collect(Collectors.joining(" AND "));
+    }
+
+    @Override
+    public void indexed(Todo todo) {
+    }
+
+    @Override
+    public void removed(String id) {
+    }
+}
@@ -0,0 +1,600 @@
+package com.sukruokul.todo.search;
+
+import com.sukruokul.todo.model.Todo;
+import com.sukruokul.todo.model.TodoFilter;
+import com.sukruokul.todo.store.TodoStore;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * In-process inverted index over todo titles. Every indexed todo gets a dense int slot, and each
+ * term maps to the slots of the todos containing it: a sorted {@code int[]} while the term is
+ * rare, a {@link BitSet} once it is common enough that the bitset is no larger. Terms are kept
+ * sorted, so a query term expands to every indexed term it prefixes with one range scan. A query
+ * walks the postings of its rarest term only and tests the other terms by slot, or, when even
+ * that term is common, intersects the terms' bitsets; title length and creation time come from
+ * per-slot arrays, so no todo is touched until the page is cut and the cost follows the rarest
+ * term's frequency. A slot keeps only the todo's id and those ranking fields, not the todo: the
+ * cut page is loaded from the store with one {@link TodoStore#findAllById} read.
+ * <p>
+ * Kept current by {@code TodoService} on every write through this instance and built from the
+ * store in the background at startup; searches are rejected until the build completes. Writes
+ * by other instances, outbox replays and reconciliation repairs are not seen until the next
+ * restart. Searches share a read lock; writes take the write lock for the few postings they
+ * touch.
+ */
+public class InvertedTodoIndex implements TodoSearchIndex, MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(InvertedTodoIndex.class);
+
+    /** Weight of a term that only starts with the query term, relative to an exact match. */
+    private static final double PREFIX_WEIGHT = 0.5;
+    private static final Duration BUILD_RETRY_INTERVAL = Duration.ofSeconds(5);
+    private static final int INITIAL_SLOTS = 1024;
+
+    private final TodoStore todoStore;
+    private final int buildChunkSize;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Integer> slotsById = new HashMap<>();
+    private final TreeMap<String, Term> terms = new TreeMap<>();
+    private String[] ids = new String[INITIAL_SLOTS];
+    private Term[][] termsBySlot = new Term[INITIAL_SLOTS][];
+    /** 1/sqrt(number of title terms), the length normalization of the score. */
+    private float[] norms = new float[INITIAL_SLOTS];
+    /** createdAt as nanoseconds since the epoch, for ties. */
+    private long[] createdAt = new long[INITIAL_SLOTS];
+    /** updatedAt as nanoseconds since the epoch, so an older write cannot replace a newer one. */
+    private long[] updatedAt = new long[INITIAL_SLOTS];
+    private int[] freeSlots = new int[16];
+    private int freeCount;
+    private int slotCount;
+
+    private volatile boolean ready;
+    /** Ids deleted while the build runs, so the build's older read cannot bring them back. */
+    private volatile Set<String> removedDuringBuild;
+    private volatile boolean stopped;
+    private Thread builder;
+
+    public InvertedTodoIndex(TodoStore todoStore, int buildChunkSize) {
+        this.todoStore = todoStore;
+        this.buildChunkSize = buildChunkSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (builder == null) {
+            removedDuringBuild = ConcurrentHashMap.newKeySet();
+            builder = Thread.ofVirtual().name("todo-search-build").start(this::buildUntilDone);
+        }
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        stopped = true;
+        if (builder != null) {
+            builder.interrupt();
+        }
+    }
+
+    private void buildUntilDone() {
+        long started = System.nanoTime();
+        while (!stopped) {
+            try {
+                Iterator<Todo> todos = todoStore.iterator(TodoFilter.NONE, null, buildChunkSize);
+                while (todos.hasNext()) {
+                    put(todos.next(), true);
+                }
+                removedDuringBuild = null;
+                ready = true;
+                logger.info("Todo search index built with {} todos and {} terms in {} ms.",
+                        size(), termCount(), Duration.ofNanos(System.nanoTime() - started).toMillis());
+                return;
+            } catch (RuntimeException e) {
+                logger.warn("Todo search index build failed, will retry: {}", e.getMessage());
+                try {
+                    Thread.sleep(BUILD_RETRY_INTERVAL);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    @Override
+    public void indexed(Todo todo) {
+        put(todo, false);
+    }
+
+    @Override
+    public void removed(String id) {
+        Set<String> removed = removedDuringBuild;
+        if (removed != null) {
+            removed.add(id);
+        }
+        withWriteLock(() -> {
+            Integer slot = slotsById.remove(id);
+            if (slot != null) {
+                unpostAll(slot);
+                ids[slot] = null;
+                pushFreeSlot(slot);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Indexes {@code todo} unless a newer version of it is already indexed, or, for the startup
+     * build, it was deleted since the build began.
+     */
+    private void put(Todo todo, boolean fromBuild) {
+        List<String> tokens = TodoTokenizer.tokenize(todo.getTitle());
+        String id = todo.getId();
+        long written = epochNanos(todo.getUpdatedAt());
+        withWriteLock(() -> {
+            if (fromBuild) {
+                Set<String> removed = removedDuringBuild;
+                if (removed != null && removed.contains(id)) {
+                    return null;
+                }
+            }
+            Integer slot = slotsById.get(id);
+            if (slot == null) {
+                slot = allocateSlot();
+                slotsById.put(id, slot);
+            } else {
+                if (updatedAt[slot] != Long.MIN_VALUE && written != Long.MIN_VALUE && updatedAt[slot] > written) {
+                    return null;
+                }
+                unpostAll(slot);
+            }
+            Term[] slotTerms = new Term[tokens.size()];
+            for (int i = 0; i < slotTerms.length; i++) {
+                Term term = terms.computeIfAbsent(tokens.get(i), Term::new);
+                term.postings.add(slot, ids.length);
+                slotTerms[i] = term;
+            }
+            ids[slot] = id;
+            termsBySlot[slot] = slotTerms;
+            norms[slot] = slotTerms.length == 0 ? 0 : (float) (1 / Math.sqrt(slotTerms.length));
+            createdAt[slot] = epochNanos(todo.getCreatedAt());
+            updatedAt[slot] = written;
+            return null;
+        });
+    }
+
+    private void unpostAll(int slot) {
+        for (Term term : termsBySlot[slot]) {
+            term.postings.remove(slot, ids.length);
+            if (term.postings.size() == 0) {
+                terms.remove(term.text);
+            }
+        }
+        termsBySlot[slot] = null;
+    }
+
+    private int allocateSlot() {
+        if (freeCount > 0) {
+            return freeSlots[--freeCount];
+        }
+        if (slotCount == ids.length) {
+            int capacity = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            termsBySlot = Arrays.copyOf(termsBySlot, capacity);
+            norms = Arrays.copyOf(norms, capacity);
+            createdAt = Arrays.copyOf(createdAt, capacity);
+            updatedAt = Arrays.copyOf(updatedAt, capacity);
+        }
+        return slotCount++;
+    }
+
+    private void pushFreeSlot(int slot) {
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        }
+        freeSlots[freeCount++] = slot;
+    }
+
+    /**
+     * Ranks matches by the summed weight of the query terms, each weighted by its rarity and by
+     * whether it matched a title term exactly or as a prefix, normalized by title length; ties
+     * go to the newer todo. The page is loaded from the store after the lock is released; a todo
+     * deleted in between is left out of it, though still counted in the total.
+     */
+    @Override
+    public Result search(String query, int offset, int limit) {
+        if (!ready) {
+            throw new IllegalStateException("Todo search index is still being built");
+        }
+        List<String> queryTerms = TodoTokenizer.tokenize(query);
+        if (queryTerms.isEmpty()) {
+            return new Result(List.of(), 0);
+        }
+        RankedIds ranked;
+        lock.readLock().lock();
+        try {
+            ranked = search(queryTerms, offset, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (ranked.ids().isEmpty()) {
+            return new Result(List.of(), ranked.total());
+        }
+        Map<String, Todo> loaded = new HashMap<>();
+        todoStore.findAllById(ranked.ids()).forEach(todo -> loaded.put(todo.getId(), todo));
+        List<Todo> page = ranked.ids().stream().map(loaded::get).filter(Objects::nonNull).toList();
+        return new Result(page, ranked.total());
+    }
+
+    private RankedIds search(List<String> queryTerms, int offset, int limit) {
+        List<Expansion> expansions = new ArrayList<>(queryTerms.size());
+        for (String queryTerm : queryTerms) {
+            Expansion expansion = expand(queryTerm);
+            if (expansion.frequency == 0) {
+                return new RankedIds(List.of(), 0);
+            }
+            expansions.add(expansion);
+        }
+        expansions.sort(Comparator.comparingLong(expansion -> expansion.frequency));
+
+        double size = Math.max(slotsById.size(), 1);
+        for (Expansion expansion : expansions) {
+            expansion.idf = Math.log(1 + size / expansion.frequency);
+        }
+
+        Ranking ranking = new Ranking(offset + limit);
+        int capacity = ids.length;
+        for (Expansion expansion : expansions) {
+            expansion.materializePrefixes(capacity);
+        }
+        Expansion rarest = expansions.get(0);
+        if (rarest.frequency > capacity >>> 6) {
+            // Every term is common: intersecting whole bitsets a word at a time is cheaper than
+            // testing each of the rarest term's slots against the others.
+            BitSet matches = rarest.slots(capacity);
+            for (int i = 1; i < expansions.size(); i++) {
+                matches.and(expansions.get(i).slots(capacity));
+            }
+            for (int slot = matches.nextSetBit(0); slot >= 0; slot = matches.nextSetBit(slot + 1)) {
+                double score = 0;
+                for (Expansion expansion : expansions) {
+                    score += expansion.weight(slot);
+                }
+                ranking.offer(slot, score * norms[slot]);
+            }
+        } else {
+            List<Expansion> others = expansions.subList(1, expansions.size());
+            int driving = rarest.prefixes.size() + (rarest.exact != null ? 1 : 0);
+            BitSet seen = driving > 1 ? new BitSet(capacity) : null;
+            if (rarest.exact != null) {
+                walk(rarest.exact.postings, rarest.idf, seen, others, ranking);
+            }
+            for (Term prefix : rarest.prefixes) {
+                walk(prefix.postings, PREFIX_WEIGHT * rarest.idf, seen, others, ranking);
+            }
+        }
+
+        List<String> page = ranking.ranked().stream().skip(offset).map(slot -> ids[slot]).toList();
+        return new RankedIds(page, ranking.total);
+    }
+
+    /**
+     * Scores every slot in {@code postings} not yet in {@code seen}, adding it to {@code seen}
+     * when given, so a todo holding several terms of the driving expansion is counted once, at
+     * its best weight: the exact term is walked first.
+     */
+    private void walk(Postings postings, double weight, BitSet seen, List<Expansion> others, Ranking ranking) {
+        if (postings.bits != null) {
+            for (int slot = postings.bits.nextSetBit(0); slot >= 0; slot = postings.bits.nextSetBit(slot + 1)) {
+                visit(slot, weight, seen, others, ranking);
+            }
+        } else {
+            int[] slots = postings.slots;
+            for (int i = 0, n = postings.size; i < n; i++) {
+                visit(slots[i], weight, seen, others, ranking);
+            }
+        }
+    }
+
+    private void visit(int slot, double weight, BitSet seen, List<Expansion> others, Ranking ranking) {
+        if (seen != null) {
+            if (seen.get(slot)) {
+                return;
+            }
+            seen.set(slot);
+        }
+        double score = weight;
+        for (int i = 0, n = others.size(); i < n; i++) {
+            double match = others.get(i).weight(slot);
+            if (match == 0) {
+                return;
+            }
+            score += match;
+        }
+        ranking.offer(slot, score * norms[slot]);
+    }
+
+    private Expansion expand(String queryTerm) {
+        Expansion expansion = new Expansion();
+        for (Term term : terms.subMap(queryTerm, true, queryTerm + Character.MAX_VALUE, false).values()) {
+            if (term.text.equals(queryTerm)) {
+                expansion.exact = term;
+            } else {
+                expansion.prefixes.add(term);
+            }
+            expansion.frequency += term.postings.size();
+        }
+        return expansion;
+    }
+
+    public int size() {
+        return withReadLock(slotsById::size);
+    }
+
+    private int termCount() {
+        return withReadLock(terms::size);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("todo.search.todos", this, InvertedTodoIndex::size)
+                .description("Todos held in the title search index")
+                .register(registry);
+        Gauge.builder("todo.search.terms", this, InvertedTodoIndex::termCount)
+                .description("Distinct terms in the title search index")
+                .register(registry);
+    }
+
+    private <T> T withReadLock(Supplier<T> action) {
+        lock.readLock().lock();
+        try {
+            return action.get();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private <T> T withWriteLock(Supplier<T> action) {
+        lock.writeLock().lock();
+        try {
+            return action.get();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static long epochNanos(LocalDateTime time) {
+        if (time == null) {
+            return Long.MIN_VALUE;
+        }
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + time.getNano();
+    }
+
+    private static final class Term {
+
+        private final String text;
+        private final Postings postings = new Postings();
+
+        private Term(String text) {
+            this.text = text;
+        }
+    }
+
+    /** A query term with the indexed terms it matches and the number of todos holding them. */
+    private static final class Expansion {
+
+        private Term exact;
+        private final List<Term> prefixes = new ArrayList<>();
+        private long frequency;
+        private double idf;
+        /** Union of the prefix-only terms, when there is more than one. */
+        private BitSet prefixSlots;
+
+        private void materializePrefixes(int capacity) {
+            if (prefixes.size() > 1) {
+                prefixSlots = new BitSet(capacity);
+                for (Term prefix : prefixes) {
+                    prefix.postings.addTo(prefixSlots);
+                }
+            }
+        }
+
+        /** Every slot holding the query term, exactly or as a prefix. */
+        private BitSet slots(int capacity) {
+            BitSet slots = new BitSet(capacity);
+            if (exact != null) {
+                exact.postings.addTo(slots);
+            }
+            if (prefixSlots != null) {
+                slots.or(prefixSlots);
+            } else {
+                for (Term prefix : prefixes) {
+                    prefix.postings.addTo(slots);
+                }
+            }
+            return slots;
+        }
+
+        private double weight(int slot) {
+            if (exact != null && exact.postings.contains(slot)) {
+                return idf;
+            }
+            boolean prefixMatch = prefixSlots != null
+                    ? prefixSlots.get(slot)
+                    : !prefixes.isEmpty() && prefixes.get(0).postings.contains(slot);
+            return prefixMatch ? PREFIX_WEIGHT * idf : 0;
+        }
+    }
+
+    /**
+     * The slots of one term: sorted ints while rare, a bitset once it holds more than 1/32 of
+     * the slot capacity, where the bitset takes no more memory. It switches back below 1/64 so a
+     * term near the threshold does not flip on every write.
+     */
+    private static final class Postings {
+
+        private static final int MIN_BITSET_SIZE = 64;
+
+        private int[] slots = new int[2];
+        private int size;
+        private BitSet bits;
+
+        int size() {
+            return size;
+        }
+
+        boolean contains(int slot) {
+            return bits != null ? bits.get(slot) : Arrays.binarySearch(slots, 0, size, slot) >= 0;
+        }
+
+        void add(int slot, int capacity) {
+            if (bits != null) {
+                if (!bits.get(slot)) {
+                    bits.set(slot);
+                    size++;
+                }
+                return;
+            }
+            int at = Arrays.binarySearch(slots, 0, size, slot);
+            if (at >= 0) {
+                return;
+            }
+            at = -at - 1;
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+            }
+            System.arraycopy(slots, at, slots, at + 1, size - at);
+            slots[at] = slot;
+            size++;
+            if (size >= MIN_BITSET_SIZE && size > capacity >>> 5) {
+                BitSet converted = new BitSet(capacity);
+                addTo(converted);
+                bits = converted;
+                slots = null;
+            }
+        }
+
+        void remove(int slot, int capacity) {
+            if (bits != null) {
+                if (bits.get(slot)) {
+                    bits.clear(slot);
+                    size--;
+                    if (size < capacity >>> 6) {
+                        slots = new int[Math.max(size, 2)];
+                        int i = 0;
+                        for (int next = bits.nextSetBit(0); next >= 0; next = bits.nextSetBit(next + 1)) {
+                            slots[i++] = next;
+                        }
+                        bits = null;
+                    }
+                }
+                return;
+            }
+            int at = Arrays.binarySearch(slots, 0, size, slot);
+            if (at >= 0) {
+                System.arraycopy(slots, at + 1, slots, at, size - at - 1);
+                size--;
+            }
+        }
+
+        void addTo(BitSet target) {
+            if (bits != null) {
+                target.or(bits);
+                return;
+            }
+            for (int i = 0; i < size; i++) {
+                target.set(slots[i]);
+            }
+        }
+    }
+
+    /** The best {@code wanted} slots seen so far, plus the number of matches. */
+    private final class Ranking {
+
+        private final int wanted;
+        private final PriorityQueue<Hit> best;
+        private long total;
+
+        private Ranking(int wanted) {
+            this.wanted = wanted;
+            this.best = new PriorityQueue<>(Math.max(wanted, 1) + 1, this::compare);
+        }
+
+        private void offer(int slot, double score) {
+            total++;
+            if (wanted == 0) {
+                return;
+            }
+            if (best.size() == wanted) {
+                Hit worst = best.peek();
+                if (compare(worst, slot, score) >= 0) {
+                    return;
+                }
+                best.poll();
+            }
+            best.add(new Hit(slot, score));
+        }
+
+        private List<Integer> ranked() {
+            List<Hit> hits = new ArrayList<>(best);
+            hits.sort((a, b) -> compare(b, a));
+            return hits.stream().map(Hit::slot).toList();
+        }
+
+        /** Orders worst first: lower score, then older, then larger id. */
+        private int compare(Hit a, Hit b) {
+            return -compare(b, a.slot(), a.score());
+        }
+
+        private int compare(Hit a, int slot, double score) {
+            int byScore = Double.compare(a.score(), score);
+            if (byScore != 0) {
+                return byScore;
+            }
+            int byCreated = Long.compare(createdAt[a.slot()], createdAt[slot]);
+            if (byCreated != 0) {
+                return byCreated;
+            }
+            return ids[slot].compareTo(ids[a.slot()]);
+        }
+    }
+
+    private record Hit(int slot, double score) {
+    }
+
+    /** One page of ranked ids, before the todos are loaded, and the number of matches. */
+    private record RankedIds(List<String> ids, long total) {
+    }
+}
@@ -0,0 +1,40 @@
+package com.sukruokul.todo.search;
+
+import com.sukruokul.todo.model.Todo;
+
+import java.util.List;
+
+/**
+ * Title search behind {@code GET /api/todos/search}, selected with {@code todo.search.backend}:
+ * {@code memory} (an in-process inverted index, the default) or {@code fts5} (an SQLite FTS5
+ * table). Every query term matches as a prefix and all of them must match.
+ */
+public interface TodoSearchIndex {
+
+    /**
+     * Ranked matches and their total count.
+     */
+    record Result(List<Todo> todos, long total) {
+    }
+
+    /**
+     * False while the index is being built; searches are rejected until then.
+     */
+    boolean isReady();
+
+    /**
+     * @param offset number of ranked matches to skip
+     * @throws IllegalStateException if the index is not {@link #isReady() ready}
+     */
+    Result search(String query, int offset, int limit);
+
+    /**
+     * Called by {@code TodoService} after a todo is written.
+     */
+    void indexed(Todo todo);
+
+    /**
+     * Called by {@code TodoService} after a todo is deleted.
+     */
+    void removed(String id);
+}
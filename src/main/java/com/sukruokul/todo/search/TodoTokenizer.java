@@ -0,0 +1,50 @@
+package com.sukruokul.todo.search;
+
+import java.text.Normalizer;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Splits titles and queries into search terms: runs of letters and digits, lower-cased with
+ * diacritics removed, so "Çalış" and "calis" find each other. Both index backends use it, so a
+ * query is tokenized exactly like the titles it is matched against.
+ */
+public final class TodoTokenizer {
+
+    private TodoTokenizer() {
+    }
+
+    /**
+     * @return distinct terms in order of first appearance; empty for {@code null}
+     */
+    public static List<String> tokenize(String text) {
+        if (text == null || text.isEmpty()) {
+            return List.of();
+        }
+        String folded = Normalizer.normalize(text.toLowerCase(Locale.ROOT), Normalizer.Form.NFD);
+        Set<String> terms = new LinkedHashSet<>();
+        StringBuilder term = new StringBuilder();
+        for (int i = 0; i < folded.length(); i++) {
+            char c = folded.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            if (c == 'ı') {
+                // The dotless i has no decomposition; fold it like the dotted one.
+                c = 'i';
+            }
+            if (Character.isLetterOrDigit(c)) {
+                term.append(c);
+            } else if (!term.isEmpty()) {
+                terms.add(term.toString());
+                term.setLength(0);
+            }
+        }
+        if (!term.isEmpty()) {
+            terms.add(term.toString());
+        }
+        return List.copyOf(terms);
+    }
+}
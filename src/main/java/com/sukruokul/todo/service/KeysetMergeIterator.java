@@ -0,0 +1,106 @@
+package com.sukruokul.todo.service;
+
+import com.sukruokul.todo.model.Todo;
+import com.sukruokul.todo.model.TodoCursor;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Lazily merges two stores that are both read in the same (createdAt, id) order. Each side is pulled
+ * in keyset chunks, so at most {@code chunkSize} todos per store are held at any time.
+ * A todo present in both stores is emitted once, matched by id since its two copies may differ.
+ */
+public class KeysetMergeIterator implements Iterator<Todo> {
+
+    @FunctionalInterface
+    public interface ChunkFetcher {
+        /**
+         * @param after position to continue from, or {@code null} for the first chunk
+         */
+        List<Todo> fetch(TodoCursor after, int limit);
+    }
+
+    private final Source first;
+    private final Source second;
+    private final Comparator<Todo> order;
+
+    public KeysetMergeIterator(ChunkFetcher first, ChunkFetcher second, TodoCursor after, int chunkSize) {
+        this(first, second, after, chunkSize, TodoCursor.ORDER);
+    }
+
+    public KeysetMergeIterator(ChunkFetcher first, ChunkFetcher second, TodoCursor after, int chunkSize,
+                               Comparator<Todo> order) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize must be positive");
+        }
+        this.order = order;
+        this.first = new Source(first, after, chunkSize);
+        this.second = new Source(second, after, chunkSize);
+    }
+
+    @Override
+    public boolean hasNext() {
+        return first.peek() != null || second.peek() != null;
+    }
+
+    @Override
+    public Todo next() {
+        Todo a = first.peek();
+        Todo b = second.peek();
+        if (a == null && b == null) {
+            throw new NoSuchElementException();
+        }
+        if (b == null) {
+            return first.take();
+        }
+        if (a == null) {
+            return second.take();
+        }
+        int cmp = order.compare(a, b);
+        if (cmp == 0 || a.getId().equals(b.getId())) {
+            second.take();
+            return first.take();
+        }
+        return cmp < 0 ? first.take() : second.take();
+    }
+
+    private static final class Source {
+        private final ChunkFetcher fetcher;
+        private final int chunkSize;
+        private TodoCursor after;
+        private Iterator<Todo> buffer = Collections.emptyIterator();
+        private boolean lastChunk;
+        private Todo head;
+
+        private Source(ChunkFetcher fetcher, TodoCursor after, int chunkSize) {
+            this.fetcher = fetcher;
+            this.after = after;
+            this.chunkSize = chunkSize;
+        }
+
+        private Todo peek() {
+            if (head == null) {
+                if (!buffer.hasNext() && !lastChunk) {
+                    List<Todo> chunk = fetcher.fetch(after, chunkSize);
+                    lastChunk = chunk.size() < chunkSize;
+                    buffer = chunk.iterator();
+                }
+                if (buffer.hasNext()) {
+                    head = buffer.next();
+                    after = TodoCursor.of(head);
+                }
+            }
+            return head;
+        }
+
+        private Todo take() {
+            Todo todo = head;
+            head = null;
+            return todo;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.sukruokul.todo.service;
+
+/**
+ * A conditional write whose {@code If-Match} tag no longer names the current version.
+ */
+public class PreconditionFailedException extends RuntimeException {
+
+    /** Tag of the version the check found, returned with the 412. */
+    private final String currentETag;
+
+    public PreconditionFailedException(String message, String currentETag) {
+        super(message);
+        this.currentETag = currentETag;
+    }
+
+    public String getCurrentETag() {
+        return currentETag;
+    }
+}
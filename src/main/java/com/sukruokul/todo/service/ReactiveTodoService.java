@@ -0,0 +1,289 @@
+package com.sukruokul.todo.service;
+
+import com.sukruokul.todo.dto.BulkTodoOperationDTO;
+import com.sukruokul.todo.dto.BulkTodoResultDTO;
+import com.sukruokul.todo.dto.TodoPageDTO;
+import com.sukruokul.todo.dto.TodoSearchPageDTO;
+import com.sukruokul.todo.model.Todo;
+import com.sukruokul.todo.model.TodoCursor;
+import com.sukruokul.todo.model.TodoFilter;
+import com.sukruokul.todo.model.TodoPatch;
+import com.sukruokul.todo.repository.jpa.TodoRepository;
+import com.sukruokul.todo.repository.reactive.ReactiveTodoMongoRepository;
+import com.sukruokul.todo.search.TodoSearchIndex;
+import com.sukruokul.todo.store.TodoStore;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Non-blocking facade over the same stores as {@link TodoService}. With the dual store, Mongo is
+ * read and written through the reactive driver; every SQLite call, and every operation delegated
+ * to {@link TodoService}, is shifted onto the bounded {@code sqliteScheduler} so the event loop
+ * never blocks on JDBC. Any other {@code todo.store.backend} is driven entirely through
+ * {@link TodoService} on that scheduler.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequiredArgsConstructor
+public class ReactiveTodoService {
+
+    /** Registered only for the dual store, the one backend read and written through it. */
+    private final ObjectProvider<ReactiveTodoMongoRepository> reactiveMongoRepository;
+    private final TodoRepository todoSqliteRepository;
+    private final TodoService todoService;
+    private final TodoStore todoStore;
+    private final TodoCache todoCache;
+    private final TodoOutbox todoOutbox;
+    private final TodoMetrics todoMetrics;
+    private final TodoEventBus todoEventBus;
+    private final TodoSearchIndex todoSearchIndex;
+    private final Scheduler sqliteScheduler;
+
+    /**
+     * Merges both stores in the filter's createdAt order. Mongo is a single cursor; SQLite is read
+     * in keyset chunks of {@code chunkSize} fetched on demand, so a slow subscriber holds at most
+     * a chunk or two per store in memory instead of the whole table.
+     */
+    public Flux<Todo> findAll(TodoFilter filter, int chunkSize) {
+        if (!dual()) {
+            return Flux.fromStream(() -> todoService.streamAll(filter, chunkSize)).subscribeOn(sqliteScheduler);
+        }
+        return Flux.mergeComparing(filter.order(), sqliteChunks(filter, chunkSize), mongo().findFiltered(filter))
+                .distinctUntilChanged(Todo::getId);
+    }
+
+    private Flux<Todo> sqliteChunks(TodoFilter filter, int chunkSize) {
+        return sqlite(() -> todoSqliteRepository.findFiltered(filter, null, chunkSize))
+                .expand(chunk -> chunk.size() < chunkSize
+                        ? Mono.empty()
+                        : sqlite(() -> todoSqliteRepository.findFiltered(filter, TodoCursor.of(chunk.get(chunk.size() - 1)), chunkSize)))
+                .concatMapIterable(chunk -> chunk, 1);
+    }
+
+    /**
+     * Archived todos in createdAt order, read through {@link TodoService} on the SQLite scheduler;
+     * an occasional export does not need the merged reactive read.
+     */
+    public Flux<Todo> findArchived(int chunkSize) {
+        return Flux.fromStream(() -> todoService.streamArchived(chunkSize)).subscribeOn(sqliteScheduler);
+    }
+
+    public Mono<TodoPageDTO> findPage(TodoFilter filter, String cursor, int size) {
+        return sqlite(() -> todoService.findPage(filter, cursor, size));
+    }
+
+    public Mono<Long> count(TodoFilter filter) {
+        return sqlite(() -> todoService.count(filter));
+    }
+
+    public Mono<TodoSearchPageDTO> search(String query, int page, int size) {
+        return sqlite(() -> todoService.search(query, page, size));
+    }
+
+    public Mono<Todo> findById(String id) {
+        if (!dual() || todoOutbox.isEnabled()) {
+            // In outbox mode SQLite is read first, as in DualTodoStore#findById.
+            return sqlite(() -> todoService.findById(id).orElse(null));
+        }
+        // Mongo's copy wins even when archived, as in DualTodoStore#findById.
+        return mongo().findById(id)
+                .switchIfEmpty(sqlite(() -> todoSqliteRepository.findById(id).orElse(null))
+                        .doOnNext(todo -> todoMetrics.sqliteFallback()))
+                .filter(todo -> !todo.isArchived());
+    }
+
+    public Mono<Todo> save(Todo todo) {
+        if (todo.getId() == null) {
+            todo.generateId();
+        }
+        return writeThrough(todo);
+    }
+
+    /**
+     * Reactive counterpart of {@link TodoService#update(String, TodoPatch, String)}, completing
+     * empty if Mongo, the primary store in sync mode, has no live todo with {@code id}: a missing
+     * todo costs the one {@code findAndModify}. A todo left in SQLite alone by a half-applied
+     * write is the reconciler's to repair. A conditional update and an outbox-mode one run through
+     * {@link TodoService} on the SQLite scheduler, because the check and the write hold a per-id
+     * lock there.
+     */
+    public Mono<VersionedTodo> update(String id, TodoPatch patch, String ifMatch) {
+        if (ifMatch != null || !dual() || todoOutbox.isEnabled()) {
+            return sqlite(() -> todoService.update(id, patch, ifMatch).orElse(null));
+        }
+        LocalDateTime updatedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        return mongo().updateIfExists(id, patch, updatedAt)
+                .flatMap(updated -> mirrorToSqlite("update", () -> {
+                    if (todoSqliteRepository.updateIfExists(id, patch, updatedAt) == 0) {
+                        todoSqliteRepository.save(updated);
+                    }
+                    return updated;
+                }))
+                .doOnNext(updated -> {
+                    todoCache.invalidate(id);
+                    todoSearchIndex.indexed(updated);
+                    todoEventBus.updated(updated);
+                })
+                .doOnError(e -> todoCache.invalidate(id))
+                .map(updated -> new VersionedTodo(updated, TodoVersions.itemETag(updated)));
+    }
+
+    /**
+     * {@link TodoService#listETag()}, on the SQLite scheduler for its aggregate query.
+     */
+    public Mono<String> listETag() {
+        return sqlite(todoService::listETag);
+    }
+
+    /**
+     * Deletes without reading first, emitting the number of todos deleted.
+     */
+    public Mono<Long> deleteById(String id) {
+        if (!dual() || todoOutbox.isEnabled()) {
+            return sqlite(() -> todoService.deleteById(id));
+        }
+        return mongo().removeById(id)
+                .flatMap(mongoDeleted -> mirrorToSqlite("delete", () -> (long) todoSqliteRepository.removeById(id))
+                        .map(sqliteDeleted -> Math.max(mongoDeleted, sqliteDeleted)))
+                .doOnNext(deleted -> {
+                    todoSearchIndex.removed(id);
+                    if (deleted > 0) {
+                        todoEventBus.deleted(id);
+                    }
+                })
+                .doFinally(signal -> todoCache.invalidate(id));
+    }
+
+    /**
+     * Change stream for one client, resuming after {@code lastEventId} when given. The bus hands
+     * events over only as fast as the connection requests them, so a slow client coalesces in
+     * {@link TodoEventBus} rather than buffering here.
+     *
+     * @throws IllegalStateException on subscription, if the subscriber limit is reached
+     */
+    public Flux<ServerSentEvent<String>> events(String lastEventId) {
+        return Flux.create(emitter -> {
+            DemandGatedSink sink = new DemandGatedSink(emitter);
+            emitter.onRequest(n -> sink.signal());
+            TodoEventBus.Subscription subscription = todoEventBus.subscribe(sink, lastEventId);
+            emitter.onDispose(() -> {
+                subscription.close();
+                sink.signal();
+            });
+        });
+    }
+
+    public boolean acceptsSubscribers() {
+        return todoEventBus.acceptsSubscribers();
+    }
+
+    public Mono<List<BulkTodoResultDTO>> bulk(List<BulkTodoOperationDTO> operations) {
+        return sqlite(() -> todoService.bulk(operations));
+    }
+
+    private Mono<Todo> writeThrough(Todo todo) {
+        todo.touch();
+        if (!dual() || todoOutbox.isEnabled()) {
+            // Outbox mode and the single stores write one store on the request path; TodoService already does that.
+            return sqlite(() -> todoService.save(todo));
+        }
+        return mongo().save(todo)
+                .flatMap(saved -> mirrorToSqlite("save", () -> todoSqliteRepository.save(saved)))
+                .doOnNext(saved -> {
+                    todoSearchIndex.indexed(saved);
+                    todoEventBus.created(saved);
+                })
+                .doFinally(signal -> todoCache.invalidate(todo.getId()));
+    }
+
+    private boolean dual() {
+        return todoStore.spansMongoAndSqlite();
+    }
+
+    private ReactiveTodoMongoRepository mongo() {
+        return reactiveMongoRepository.getObject();
+    }
+
+    private <T> Mono<T> mirrorToSqlite(String operation, Callable<T> write) {
+        return sqlite(write).doOnError(e -> todoMetrics.partialWriteFailure(operation));
+    }
+
+    private <T> Mono<T> sqlite(Callable<T> call) {
+        return Mono.fromCallable(call).subscribeOn(sqliteScheduler);
+    }
+
+    /**
+     * Blocks the bus's delivery thread, a virtual one, until the connection has demand.
+     */
+    private static final class DemandGatedSink implements TodoEventBus.Sink {
+
+        private final FluxSink<ServerSentEvent<String>> emitter;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition demand = lock.newCondition();
+
+        private DemandGatedSink(FluxSink<ServerSentEvent<String>> emitter) {
+            this.emitter = emitter;
+        }
+
+        @Override
+        public void send(TodoEvent event) throws IOException {
+            emit(ServerSentEvent.builder(event.data())
+                    .id(Long.toString(event.id()))
+                    .event(event.type().eventName())
+                    .build());
+        }
+
+        @Override
+        public void heartbeat() throws IOException {
+            emit(ServerSentEvent.<String>builder().comment("keep-alive").build());
+        }
+
+        @Override
+        public void close() {
+            emitter.complete();
+        }
+
+        void signal() {
+            lock.lock();
+            try {
+                demand.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void emit(ServerSentEvent<String> event) throws IOException {
+            lock.lock();
+            try {
+                while (emitter.requestedFromDownstream() == 0) {
+                    if (emitter.isCancelled()) {
+                        throw new IOException("Todo event subscriber cancelled");
+                    }
+                    demand.await(1, TimeUnit.SECONDS);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted waiting for todo event demand", e);
+            } finally {
+                lock.unlock();
+            }
+            emitter.next(event);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.sukruokul.todo.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+/**
+ * Fans store reads out to virtual threads so Mongo and SQLite are queried concurrently.
+ * With {@code todo.read.parallel=false} reads run inline on the calling thread.
+ */
+@Component
+public class StoreReadExecutor {
+
+    private final ExecutorService executor;
+
+    public StoreReadExecutor(@Value("${todo.read.parallel:false}") boolean parallel) {
+        this.executor = parallel ? Executors.newVirtualThreadPerTaskExecutor() : null;
+    }
+
+    public boolean isParallel() {
+        return executor != null;
+    }
+
+    /**
+     * Cancelling the returned future skips the read if it has not started yet. A read already
+     * running is left to finish and its answer dropped: interrupting a Mongo driver call closes
+     * its pooled connection, which would cost a new connection per cancelled read.
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> read) {
+        if (executor == null) {
+            return CompletableFuture.completedFuture(read.get());
+        }
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Future<?> task = executor.submit(() -> {
+            try {
+                result.complete(read.get());
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        });
+        result.whenComplete((value, failure) -> {
+            if (result.isCancelled()) {
+                task.cancel(false);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Waits for a read and rethrows its failure unwrapped, as an inline call would have.
+     */
+    public static <T> T await(CompletableFuture<T> read) {
+        try {
+            return read.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+}
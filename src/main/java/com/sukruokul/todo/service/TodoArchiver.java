@@ -0,0 +1,140 @@
+package com.sukruokul.todo.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps finished todos out of the live tables. Each run archives the completed todos nobody has
+ * written for {@code todo.archive.completed-after}, then purges those archived longer than
+ * {@code todo.archive.retention} ago, both {@code todo.archive.batch-size} at a time with a pause
+ * between batches so the single SQLite writer is never held for long. A run that purged anything
+ * ends with an incremental vacuum of at most {@code todo.archive.vacuum-pages} pages. Mongo needs
+ * no purge: its TTL index on {@code deletedAt} expires archived todos after the same retention.
+ * <p>
+ * Runs are on a timer thread of their own, like {@link TodoReconciler}'s passes: the pauses
+ * between batches would otherwise hold up the shared {@code @Scheduled} thread.
+ * author: sukru.okul
+ */
+@Component
+public class TodoArchiver {
+
+    private static final Logger logger = LoggerFactory.getLogger(TodoArchiver.class);
+
+    private final TodoService todoService;
+    private final TodoMetrics todoMetrics;
+    private final boolean enabled;
+    private final Duration completedAfter;
+    private final Duration retention;
+    private final int batchSize;
+    private final Duration batchPause;
+    private final int vacuumPages;
+    private final Duration interval;
+    private final Duration initialDelay;
+    private final ScheduledExecutorService runs =
+            Executors.newSingleThreadScheduledExecutor(Thread.ofVirtual().name("todo-archive").factory());
+
+    public TodoArchiver(TodoService todoService,
+                        TodoMetrics todoMetrics,
+                        @Value("${todo.archive.enabled:false}") boolean enabled,
+                        @Value("${todo.archive.completed-after:30d}") Duration completedAfter,
+                        @Value("${todo.archive.retention:7d}") Duration retention,
+                        @Value("${todo.archive.batch-size:500}") int batchSize,
+                        @Value("${todo.archive.batch-pause:50ms}") Duration batchPause,
+                        @Value("${todo.archive.vacuum-pages:2000}") int vacuumPages,
+                        @Value("${todo.archive.interval:3600000}") Duration interval,
+                        @Value("${todo.archive.initial-delay:300000}") Duration initialDelay) {
+        this.todoService = todoService;
+        this.todoMetrics = todoMetrics;
+        this.enabled = enabled;
+        this.completedAfter = completedAfter;
+        this.retention = retention;
+        this.batchSize = batchSize;
+        this.batchPause = batchPause;
+        this.vacuumPages = vacuumPages;
+        this.interval = interval;
+        this.initialDelay = initialDelay;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (enabled) {
+            runs.scheduleWithFixedDelay(this::archiveScheduled, initialDelay.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        runs.shutdownNow();
+    }
+
+    private void archiveScheduled() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            int archived = archive();
+            long purged = purge();
+            if (archived > 0 || purged > 0) {
+                logger.info("Archived {} completed todos and purged {} archived ones.", archived, purged);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            logger.warn("Todo archive run failed, will retry: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Archives every completed todo last written before {@code todo.archive.completed-after} ago.
+     *
+     * @return the number of todos archived
+     */
+    public int archive() throws InterruptedException {
+        LocalDateTime updatedBefore = LocalDateTime.now().minus(completedAfter);
+        int total = 0;
+        while (true) {
+            int archived = todoService.archiveCompleted(updatedBefore, batchSize);
+            todoMetrics.archived(archived);
+            total += archived;
+            if (archived < batchSize) {
+                return total;
+            }
+            Thread.sleep(batchPause);
+        }
+    }
+
+    /**
+     * Deletes every todo archived before {@code todo.archive.retention} ago, then compacts the
+     * store if anything was deleted.
+     *
+     * @return the number of todos deleted
+     */
+    public long purge() throws InterruptedException {
+        LocalDateTime deletedBefore = LocalDateTime.now().minus(retention);
+        long total = 0;
+        while (true) {
+            long purged = todoService.purgeArchived(deletedBefore, batchSize);
+            todoMetrics.purged(purged);
+            total += purged;
+            if (purged < batchSize) {
+                break;
+            }
+            Thread.sleep(batchPause);
+        }
+        if (total > 0 && vacuumPages > 0) {
+            todoService.compact(vacuumPages);
+        }
+        return total;
+    }
+}
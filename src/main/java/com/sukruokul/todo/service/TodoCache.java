@@ -0,0 +1,102 @@
+package com.sukruokul.todo.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.sukruokul.todo.model.Todo;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Bounded read-through cache for {@link TodoService#findById(String)}. Misses are cached too,
+ * with their own (usually shorter) TTL. Entries are defensive copies so callers that mutate a
+ * returned todo can never corrupt the cached state.
+ */
+@Component
+public class TodoCache implements MeterBinder {
+
+    private final Cache<String, Optional<Todo>> cache;
+
+    public TodoCache(@Value("${todo.cache.enabled:false}") boolean enabled,
+                     @Value("${todo.cache.maximum-size:10000}") long maximumSize,
+                     @Value("${todo.cache.ttl:5m}") Duration ttl,
+                     @Value("${todo.cache.negative-ttl:10s}") Duration negativeTtl) {
+        this.cache = enabled
+                ? Caffeine.newBuilder()
+                        .maximumSize(maximumSize)
+                        .expireAfter(new HitOrMissExpiry(ttl, negativeTtl))
+                        .recordStats()
+                        .build()
+                : null;
+    }
+
+    public boolean isEnabled() {
+        return cache != null;
+    }
+
+    public Optional<Todo> get(String id, Function<String, Optional<Todo>> loader) {
+        Optional<Todo> todo = cache == null ? loader.apply(id) : cache.get(id, key -> loader.apply(key).map(Todo::copy));
+        return cache == null ? todo : todo.map(Todo::copy);
+    }
+
+    public void put(Todo todo) {
+        if (cache != null) {
+            cache.put(todo.getId(), Optional.of(todo.copy()));
+        }
+    }
+
+    public void invalidate(String id) {
+        if (cache != null) {
+            cache.invalidate(id);
+        }
+    }
+
+    public void invalidateAll() {
+        if (cache != null) {
+            cache.invalidateAll();
+        }
+    }
+
+    /**
+     * Hit, miss and eviction counters; {@link CacheStats#empty()} when the cache is disabled.
+     */
+    public CacheStats stats() {
+        return cache == null ? CacheStats.empty() : cache.stats();
+    }
+
+    /**
+     * Publishes the hit, miss and eviction counters as {@code cache.*} meters named {@code todoById}.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (cache != null) {
+            CaffeineCacheMetrics.monitor(registry, cache, "todoById");
+        }
+    }
+
+    private record HitOrMissExpiry(Duration ttl, Duration negativeTtl) implements Expiry<String, Optional<Todo>> {
+
+        @Override
+        public long expireAfterCreate(String key, Optional<Todo> value, long currentTime) {
+            return (value.isPresent() ? ttl : negativeTtl).toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Optional<Todo> value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Optional<Todo> value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
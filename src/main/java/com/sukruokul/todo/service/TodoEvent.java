@@ -0,0 +1,30 @@
+package com.sukruokul.todo.service;
+
+import java.util.Locale;
+
+/**
+ * One change pushed to {@code /api/todos/stream} subscribers. {@code data} is the todo already
+ * serialized to JSON (just its id for deletes), so it is encoded once however many subscribers
+ * receive it.
+ *
+ * @param id     position in the change sequence, the SSE {@code id} a client resumes from
+ * @param todoId the changed todo; {@code null} for {@link Type#RESET}
+ */
+public record TodoEvent(long id, Type type, String todoId, String data) {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED,
+        /** Changes were dropped for this subscriber; it must reload the list and carry on from this id. */
+        RESET;
+
+        public String eventName() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    static TodoEvent reset(long id) {
+        return new TodoEvent(id, Type.RESET, null, "{}");
+    }
+}
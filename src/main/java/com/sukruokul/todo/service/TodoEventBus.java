@@ -0,0 +1,346 @@
+package com.sukruokul.todo.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sukruokul.todo.model.Todo;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pushes the changes written through this instance to SSE and WebSocket subscribers, so clients
+ * stop polling {@code getTodos}.
+ * <p>
+ * An idle subscriber costs a {@link Subscription} and its connection, no thread. Each change is
+ * serialized once and queued per subscriber keyed by todo id: a subscriber that falls behind
+ * only ever holds the latest change per todo, and one with more than
+ * {@code todo.events.max-pending} distinct todos outstanding gets a single
+ * {@link TodoEvent.Type#RESET} instead. Deliveries run on virtual threads, at most one per
+ * subscriber, so a blocked client parks only its own.
+ * <p>
+ * The last {@code todo.events.history-size} changes are kept for clients resuming with
+ * {@code Last-Event-ID}; an id outside that window, or from an earlier run, also gets a reset.
+ */
+@Component
+public class TodoEventBus implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(TodoEventBus.class);
+
+    /**
+     * Transport end of one subscriber. Calls for one sink are never concurrent and may block.
+     */
+    public interface Sink {
+
+        void send(TodoEvent event) throws IOException;
+
+        /**
+         * Keeps idle connections open through proxies and detects clients that went away.
+         */
+        void heartbeat() throws IOException;
+
+        /**
+         * Called when the bus drops the subscriber (failed send or shutdown), not when the
+         * transport closes the subscription itself.
+         */
+        default void close() {
+        }
+    }
+
+    private final ObjectMapper objectMapper;
+    private final int historySize;
+    private final int maxPending;
+    private final int maxSubscribers;
+
+    private final ExecutorService dispatcher = Executors.newVirtualThreadPerTaskExecutor();
+    /** Own timer rather than {@code @Scheduled}, whose single thread a long reconciliation pass can hold. */
+    private final ScheduledExecutorService heartbeats =
+            Executors.newSingleThreadScheduledExecutor(Thread.ofVirtual().name("todo-events-heartbeat").factory());
+    private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong resets = new AtomicLong();
+
+    /** Guarded by {@code this}, like {@link #sequence}. */
+    private final ArrayDeque<TodoEvent> history = new ArrayDeque<>();
+    /** Starts at the clock, so ids handed out by an earlier run are older than this run's history. */
+    private long sequence = System.currentTimeMillis() * 1000;
+
+    public TodoEventBus(ObjectMapper objectMapper,
+                        @Value("${todo.events.history-size:10000}") int historySize,
+                        @Value("${todo.events.max-pending:1000}") int maxPending,
+                        @Value("${todo.events.max-subscribers:50000}") int maxSubscribers,
+                        @Value("${todo.events.heartbeat-interval:15s}") Duration heartbeatInterval) {
+        this.objectMapper = objectMapper;
+        this.historySize = historySize;
+        this.maxPending = maxPending;
+        this.maxSubscribers = maxSubscribers;
+        long period = heartbeatInterval.toMillis();
+        heartbeats.scheduleWithFixedDelay(this::heartbeat, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    public void created(Todo todo) {
+        publish(TodoEvent.Type.CREATED, todo.getId(), todo);
+    }
+
+    public void updated(Todo todo) {
+        publish(TodoEvent.Type.UPDATED, todo.getId(), todo);
+    }
+
+    public void deleted(String id) {
+        publish(TodoEvent.Type.DELETED, id, Map.of("id", id));
+    }
+
+    /**
+     * Registers {@code sink} for every change from now on, preceded by the retained changes after
+     * {@code lastEventId} when given.
+     *
+     * @throws IllegalStateException if {@code todo.events.max-subscribers} are already connected
+     */
+    public Subscription subscribe(Sink sink, String lastEventId) {
+        if (subscriptions.size() >= maxSubscribers) {
+            throw new IllegalStateException("Todo event subscriber limit of " + maxSubscribers + " reached");
+        }
+        Subscription subscription = new Subscription(sink);
+        boolean ready = false;
+        synchronized (this) {
+            subscription.lastOffered = sequence;
+            if (lastEventId != null && !lastEventId.isBlank()) {
+                long after = parseEventId(lastEventId);
+                if (after != sequence) {
+                    if (!history.isEmpty() && after >= history.peekFirst().id() - 1 && after < sequence) {
+                        for (TodoEvent event : history) {
+                            if (event.id() > after) {
+                                ready |= subscription.offer(event);
+                            }
+                        }
+                    } else {
+                        ready = subscription.forceReset();
+                    }
+                }
+            }
+            subscriptions.add(subscription);
+        }
+        if (ready) {
+            dispatcher.execute(() -> drain(subscription));
+        }
+        return subscription;
+    }
+
+    /**
+     * Lets endpoints answer 503 before opening a stream; {@link #subscribe} still enforces the
+     * limit.
+     */
+    public boolean acceptsSubscribers() {
+        return subscriptions.size() < maxSubscribers;
+    }
+
+    public void heartbeat() {
+        for (Subscription subscription : subscriptions) {
+            if (subscription.heartbeatDue()) {
+                dispatcher.execute(() -> drain(subscription));
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeats.shutdownNow();
+        dispatcher.shutdownNow();
+        subscriptions.forEach(subscription -> drop(subscription, true));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("todo.events.subscribers", subscriptions, Set::size)
+                .description("Connected todo change stream subscribers")
+                .register(registry);
+        FunctionCounter.builder("todo.events.coalesced", coalesced, AtomicLong::get)
+                .description("Changes superseded by a newer change to the same todo before delivery")
+                .register(registry);
+        FunctionCounter.builder("todo.events.resets", resets, AtomicLong::get)
+                .description("Subscribers told to reload because they fell too far behind or resumed from an unknown id")
+                .register(registry);
+    }
+
+    private void publish(TodoEvent.Type type, String todoId, Object payload) {
+        String data;
+        try {
+            data = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            logger.error("Could not serialize {} event of todo {}: {}", type, todoId, e.getMessage(), e);
+            return;
+        }
+        List<Subscription> ready = new ArrayList<>();
+        synchronized (this) {
+            TodoEvent event = new TodoEvent(++sequence, type, todoId, data);
+            history.addLast(event);
+            if (history.size() > historySize) {
+                history.removeFirst();
+            }
+            for (Subscription subscription : subscriptions) {
+                if (subscription.offer(event)) {
+                    ready.add(subscription);
+                }
+            }
+        }
+        for (Subscription subscription : ready) {
+            dispatcher.execute(() -> drain(subscription));
+        }
+    }
+
+    private void drain(Subscription subscription) {
+        while (true) {
+            List<TodoEvent> batch;
+            boolean heartbeat;
+            synchronized (subscription) {
+                if (subscription.closed) {
+                    return;
+                }
+                batch = new ArrayList<>(subscription.pending.size() + 1);
+                if (subscription.reset) {
+                    subscription.reset = false;
+                    batch.add(TodoEvent.reset(subscription.lastOffered));
+                }
+                batch.addAll(subscription.pending.values());
+                subscription.pending.clear();
+                heartbeat = subscription.heartbeat && batch.isEmpty();
+                subscription.heartbeat = false;
+                if (batch.isEmpty() && !heartbeat) {
+                    subscription.scheduled = false;
+                    return;
+                }
+            }
+            try {
+                if (heartbeat) {
+                    subscription.sink.heartbeat();
+                }
+                for (TodoEvent event : batch) {
+                    subscription.sink.send(event);
+                }
+            } catch (IOException | RuntimeException e) {
+                logger.debug("Dropping todo event subscriber: {}", e.getMessage());
+                drop(subscription, true);
+                return;
+            }
+        }
+    }
+
+    private void drop(Subscription subscription, boolean closeSink) {
+        synchronized (subscription) {
+            if (subscription.closed) {
+                return;
+            }
+            subscription.closed = true;
+            subscription.pending.clear();
+        }
+        subscriptions.remove(subscription);
+        if (closeSink) {
+            subscription.sink.close();
+        }
+    }
+
+    private static long parseEventId(String lastEventId) {
+        try {
+            return Long.parseLong(lastEventId.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * One connected client. State is guarded by the instance's monitor; the offer/schedule
+     * methods return whether the caller must start a delivery.
+     */
+    public final class Subscription implements AutoCloseable {
+
+        private final Sink sink;
+        /** Undelivered changes, one per todo, in event id order. */
+        private final LinkedHashMap<String, TodoEvent> pending = new LinkedHashMap<>();
+        /** Id of the latest change offered, delivered or not: where a reset tells the client to resume. */
+        private long lastOffered;
+        private boolean reset;
+        private boolean heartbeat;
+        private boolean scheduled;
+        private boolean closed;
+
+        private Subscription(Sink sink) {
+            this.sink = sink;
+        }
+
+        /**
+         * Unsubscribes; called by the transport when the client disconnects.
+         */
+        @Override
+        public void close() {
+            drop(this, false);
+        }
+
+        private synchronized boolean offer(TodoEvent event) {
+            if (closed) {
+                return false;
+            }
+            lastOffered = event.id();
+            if (reset) {
+                // The client reloads everything anyway.
+                return false;
+            }
+            // Re-inserted rather than replaced, so pending stays in id order and a client that
+            // disconnects mid-batch resumes without skipping an older change to another todo.
+            TodoEvent previous = pending.remove(event.todoId());
+            if (previous != null) {
+                coalesced.incrementAndGet();
+                if (previous.type() == TodoEvent.Type.CREATED) {
+                    if (event.type() == TodoEvent.Type.DELETED) {
+                        return false;
+                    }
+                    event = new TodoEvent(event.id(), TodoEvent.Type.CREATED, event.todoId(), event.data());
+                }
+            }
+            pending.put(event.todoId(), event);
+            if (pending.size() > maxPending) {
+                pending.clear();
+                return forceReset();
+            }
+            return schedule();
+        }
+
+        private synchronized boolean forceReset() {
+            reset = true;
+            resets.incrementAndGet();
+            return schedule();
+        }
+
+        private synchronized boolean heartbeatDue() {
+            heartbeat = true;
+            return schedule();
+        }
+
+        private boolean schedule() {
+            if (scheduled || closed) {
+                return false;
+            }
+            scheduled = true;
+            return true;
+        }
+    }
+}
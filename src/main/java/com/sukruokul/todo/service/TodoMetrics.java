@@ -0,0 +1,81 @@
+package com.sukruokul.todo.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * Dual-store health and maintenance counters. Per-store latency comes from Spring Boot's
+ * {@code spring.data.repository.invocations} timer, tagged with the repository interface.
+ */
+@Component
+public class TodoMetrics {
+
+    private final Counter sqliteFallbacks;
+    private final Counter mergeDuplicates;
+    private final MeterRegistry registry;
+
+    public TodoMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.sqliteFallbacks = Counter.builder("todo.read.sqlite.fallbacks")
+                .description("findById lookups missing in Mongo and served from SQLite")
+                .register(registry);
+        this.mergeDuplicates = Counter.builder("todo.merge.duplicates")
+                .description("Todos present in both stores and dropped by the findAll merge")
+                .register(registry);
+    }
+
+    public void sqliteFallback() {
+        sqliteFallbacks.increment();
+    }
+
+    public void mergeDuplicates(int count) {
+        mergeDuplicates.increment(count);
+    }
+
+    /**
+     * A dual write that reached Mongo but failed on SQLite, leaving the stores diverged.
+     */
+    public void partialWriteFailure(String operation) {
+        Counter.builder("todo.write.partial.failures")
+                .description("Dual writes applied to Mongo but not to SQLite")
+                .tag("operation", operation)
+                .register(registry)
+                .increment();
+    }
+
+    /**
+     * Records found different between the stores by one reconciliation chunk, by {@code kind}:
+     * {@code missing_in_sqlite}, {@code missing_in_mongo} or {@code mismatched}.
+     */
+    public void reconcileDivergence(String kind, int count) {
+        if (count > 0) {
+            Counter.builder("todo.reconcile.divergent")
+                    .description("Records found different between SQLite and Mongo by reconciliation")
+                    .tag("kind", kind)
+                    .register(registry)
+                    .increment(count);
+        }
+    }
+
+    public void archived(int count) {
+        Counter.builder("todo.archive.archived")
+                .description("Completed todos archived by the archive job")
+                .register(registry)
+                .increment(count);
+    }
+
+    public void purged(long count) {
+        Counter.builder("todo.archive.purged")
+                .description("Archived todos deleted from SQLite (or memory) after the retention")
+                .register(registry)
+                .increment(count);
+    }
+
+    public void reconcileRepaired(int count) {
+        Counter.builder("todo.reconcile.repaired")
+                .description("Records rewritten by reconciliation to match the primary store")
+                .register(registry)
+                .increment(count);
+    }
+}
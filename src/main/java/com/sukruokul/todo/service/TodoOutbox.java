@@ -0,0 +1,195 @@
+package com.sukruokul.todo.service;
+
+import com.sukruokul.todo.model.Todo;
+import com.sukruokul.todo.model.TodoOutboxEntry;
+import com.sukruokul.todo.model.TodoPatch;
+import com.sukruokul.todo.repository.jpa.TodoOutboxRepository;
+import com.sukruokul.todo.repository.jpa.TodoRepository;
+import com.sukruokul.todo.repository.mongo.TodoMongoRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Outbox write mode: todos are committed to SQLite (the primary store) together with an outbox
+ * entry in one local transaction, and a background drainer mirrors them to Mongo in batches.
+ * The drainer always re-reads the current SQLite row, so replays are idempotent and several
+ * pending writes to the same todo collapse into one Mongo write.
+ */
+@Component
+public class TodoOutbox implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(TodoOutbox.class);
+
+    private final TodoRepository todoSqliteRepository;
+    private final TodoMongoRepository todoMongoRepository;
+    private final TodoOutboxRepository outboxRepository;
+    private final boolean enabled;
+    private final int batchSize;
+
+    public TodoOutbox(TodoRepository todoSqliteRepository,
+                      @Lazy TodoMongoRepository todoMongoRepository,
+                      TodoOutboxRepository outboxRepository,
+                      @Value("${todo.write.mode:sync}") String writeMode,
+                      @Value("${todo.outbox.batch-size:500}") int batchSize) {
+        this.todoSqliteRepository = todoSqliteRepository;
+        this.todoMongoRepository = todoMongoRepository;
+        this.outboxRepository = outboxRepository;
+        this.enabled = "outbox".equalsIgnoreCase(writeMode);
+        this.batchSize = batchSize;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Transactional
+    public Todo save(Todo todo) {
+        Todo saved = todoSqliteRepository.save(todo);
+        outboxRepository.save(new TodoOutboxEntry(saved.getId(), TodoOutboxEntry.Operation.UPSERT));
+        return saved;
+    }
+
+    /**
+     * Conditional update committed with its outbox entry; nothing is enqueued if the todo does not exist.
+     *
+     * @return the todo as stored after the update, or empty if there is no todo with {@code id}
+     */
+    @Transactional
+    public Optional<Todo> updateIfExists(String id, TodoPatch patch, LocalDateTime updatedAt) {
+        if (todoSqliteRepository.updateIfExists(id, patch, updatedAt) == 0) {
+            return Optional.empty();
+        }
+        outboxRepository.save(new TodoOutboxEntry(id, TodoOutboxEntry.Operation.UPSERT));
+        return todoSqliteRepository.findById(id);
+    }
+
+    /**
+     * @return the number of todos deleted; nothing is enqueued if it is 0
+     */
+    @Transactional
+    public long removeById(String id) {
+        int deleted = todoSqliteRepository.removeById(id);
+        if (deleted > 0) {
+            outboxRepository.save(new TodoOutboxEntry(id, TodoOutboxEntry.Operation.DELETE));
+        }
+        return deleted;
+    }
+
+    @Transactional
+    public void applyBatch(Collection<Todo> upserts, Collection<String> deletes) {
+        todoSqliteRepository.applyBatch(upserts, deletes);
+        List<TodoOutboxEntry> entries = new ArrayList<>(upserts.size() + deletes.size());
+        upserts.forEach(todo -> entries.add(new TodoOutboxEntry(todo.getId(), TodoOutboxEntry.Operation.UPSERT)));
+        deletes.forEach(id -> entries.add(new TodoOutboxEntry(id, TodoOutboxEntry.Operation.DELETE)));
+        outboxRepository.saveAll(entries);
+    }
+
+    /**
+     * Archival committed with one outbox entry per archived todo; the drain copies the archived
+     * rows, {@code deletedAt} included, to Mongo.
+     *
+     * @return ids of the todos archived
+     */
+    @Transactional
+    public List<String> archiveCompleted(LocalDateTime updatedBefore, LocalDateTime deletedAt, int limit) {
+        List<String> ids = todoSqliteRepository.archiveCompleted(updatedBefore, deletedAt, limit);
+        outboxRepository.saveAll(ids.stream().map(id -> new TodoOutboxEntry(id, TodoOutboxEntry.Operation.UPSERT)).toList());
+        return ids;
+    }
+
+    /**
+     * True while a write to {@code id} has not been mirrored to Mongo yet, so Mongo's copy of it,
+     * or its absence, is out of date.
+     */
+    public boolean isPending(String id) {
+        return outboxRepository.existsByTodoId(id);
+    }
+
+    /**
+     * The ids among {@code ids} that {@link #isPending(String) are pending}.
+     */
+    public Set<String> pendingIds(Collection<String> ids) {
+        return outboxRepository.findByTodoIdIn(ids).stream().map(TodoOutboxEntry::getTodoId).collect(Collectors.toSet());
+    }
+
+    /**
+     * Every pending id; the outbox holds only what the drain has not caught up with yet, so this
+     * is cheaper than asking about each id of a whole-collection read.
+     */
+    public Set<String> pendingIds() {
+        return new HashSet<>(outboxRepository.findPendingTodoIds());
+    }
+
+    /**
+     * Pending outbox entries are writes SQLite has and Mongo does not yet have.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("todo.outbox.pending", outboxRepository, TodoOutboxRepository::count)
+                .description("Outbox entries not yet mirrored to Mongo")
+                .register(registry);
+    }
+
+    /**
+     * Runs regardless of the configured mode so entries left behind after switching back to
+     * synchronous writes are still delivered.
+     */
+    @Scheduled(fixedDelayString = "${todo.outbox.drain-interval:1000}")
+    public void drainScheduled() {
+        try {
+            while (drain() == batchSize) {
+                logger.debug("Outbox batch of {} drained, continuing.", batchSize);
+            }
+        } catch (Exception e) {
+            logger.warn("Outbox drain failed, will retry: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Mirrors one batch of pending writes to Mongo and removes them from the outbox.
+     *
+     * @return number of outbox entries processed
+     */
+    public int drain() {
+        List<TodoOutboxEntry> batch = outboxRepository.findAllByOrderByIdAsc(PageRequest.ofSize(batchSize));
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        Map<String, TodoOutboxEntry.Operation> latest = new LinkedHashMap<>();
+        batch.forEach(entry -> latest.put(entry.getTodoId(), entry.getOperation()));
+
+        Set<String> upserts = latest.entrySet().stream()
+                .filter(e -> e.getValue() == TodoOutboxEntry.Operation.UPSERT)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toSet());
+        List<Todo> current = todoSqliteRepository.findAllById(upserts);
+        Set<String> deletes = new LinkedHashSet<>(latest.keySet());
+        current.forEach(todo -> deletes.remove(todo.getId()));
+
+        todoMongoRepository.applyBatch(current, deletes);
+        outboxRepository.deleteAllInBatch(batch);
+        logger.debug("Mirrored {} upserts and {} deletes from the outbox.", current.size(), deletes.size());
+        return batch.size();
+    }
+}
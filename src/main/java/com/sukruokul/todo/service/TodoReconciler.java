@@ -0,0 +1,270 @@
+package com.sukruokul.todo.service;
+
+import com.sukruokul.todo.model.Todo;
+import com.sukruokul.todo.repository.jpa.TodoRepository;
+import com.sukruokul.todo.repository.mongo.TodoMongoRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Background repair of SQLite/Mongo divergence. Each pass walks both stores side by side in
+ * primary-key order, one aligned id range of at most {@code todo.reconcile.chunk-size} per store
+ * at a time. A range whose two digests match is skipped; otherwise the differing records are
+ * re-read and the secondary store is overwritten with the primary's version. The primary is
+ * Mongo in sync write mode, which writes it first, and SQLite in outbox mode.
+ * <p>
+ * Records written within {@code todo.reconcile.settle-time} are left alone since a dual write or
+ * outbox drain may still be completing them, and the walk sleeps between ranges so a pass never
+ * competes with requests for long. Passes run on a timer thread of their own: on the shared
+ * {@code @Scheduled} thread those sleeps would hold up the outbox drain and the rate-limit sweep
+ * for the length of a pass.
+ */
+@Component
+public class TodoReconciler implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(TodoReconciler.class);
+
+    private final TodoRepository todoSqliteRepository;
+    private final TodoMongoRepository todoMongoRepository;
+    private final TodoOutbox todoOutbox;
+    private final TodoMetrics todoMetrics;
+    private final boolean enabled;
+    private final int chunkSize;
+    private final Duration chunkPause;
+    private final Duration settleTime;
+    private final Duration interval;
+    private final Duration initialDelay;
+    private final AtomicLong lastPassDivergent = new AtomicLong();
+    private final ScheduledExecutorService passes =
+            Executors.newSingleThreadScheduledExecutor(Thread.ofVirtual().name("todo-reconcile").factory());
+
+    public TodoReconciler(TodoRepository todoSqliteRepository,
+                          @Lazy TodoMongoRepository todoMongoRepository,
+                          TodoOutbox todoOutbox,
+                          TodoMetrics todoMetrics,
+                          @Value("${todo.reconcile.enabled:false}") boolean enabled,
+                          @Value("${todo.reconcile.chunk-size:500}") int chunkSize,
+                          @Value("${todo.reconcile.chunk-pause:50ms}") Duration chunkPause,
+                          @Value("${todo.reconcile.settle-time:30s}") Duration settleTime,
+                          @Value("${todo.reconcile.interval:600000}") Duration interval,
+                          @Value("${todo.reconcile.initial-delay:60000}") Duration initialDelay) {
+        this.todoSqliteRepository = todoSqliteRepository;
+        this.todoMongoRepository = todoMongoRepository;
+        this.todoOutbox = todoOutbox;
+        this.todoMetrics = todoMetrics;
+        this.enabled = enabled;
+        this.chunkSize = chunkSize;
+        this.chunkPause = chunkPause;
+        this.settleTime = settleTime;
+        this.interval = interval;
+        this.initialDelay = initialDelay;
+    }
+
+    /**
+     * While enabled, divergence is repaired in the background, so readers may trust the primary
+     * store alone instead of merging both.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (enabled) {
+            passes.scheduleWithFixedDelay(this::reconcileScheduled, initialDelay.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        passes.shutdownNow();
+    }
+
+    private void reconcileScheduled() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            int divergent = reconcile();
+            if (divergent > 0) {
+                logger.info("Reconciliation pass found {} divergent todos.", divergent);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            logger.warn("Reconciliation pass failed, will retry: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Runs one full pass over both stores.
+     *
+     * @return number of records that differed between the stores
+     */
+    public int reconcile() throws InterruptedException {
+        String after = "";
+        int divergent = 0;
+        while (true) {
+            List<Todo> sqliteChunk = todoSqliteRepository.findByIdGreaterThanOrderByIdAsc(after, PageRequest.ofSize(chunkSize));
+            List<Todo> mongoChunk = todoMongoRepository.findByIdGreaterThanOrderByIdAsc(after, PageRequest.ofSize(chunkSize));
+            String upTo = rangeEnd(sqliteChunk, mongoChunk);
+            Map<String, Todo> sqlite = byId(sqliteChunk, upTo);
+            Map<String, Todo> mongo = byId(mongoChunk, upTo);
+            if (digest(sqlite.values()) != digest(mongo.values())) {
+                divergent += repair(sqlite, mongo);
+            }
+            if (upTo == null) {
+                break;
+            }
+            after = upTo;
+            Thread.sleep(chunkPause);
+        }
+        lastPassDivergent.set(divergent);
+        return divergent;
+    }
+
+    /**
+     * Last id both chunks fully cover, so the compared ranges line up; {@code null} when both
+     * stores are exhausted.
+     */
+    private String rangeEnd(List<Todo> sqliteChunk, List<Todo> mongoChunk) {
+        boolean sqliteFull = sqliteChunk.size() == chunkSize;
+        boolean mongoFull = mongoChunk.size() == chunkSize;
+        String sqliteLast = sqliteFull ? sqliteChunk.get(sqliteChunk.size() - 1).getId() : null;
+        String mongoLast = mongoFull ? mongoChunk.get(mongoChunk.size() - 1).getId() : null;
+        if (sqliteFull && mongoFull) {
+            return sqliteLast.compareTo(mongoLast) <= 0 ? sqliteLast : mongoLast;
+        }
+        return sqliteFull ? sqliteLast : mongoLast;
+    }
+
+    private static Map<String, Todo> byId(List<Todo> chunk, String upTo) {
+        Map<String, Todo> todos = new LinkedHashMap<>();
+        for (Todo todo : chunk) {
+            if (upTo != null && todo.getId().compareTo(upTo) > 0) {
+                break;
+            }
+            todos.put(todo.getId(), todo);
+        }
+        return todos;
+    }
+
+    private int repair(Map<String, Todo> sqlite, Map<String, Todo> mongo) {
+        Set<String> ids = new TreeSet<>(sqlite.keySet());
+        ids.addAll(mongo.keySet());
+        ids.removeIf(id -> sameContent(sqlite.get(id), mongo.get(id)));
+        todoMetrics.reconcileDivergence("missing_in_sqlite", (int) ids.stream().filter(id -> !sqlite.containsKey(id)).count());
+        todoMetrics.reconcileDivergence("missing_in_mongo", (int) ids.stream().filter(id -> !mongo.containsKey(id)).count());
+        todoMetrics.reconcileDivergence("mismatched", (int) ids.stream().filter(id -> sqlite.containsKey(id) && mongo.containsKey(id)).count());
+
+        // Re-read so a write that landed during the walk is neither reverted nor reported twice.
+        Map<String, Todo> freshSqlite = todoSqliteRepository.findAllById(ids).stream().collect(Collectors.toMap(Todo::getId, Function.identity()));
+        Map<String, Todo> freshMongo = todoMongoRepository.findAllById(ids).stream().collect(Collectors.toMap(Todo::getId, Function.identity()));
+        boolean sqlitePrimary = todoOutbox.isEnabled();
+        LocalDateTime settled = LocalDateTime.now().minus(settleTime);
+        List<Todo> upserts = new ArrayList<>();
+        List<String> deletes = new ArrayList<>();
+        for (String id : ids) {
+            Todo primary = sqlitePrimary ? freshSqlite.get(id) : freshMongo.get(id);
+            Todo secondary = sqlitePrimary ? freshMongo.get(id) : freshSqlite.get(id);
+            if (sameContent(primary, secondary) || writtenAfter(primary, settled) || writtenAfter(secondary, settled)
+                    || archivedInOneOnly(primary, secondary)) {
+                continue;
+            }
+            if (primary == null) {
+                deletes.add(id);
+            } else {
+                upserts.add(primary);
+            }
+        }
+        if (!upserts.isEmpty() || !deletes.isEmpty()) {
+            if (sqlitePrimary) {
+                todoMongoRepository.applyBatch(upserts, deletes);
+            } else {
+                todoSqliteRepository.applyBatch(upserts, deletes);
+            }
+            todoMetrics.reconcileRepaired(upserts.size() + deletes.size());
+        }
+        return ids.size();
+    }
+
+    /**
+     * SQLite purges archived todos and Mongo expires them by TTL, each on its own clock; until
+     * both have, one store keeps a copy the other has dropped, which must not be copied back.
+     */
+    private static boolean archivedInOneOnly(Todo primary, Todo secondary) {
+        return (primary == null && secondary.isArchived()) || (secondary == null && primary.isArchived());
+    }
+
+    private static boolean writtenAfter(Todo todo, LocalDateTime settled) {
+        return todo != null && todo.getUpdatedAt() != null && todo.getUpdatedAt().isAfter(settled);
+    }
+
+    /**
+     * Field equality at the millisecond precision both stores keep.
+     */
+    private static boolean sameContent(Todo a, Todo b) {
+        if (a == null || b == null) {
+            return a == b;
+        }
+        return a.getId().equals(b.getId())
+                && Objects.equals(a.getTitle(), b.getTitle())
+                && a.isCompleted() == b.isCompleted()
+                && Objects.equals(millis(a.getCreatedAt()), millis(b.getCreatedAt()))
+                && Objects.equals(millis(a.getUpdatedAt()), millis(b.getUpdatedAt()))
+                && Objects.equals(millis(a.getDeletedAt()), millis(b.getDeletedAt()));
+    }
+
+    /**
+     * Order-sensitive 64-bit digest of a range; both maps iterate in id order.
+     */
+    private static long digest(Collection<Todo> todos) {
+        long digest = todos.size();
+        for (Todo todo : todos) {
+            digest = 31 * digest + Objects.hash(todo.getId(), todo.getTitle(), todo.isCompleted(),
+                    millis(todo.getCreatedAt()), millis(todo.getUpdatedAt()), millis(todo.getDeletedAt()));
+        }
+        return digest;
+    }
+
+    private static LocalDateTime millis(LocalDateTime time) {
+        return time == null ? null : time.truncatedTo(ChronoUnit.MILLIS);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (enabled) {
+            Gauge.builder("todo.reconcile.last.divergent", lastPassDivergent, AtomicLong::get)
+                    .description("Divergent todos found by the last complete reconciliation pass")
+                    .register(registry);
+        }
+    }
+}
@@ -0,0 +1,326 @@
+package com.sukruokul.todo.service;
+
+import com.sukruokul.todo.model.Todo;
+import com.sukruokul.todo.model.TodoCursor;
+import com.sukruokul.todo.model.TodoFilter;
+import com.sukruokul.todo.model.TodoStamp;
+import com.sukruokul.todo.repository.mongo.ChangeStreamsUnsupportedException;
+import com.sukruokul.todo.repository.mongo.TodoChangeFeed;
+import com.sukruokul.todo.store.TodoStore;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+
+/**
+ * In-memory materialized view of the live todos for read-heavy deployments. Seeded from
+ * {@link TodoStore#findAll()}, so it holds what the store would serve (in outbox mode SQLite's
+ * todos plus Mongo's, without those whose delete is still queued), then kept current by the
+ * {@link TodoChangeFeed} on Mongo, where every instance's writes land. When the deployment has no
+ * change streams it polls {@link TodoStore#findWrittenAfter} instead, and compares ids with
+ * {@link TodoStore#findLiveIds()} on every poll to drop todos other instances deleted; everything
+ * is reloaded every {@code todo.replica.full-resync-interval}.
+ * <p>
+ * Writes made through this instance are applied immediately, so its own clients read their
+ * writes; writes from other instances arrive with the feed or the next poll. In outbox mode they
+ * trail by their instance's drain interval. Stored todos are private copies, handed out as copies.
+ */
+@Component
+public class TodoReplica implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(TodoReplica.class);
+
+    /** Polls re-read this far behind the last poll so clock skew between instances loses nothing. */
+    private static final Duration POLL_OVERLAP = Duration.ofSeconds(5);
+
+    private final TodoStore todoStore;
+    private final TodoChangeFeed changeFeed;
+    private final boolean enabled;
+    private final Duration pollInterval;
+    private final Duration fullResyncInterval;
+
+    private final Map<String, Todo> byId = new ConcurrentHashMap<>();
+    private final NavigableMap<TodoCursor, Todo> sorted = new ConcurrentSkipListMap<>(TodoCursor.KEY_ORDER);
+    /** Ids written while a (re)load is in flight; {@code null} otherwise. */
+    private Set<String> upsertedDuringLoad;
+    private Set<String> deletedDuringLoad;
+
+    private volatile boolean serving;
+    private volatile boolean stopped;
+    private Thread worker;
+
+    public TodoReplica(@Lazy TodoStore todoStore,
+                       @Lazy TodoChangeFeed changeFeed,
+                       @Value("${todo.replica.enabled:false}") boolean enabled,
+                       @Value("${todo.replica.poll-interval:2s}") Duration pollInterval,
+                       @Value("${todo.replica.full-resync-interval:5m}") Duration fullResyncInterval) {
+        this.todoStore = todoStore;
+        this.changeFeed = changeFeed;
+        this.enabled = enabled;
+        this.pollInterval = pollInterval;
+        this.fullResyncInterval = fullResyncInterval;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * True once the initial load has completed; until then, and when disabled, callers read the
+     * stores directly.
+     */
+    public boolean isServing() {
+        return serving;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (!enabled || worker != null) {
+            return;
+        }
+        stopped = false;
+        worker = Thread.ofVirtual().name("todo-replica").start(this::run);
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        stopped = true;
+        serving = false;
+        if (worker != null) {
+            // Only a started replica has touched the feed, which the sqlite and memory backends lack.
+            changeFeed.close();
+            worker.interrupt();
+            worker = null;
+        }
+    }
+
+    private void run() {
+        Thread feed = Thread.ofVirtual().name("todo-replica-feed").start(this::follow);
+        try {
+            reloadUntilLoaded();
+            logger.info("Todo replica loaded {} todos.", byId.size());
+            serving = true;
+            feed.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Applies change-stream events, started before the initial load so nothing written during the
+     * load is missed; {@link #apply(Todo)} keeps whichever version is newer.
+     */
+    private void follow() {
+        try {
+            changeFeed.watch(new TodoChangeFeed.Listener() {
+                @Override
+                public void upserted(Todo todo) {
+                    apply(todo);
+                }
+
+                @Override
+                public void deleted(String id) {
+                    remove(id);
+                }
+
+                @Override
+                public void invalidated() {
+                    logger.warn("Todo change stream lost its position, reloading the replica.");
+                    reloadUntilLoaded();
+                }
+            });
+        } catch (ChangeStreamsUnsupportedException e) {
+            logger.info("Mongo change streams unavailable ({}), polling every {}.", e.getMessage(), pollInterval);
+            poll();
+        }
+    }
+
+    private void poll() {
+        LocalDateTime lastFullLoad = LocalDateTime.now();
+        LocalDateTime since = lastFullLoad.minus(POLL_OVERLAP);
+        while (!stopped) {
+            try {
+                Thread.sleep(pollInterval);
+                LocalDateTime pollStart = LocalDateTime.now();
+                if (Duration.between(lastFullLoad, pollStart).compareTo(fullResyncInterval) >= 0) {
+                    reload();
+                    lastFullLoad = pollStart;
+                } else {
+                    todoStore.findWrittenAfter(since).forEach(this::apply);
+                    // Deletes leave nothing behind for the watermark to find.
+                    dropDeleted();
+                }
+                since = pollStart.minus(POLL_OVERLAP).truncatedTo(ChronoUnit.MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                logger.warn("Todo replica poll failed, will retry: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void reloadUntilLoaded() {
+        while (!stopped) {
+            try {
+                reload();
+                return;
+            } catch (RuntimeException e) {
+                logger.warn("Todo replica load failed, will retry: {}", e.getMessage());
+                try {
+                    Thread.sleep(pollInterval);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void reload() {
+        resync(true);
+    }
+
+    private void dropDeleted() {
+        resync(false);
+    }
+
+    /**
+     * Re-reads the store: every live todo when {@code full}, otherwise only their ids. Ids missing
+     * from the read are dropped unless they were written through {@link #apply(Todo)} while the
+     * read was running, and ids removed during the read are not brought back by it.
+     */
+    private void resync(boolean full) {
+        Set<String> stale;
+        synchronized (this) {
+            upsertedDuringLoad = new HashSet<>();
+            deletedDuringLoad = new HashSet<>();
+            stale = new HashSet<>(byId.keySet());
+        }
+        try {
+            List<Todo> todos = full ? todoStore.findAll() : List.of();
+            List<String> liveIds = full ? todos.stream().map(Todo::getId).toList() : todoStore.findLiveIds();
+            synchronized (this) {
+                liveIds.forEach(stale::remove);
+                for (Todo todo : todos) {
+                    if (!deletedDuringLoad.contains(todo.getId())) {
+                        apply(todo);
+                    }
+                }
+                stale.removeAll(upsertedDuringLoad);
+                stale.forEach(this::remove);
+            }
+        } finally {
+            synchronized (this) {
+                upsertedDuringLoad = null;
+                deletedDuringLoad = null;
+            }
+        }
+    }
+
+    /**
+     * Inserts or replaces {@code todo}, unless the view already holds it or a newer version of it.
+     * An archived todo is removed instead.
+     */
+    public synchronized void apply(Todo todo) {
+        if (!enabled) {
+            return;
+        }
+        if (todo.isArchived()) {
+            remove(todo.getId());
+            return;
+        }
+        Todo current = byId.get(todo.getId());
+        if (todo.equals(current) || (current != null && current.getUpdatedAt() != null && todo.getUpdatedAt() != null
+                && current.getUpdatedAt().isAfter(todo.getUpdatedAt()))) {
+            return;
+        }
+        if (upsertedDuringLoad != null) {
+            upsertedDuringLoad.add(todo.getId());
+        }
+        Todo copy = todo.copy();
+        byId.put(copy.getId(), copy);
+        if (current != null) {
+            sorted.remove(TodoCursor.of(current));
+        }
+        sorted.put(TodoCursor.of(copy), copy);
+    }
+
+    public synchronized void remove(String id) {
+        if (!enabled) {
+            return;
+        }
+        if (deletedDuringLoad != null) {
+            deletedDuringLoad.add(id);
+        }
+        Todo current = byId.remove(id);
+        if (current != null) {
+            sorted.remove(TodoCursor.of(current));
+        }
+    }
+
+    public Optional<Todo> findById(String id) {
+        return Optional.ofNullable(byId.get(id)).map(Todo::copy);
+    }
+
+    public List<Todo> findAll() {
+        return sorted.values().stream().map(Todo::copy).toList();
+    }
+
+    /**
+     * Todos matching {@code filter} after {@code after} (exclusive) in the filter's order.
+     */
+    public Iterator<Todo> iterator(TodoFilter filter, TodoCursor after) {
+        NavigableMap<TodoCursor, Todo> view = filter.descending() ? sorted.descendingMap() : sorted;
+        if (after != null) {
+            view = view.tailMap(after, false);
+        }
+        Stream<Todo> todos = view.values().stream();
+        if (filter.descending() && filter.createdAfter() != null) {
+            todos = todos.takeWhile(todo -> todo.getCreatedAt() != null && todo.getCreatedAt().isAfter(filter.createdAfter()));
+        }
+        return todos.filter(filter::matches).map(Todo::copy).iterator();
+    }
+
+    /**
+     * Stamp of the todos held, for the list ETag while the replica serves reads; a scan of the
+     * view, still far cheaper than encoding the list.
+     */
+    public TodoStamp stamp() {
+        return TodoStamp.of(byId.values());
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (enabled) {
+            Gauge.builder("todo.replica.size", this, TodoReplica::size)
+                    .description("Todos held in the in-memory replica")
+                    .register(registry);
+        }
+    }
+}
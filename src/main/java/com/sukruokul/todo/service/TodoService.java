@@ -1,37 +1,108 @@
 package com.sukruokul.todo.service;
 
+import com.sukruokul.todo.dto.BulkTodoOperationDTO;
+import com.sukruokul.todo.dto.BulkTodoResultDTO;
+import com.sukruokul.todo.dto.TodoPageDTO;
+import com.sukruokul.todo.dto.TodoSearchPageDTO;
 import com.sukruokul.todo.model.Todo;
-import com.sukruokul.todo.repository.jpa.TodoRepository;
-import com.sukruokul.todo.repository.mongo.TodoMongoRepository;
+import com.sukruokul.todo.model.TodoCursor;
+import com.sukruokul.todo.model.TodoFilter;
+import com.sukruokul.todo.model.TodoPatch;
+import com.sukruokul.todo.model.TodoStamp;
+import com.sukruokul.todo.search.TodoSearchIndex;
+import com.sukruokul.todo.store.TodoStore;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 @Service
 @RequiredArgsConstructor
 public class TodoService {
 
-    private final TodoRepository todoSqliteRepository;
-    private final TodoMongoRepository todoMongoRepository;
+    private final TodoStore todoStore;
+    private final TodoCache todoCache;
+    private final TodoReplica todoReplica;
+    private final TodoVersions todoVersions;
+    private final TodoEventBus todoEventBus;
+    private final TodoSearchIndex todoSearchIndex;
 
     public List<Todo> findAll() {
-        List<Todo> todos = new ArrayList<>();
-        todos.addAll(todoSqliteRepository.findAll());
-        todos.addAll(todoMongoRepository.findAll());
-        return todos.stream().collect(Collectors.toMap(Todo::getId, todo -> todo, (existing, replacement) -> existing))
-                .values().stream().collect(Collectors.toList());
+        if (todoReplica.isServing()) {
+            return todoReplica.findAll();
+        }
+        return todoStore.findAll();
+    }
+
+    /**
+     * Returns up to {@code size} todos matching {@code filter} after {@code cursor}, reading at
+     * most one chunk of {@code size} from each store.
+     */
+    public TodoPageDTO findPage(TodoFilter filter, String cursor, int size) {
+        TodoCursor after = cursor == null || cursor.isBlank() ? null : TodoCursor.decode(cursor);
+        Iterator<Todo> merged = todoReplica.isServing() ? todoReplica.iterator(filter, after) : todoStore.iterator(filter, after, size);
+        List<Todo> items = new ArrayList<>(size);
+        while (items.size() < size && merged.hasNext()) {
+            items.add(merged.next());
+        }
+        String nextCursor = merged.hasNext() ? TodoCursor.of(items.get(items.size() - 1)).encode() : null;
+        return new TodoPageDTO(items, nextCursor);
+    }
+
+    /**
+     * Streams every todo matching {@code filter} in createdAt order, fetching {@code chunkSize}
+     * rows per store round-trip.
+     */
+    public Stream<Todo> streamAll(TodoFilter filter, int chunkSize) {
+        Iterator<Todo> todos = todoReplica.isServing() ? todoReplica.iterator(filter, null) : todoStore.iterator(filter, null, chunkSize);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(todos, Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    /**
+     * Streams every archived todo in createdAt order, {@code chunkSize} rows per store round-trip.
+     * Always read from the store: the replica holds live todos only.
+     */
+    public Stream<Todo> streamArchived(int chunkSize) {
+        Iterator<Todo> todos = todoStore.iterator(TodoFilter.ARCHIVED, null, chunkSize);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(todos, Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    public long count(TodoFilter filter) {
+        return todoStore.count(filter);
+    }
+
+    /**
+     * Ranked title search; every term of {@code query} matches as a word prefix.
+     *
+     * @throws IllegalStateException while the search index is still being built
+     */
+    public TodoSearchPageDTO search(String query, int page, int size) {
+        TodoSearchIndex.Result result = todoSearchIndex.search(query, page * size, size);
+        boolean more = (long) (page + 1) * size < result.total();
+        return new TodoSearchPageDTO(result.todos(), result.total(), more ? page + 1 : null);
     }
 
     public Optional<Todo> findById(String id) {
-        Optional<Todo> mongoTodo = todoMongoRepository.findById(id);
-        if (mongoTodo.isPresent()) {
-            return mongoTodo;
+        if (todoReplica.isServing()) {
+            return todoReplica.findById(id);
         }
-        return todoSqliteRepository.findById(id);
+        return todoCache.get(id, todoStore::findById);
     }
 
     public Todo save(Todo todo) {
@@ -39,19 +110,207 @@ public class TodoService {
             todo.generateId(); // Manuel olarak ID üret
         }
 
-        Todo savedMongoTodo = todoMongoRepository.save(todo);
-        Todo savedSqliteTodo = todoSqliteRepository.save(savedMongoTodo);
-        return savedSqliteTodo;
+        Todo saved = writeThrough(todo);
+        todoEventBus.created(saved);
+        return saved;
     }
 
     public Todo update(Todo todo) {
-        Todo updatedMongoTodo = todoMongoRepository.save(todo);
-        Todo updatedSqliteTodo = todoSqliteRepository.save(updatedMongoTodo);
-        return updatedSqliteTodo;
+        Todo saved = writeThrough(todo);
+        todoEventBus.updated(saved);
+        return saved;
+    }
+
+    /**
+     * Applies {@code patch} to the todo if it exists, with one conditional write per store instead
+     * of a read followed by a full rewrite. With {@code ifMatch}, applied only while it still names
+     * the {@link TodoVersions#itemETag(Todo) tag} of the todo as stored, read from the store rather
+     * than the cache; {@code null} means unconditional.
+     *
+     * @return the todo as stored after the update with its new tag; empty if no store has the todo
+     * @throws PreconditionFailedException if the todo changed since the tag was issued
+     */
+    public Optional<VersionedTodo> update(String id, TodoPatch patch, String ifMatch) {
+        return todoVersions.writeIfMatch(id, ifMatch, () -> todoStore.findById(id),
+                () -> patchThrough(id, patch).map(todo -> new VersionedTodo(todo, TodoVersions.itemETag(todo))));
+    }
+
+    /**
+     * Tag of the collection as this instance serves it: from the replica while it serves reads,
+     * otherwise from one aggregate query on the store.
+     */
+    public String listETag() {
+        return TodoVersions.listETag(todoReplica.isServing() ? todoReplica.stamp() : todoStore.stamp());
+    }
+
+    /**
+     * Deletes without reading first.
+     *
+     * @return the number of todos deleted; 0 if no store had it
+     */
+    public long deleteById(String id) {
+        try {
+            long deleted = todoStore.removeById(id);
+            todoReplica.remove(id);
+            todoSearchIndex.removed(id);
+            if (deleted > 0) {
+                todoEventBus.deleted(id);
+            }
+            return deleted;
+        } finally {
+            todoCache.invalidate(id);
+        }
+    }
+
+    /**
+     * Archives up to {@code limit} completed todos last written before {@code updatedBefore}. To
+     * readers this is a delete: the cache, replica and search index drop them and subscribers get
+     * a delete event.
+     *
+     * @return the number of todos archived
+     */
+    public int archiveCompleted(LocalDateTime updatedBefore, int limit) {
+        LocalDateTime deletedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        List<String> ids = todoStore.archiveCompleted(updatedBefore, deletedAt, limit);
+        for (String id : ids) {
+            todoCache.invalidate(id);
+            todoReplica.remove(id);
+            todoSearchIndex.removed(id);
+            todoEventBus.deleted(id);
+        }
+        return ids.size();
     }
 
-    public void deleteById(String id) {
-        todoMongoRepository.deleteById(id);
-        todoSqliteRepository.deleteById(id);
+    /**
+     * Deletes up to {@code limit} todos archived before {@code deletedBefore}; no reader sees them
+     * any more, so nothing else needs to know.
+     *
+     * @return the number of todos deleted
+     */
+    public long purgeArchived(LocalDateTime deletedBefore, int limit) {
+        return todoStore.purgeArchived(deletedBefore, limit);
+    }
+
+    public void compact(int maxPages) {
+        todoStore.compact(maxPages);
+    }
+
+    private Optional<Todo> patchThrough(String id, TodoPatch patch) {
+        LocalDateTime updatedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        try {
+            Optional<Todo> updated = todoStore.updateIfExists(id, patch, updatedAt);
+            if (updated.isPresent()) {
+                todoCache.put(updated.get());
+                todoReplica.apply(updated.get());
+                todoSearchIndex.indexed(updated.get());
+                todoEventBus.updated(updated.get());
+            } else {
+                todoCache.invalidate(id);
+            }
+            return updated;
+        } catch (RuntimeException e) {
+            todoCache.invalidate(id);
+            throw e;
+        }
+    }
+
+    private Todo writeThrough(Todo todo) {
+        todo.touch();
+        try {
+            Todo saved = todoStore.save(todo);
+            todoCache.put(saved);
+            todoReplica.apply(saved);
+            todoSearchIndex.indexed(saved);
+            return saved;
+        } catch (RuntimeException e) {
+            // A half-applied dual write must not leave the previous version cached.
+            todoCache.invalidate(todo.getId());
+            throw e;
+        }
+    }
+
+    /**
+     * Applies a mixed list of operations with one existence lookup and one batched write to the
+     * store (for the dual store: one SQLite transaction and one Mongo bulk write). Operations are
+     * evaluated in order, so a later operation sees the effect of an earlier one on the same id.
+     */
+    public List<BulkTodoResultDTO> bulk(List<BulkTodoOperationDTO> operations) {
+        Set<String> targetIds = operations.stream()
+                .filter(op -> op.getAction() != BulkTodoOperationDTO.Action.CREATE && op.getId() != null)
+                .map(BulkTodoOperationDTO::getId)
+                .collect(Collectors.toSet());
+        Map<String, Todo> state = new HashMap<>();
+        if (!targetIds.isEmpty()) {
+            todoStore.findAllById(targetIds).forEach(todo -> state.put(todo.getId(), todo));
+        }
+        Set<String> existing = new HashSet<>(state.keySet());
+        Set<String> touched = new LinkedHashSet<>();
+
+        List<BulkTodoResultDTO> results = new ArrayList<>(operations.size());
+        for (int i = 0; i < operations.size(); i++) {
+            results.add(apply(i, operations.get(i), state, touched));
+        }
+
+        List<Todo> upserts = touched.stream().map(state::get).filter(Objects::nonNull).toList();
+        upserts.forEach(Todo::touch);
+        List<String> deletes = touched.stream().filter(id -> !state.containsKey(id) && existing.contains(id)).toList();
+        try {
+            todoStore.applyBatch(upserts, deletes);
+            upserts.forEach(todoReplica::apply);
+            deletes.forEach(todoReplica::remove);
+            upserts.forEach(todoSearchIndex::indexed);
+            deletes.forEach(todoSearchIndex::removed);
+            upserts.forEach(todo -> {
+                if (existing.contains(todo.getId())) {
+                    todoEventBus.updated(todo);
+                } else {
+                    todoEventBus.created(todo);
+                }
+            });
+            deletes.forEach(todoEventBus::deleted);
+        } finally {
+            touched.forEach(todoCache::invalidate);
+        }
+        return results;
+    }
+
+    private BulkTodoResultDTO apply(int index, BulkTodoOperationDTO op, Map<String, Todo> state, Set<String> touched) {
+        if (op.getAction() == null) {
+            return new BulkTodoResultDTO(index, op.getId(), 400, "Action is required");
+        }
+        if (op.getAction() != BulkTodoOperationDTO.Action.CREATE && op.getId() == null) {
+            return new BulkTodoResultDTO(index, null, 400, "Id is required");
+        }
+        if (op.getAction() != BulkTodoOperationDTO.Action.DELETE && (op.getTitle() == null || op.getTitle().isBlank())) {
+            return new BulkTodoResultDTO(index, op.getId(), 400, "Title cannot be empty");
+        }
+        switch (op.getAction()) {
+            case CREATE -> {
+                Todo todo = new Todo();
+                todo.setTitle(op.getTitle());
+                todo.setCompleted(op.isCompleted());
+                todo.generateId();
+                state.put(todo.getId(), todo);
+                touched.add(todo.getId());
+                return new BulkTodoResultDTO(index, todo.getId(), 201, null);
+            }
+            case UPDATE -> {
+                Todo todo = state.get(op.getId());
+                if (todo == null) {
+                    return new BulkTodoResultDTO(index, op.getId(), 404, "Todo not found");
+                }
+                todo.setTitle(op.getTitle());
+                todo.setCompleted(op.isCompleted());
+                touched.add(todo.getId());
+                return new BulkTodoResultDTO(index, todo.getId(), 200, null);
+            }
+            default -> {
+                if (state.remove(op.getId()) == null) {
+                    return new BulkTodoResultDTO(index, op.getId(), 404, "Todo not found");
+                }
+                touched.add(op.getId());
+                return new BulkTodoResultDTO(index, op.getId(), 204, null);
+            }
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,94 @@
+package com.sukruokul.todo.service;
+
+import com.sukruokul.todo.model.Todo;
+import com.sukruokul.todo.model.TodoStamp;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * HTTP ETags derived from the stored todos themselves, so every instance hands out the same tag
+ * for the same data and a tag names exactly one version: an item tag from the todo's fields, a
+ * list tag from the store's {@link TodoStamp}. Nothing is kept in memory; conditional requests
+ * cost the same read as the plain one, or one aggregate query for lists, and save encoding and
+ * transfer.
+ * <p>
+ * Conditional writes check {@code If-Match} against a fresh read from the store and write under
+ * a per-id lock. The lock is local, so a write through another instance between the check and
+ * the write still goes through; the tag of the response then names whichever write landed last.
+ */
+@Component
+public class TodoVersions {
+
+    private static final int LOCK_STRIPES = 64;
+
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+
+    public TodoVersions() {
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Weak tag of the whole collection; lists are equivalent, not byte-identical, across
+     * encodings such as gzip.
+     */
+    public static String listETag(TodoStamp stamp) {
+        return "W/\"" + Long.toString(stamp.count(), 36) + "-" + Long.toString(stamp.lastUpdatedMillis(), 36) + "\"";
+    }
+
+    /**
+     * Strong tag of one stored version of a todo, usable in {@code If-Match}: its
+     * {@code updatedAt}, set by every write, and a hash of the fields a write can change.
+     */
+    public static String itemETag(Todo todo) {
+        int fields = Objects.hash(todo.getId(), todo.getTitle(), todo.isCompleted(), todo.getCreatedAt(), todo.getDeletedAt());
+        return "\"" + Long.toString(millis(todo.getUpdatedAt()), 36) + "-" + Integer.toUnsignedString(fields, 36) + "\"";
+    }
+
+    /**
+     * Runs {@code write} while holding the lock of {@code id}, after checking {@code ifMatch}
+     * against the tag of the todo {@code current} reads; a {@code null} header always matches,
+     * without the read. A todo that no longer exists is left to {@code write} to report.
+     *
+     * @throws PreconditionFailedException if {@code ifMatch} names no current tag
+     */
+    public <T> T writeIfMatch(String id, String ifMatch, Supplier<Optional<Todo>> current, Supplier<T> write) {
+        ReentrantLock lock = locks[Math.floorMod(id.hashCode(), LOCK_STRIPES)];
+        lock.lock();
+        try {
+            if (ifMatch != null) {
+                Optional<String> eTag = current.get().map(TodoVersions::itemETag);
+                if (eTag.isPresent() && !matches(ifMatch, eTag.get())) {
+                    throw new PreconditionFailedException("Todo " + id + " has changed since " + ifMatch, eTag.get());
+                }
+            }
+            return write.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Strong comparison of an {@code If-Match} header (a tag list or {@code *}) with {@code eTag}.
+     */
+    static boolean matches(String ifMatch, String eTag) {
+        for (String candidate : ifMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || tag.equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long millis(LocalDateTime time) {
+        return time == null ? 0 : time.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+}
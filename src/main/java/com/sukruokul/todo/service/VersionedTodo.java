@@ -0,0 +1,9 @@
+package com.sukruokul.todo.service;
+
+import com.sukruokul.todo.model.Todo;
+
+/**
+ * A todo together with the ETag of exactly that version.
+ */
+public record VersionedTodo(Todo todo, String eTag) {
+}
@@ -0,0 +1,328 @@
+package com.sukruokul.todo.store;
+
+import com.sukruokul.todo.model.Todo;
+import com.sukruokul.todo.model.TodoCursor;
+import com.sukruokul.todo.model.TodoFilter;
+import com.sukruokul.todo.model.TodoPatch;
+import com.sukruokul.todo.model.TodoStamp;
+import com.sukruokul.todo.repository.jpa.TodoRepository;
+import com.sukruokul.todo.repository.mongo.TodoMongoRepository;
+import com.sukruokul.todo.service.KeysetMergeIterator;
+import com.sukruokul.todo.service.StoreReadExecutor;
+import com.sukruokul.todo.service.TodoMetrics;
+import com.sukruokul.todo.service.TodoOutbox;
+import com.sukruokul.todo.service.TodoReconciler;
+import lombok.RequiredArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Mongo and SQLite together. With {@code todo.write.mode=sync} writes go to Mongo and are
+ * mirrored to SQLite inline; with {@code outbox} they commit to SQLite and {@link TodoOutbox}
+ * mirrors them. Reads merge both stores unless {@link TodoReconciler} repairs divergence in the
+ * background, in which case the primary store alone is read. Archived todos are purged from
+ * SQLite by {@link #purgeArchived} and expire from Mongo through its TTL index.
+ */
+@RequiredArgsConstructor
+public class DualTodoStore implements TodoStore {
+
+    private final TodoRepository todoSqliteRepository;
+    private final TodoMongoRepository todoMongoRepository;
+    private final TodoOutbox todoOutbox;
+    private final StoreReadExecutor readExecutor;
+    private final TodoMetrics todoMetrics;
+    private final TodoReconciler todoReconciler;
+
+    @Override
+    public boolean spansMongoAndSqlite() {
+        return true;
+    }
+
+    /**
+     * In outbox mode a todo only Mongo has is left out while an outbox entry for it is pending:
+     * SQLite has already deleted or archived it and Mongo has not caught up.
+     */
+    @Override
+    public List<Todo> findAll() {
+        if (todoReconciler.isEnabled()) {
+            // Divergence is repaired in the background, so the primary store alone is enough.
+            return todoOutbox.isEnabled() ? todoSqliteRepository.findByDeletedAtIsNull() : todoMongoRepository.findByDeletedAtIsNull();
+        }
+        CompletableFuture<List<Todo>> sqliteTodos = readExecutor.submit(todoSqliteRepository::findByDeletedAtIsNull);
+        List<Todo> mongoTodos = todoMongoRepository.findByDeletedAtIsNull();
+        Map<String, Todo> todos = new LinkedHashMap<>();
+        StoreReadExecutor.await(sqliteTodos).forEach(todo -> todos.putIfAbsent(todo.getId(), todo));
+        Set<String> pending = pendingInOutbox();
+        int duplicates = 0;
+        for (Todo todo : mongoTodos) {
+            if (todos.containsKey(todo.getId())) {
+                duplicates++;
+            } else if (!pending.contains(todo.getId())) {
+                todos.put(todo.getId(), todo);
+            }
+        }
+        todoMetrics.mergeDuplicates(duplicates);
+        return new ArrayList<>(todos.values());
+    }
+
+    /**
+     * The same merge as {@link #findAll()}, over ids alone.
+     */
+    @Override
+    public List<String> findLiveIds() {
+        if (todoReconciler.isEnabled()) {
+            return todoOutbox.isEnabled() ? todoSqliteRepository.findLiveIds() : todoMongoRepository.findLiveIds();
+        }
+        CompletableFuture<List<String>> sqliteIds = readExecutor.submit(todoSqliteRepository::findLiveIds);
+        List<String> mongoIds = todoMongoRepository.findLiveIds();
+        Set<String> ids = new LinkedHashSet<>(StoreReadExecutor.await(sqliteIds));
+        Set<String> pending = pendingInOutbox();
+        mongoIds.stream().filter(id -> !pending.contains(id)).forEach(ids::add);
+        return new ArrayList<>(ids);
+    }
+
+    /**
+     * Read from Mongo, the store every instance's writes reach. In outbox mode todos with a
+     * pending outbox entry are left out: Mongo's copy of them is older than SQLite's.
+     */
+    @Override
+    public List<Todo> findWrittenAfter(LocalDateTime since) {
+        List<Todo> written = todoMongoRepository.findByUpdatedAtGreaterThan(since);
+        Set<String> pending = pendingInOutbox();
+        return pending.isEmpty() ? written : written.stream().filter(todo -> !pending.contains(todo.getId())).toList();
+    }
+
+    private Set<String> pendingInOutbox() {
+        return todoOutbox.isEnabled() ? todoOutbox.pendingIds() : Set.of();
+    }
+
+    /**
+     * The primary store's copy wins, archived or not: Mongo's in sync mode, SQLite's in outbox
+     * mode, where Mongo trails SQLite until the drain catches up. The other store is only asked
+     * about todos the primary does not have; in outbox mode not about one with an outbox entry
+     * still pending, which is a delete Mongo has not seen yet.
+     */
+    @Override
+    public Optional<Todo> findById(String id) {
+        boolean sqlitePrimary = todoOutbox.isEnabled();
+        Supplier<Optional<Todo>> primary = sqlitePrimary ? () -> todoSqliteRepository.findById(id) : () -> todoMongoRepository.findById(id);
+        Supplier<Optional<Todo>> secondary = sqlitePrimary ? () -> todoMongoRepository.findById(id) : () -> todoSqliteRepository.findById(id);
+        if (readExecutor.isParallel()) {
+            CompletableFuture<Optional<Todo>> secondaryTodo = readExecutor.submit(secondary);
+            Optional<Todo> primaryTodo;
+            try {
+                primaryTodo = primary.get();
+            } catch (RuntimeException e) {
+                secondaryTodo.cancel(false);
+                throw e;
+            }
+            if (primaryTodo.isPresent()) {
+                secondaryTodo.cancel(false);
+                return live(primaryTodo);
+            }
+            return live(fallback(id, () -> StoreReadExecutor.await(secondaryTodo)));
+        }
+        Optional<Todo> primaryTodo = primary.get();
+        if (primaryTodo.isPresent()) {
+            return live(primaryTodo);
+        }
+        return live(fallback(id, secondary));
+    }
+
+    private Optional<Todo> fallback(String id, Supplier<Optional<Todo>> secondary) {
+        if (todoOutbox.isEnabled()) {
+            return todoOutbox.isPending(id) ? Optional.empty() : secondary.get();
+        }
+        Optional<Todo> sqliteTodo = secondary.get();
+        if (sqliteTodo.isPresent()) {
+            todoMetrics.sqliteFallback();
+        }
+        return sqliteTodo;
+    }
+
+    private static Optional<Todo> live(Optional<Todo> todo) {
+        return todo.filter(found -> !found.isArchived());
+    }
+
+    /**
+     * The primary store's copies win, as in {@link #findById}.
+     */
+    @Override
+    public List<Todo> findAllById(Collection<String> ids) {
+        Map<String, Todo> todos = new LinkedHashMap<>();
+        if (todoOutbox.isEnabled()) {
+            todoSqliteRepository.findAllById(ids).forEach(todo -> todos.put(todo.getId(), todo));
+            List<String> missing = ids.stream().filter(id -> !todos.containsKey(id)).toList();
+            if (!missing.isEmpty()) {
+                Set<String> pending = todoOutbox.pendingIds(missing);
+                todoMongoRepository.findAllById(missing).forEach(todo -> {
+                    if (!pending.contains(todo.getId())) {
+                        todos.put(todo.getId(), todo);
+                    }
+                });
+            }
+        } else {
+            todoMongoRepository.findAllById(ids).forEach(todo -> todos.put(todo.getId(), todo));
+            todoSqliteRepository.findAllById(ids).forEach(todo -> todos.putIfAbsent(todo.getId(), todo));
+        }
+        return todos.values().stream().filter(todo -> !todo.isArchived()).toList();
+    }
+
+    @Override
+    public List<Todo> findFiltered(TodoFilter filter, TodoCursor after, int limit) {
+        List<Todo> page = new ArrayList<>(limit);
+        Iterator<Todo> merged = iterator(filter, after, limit);
+        while (page.size() < limit && merged.hasNext()) {
+            page.add(merged.next());
+        }
+        return page;
+    }
+
+    /**
+     * Merges both stores, reading at most one chunk of {@code chunkSize} from each at a time.
+     */
+    @Override
+    public Iterator<Todo> iterator(TodoFilter filter, TodoCursor after, int chunkSize) {
+        return new KeysetMergeIterator(
+                (position, limit) -> todoSqliteRepository.findFiltered(filter, position, limit),
+                (position, limit) -> todoMongoRepository.findFiltered(filter, position, limit),
+                after, chunkSize, filter.order());
+    }
+
+    /**
+     * Counts in the primary store, as in {@link #findById}: Mongo in sync mode, where a failed
+     * mirror write leaves SQLite short, SQLite in outbox mode, where Mongo trails the drain. A
+     * single indexed query rather than a cross-store id union.
+     */
+    @Override
+    public long count(TodoFilter filter) {
+        return todoOutbox.isEnabled() ? todoSqliteRepository.countFiltered(filter) : todoMongoRepository.countFiltered(filter);
+    }
+
+    /**
+     * Stamps what {@link #findAll()} reads: the primary store while the reconciler runs, otherwise
+     * both stores, so writes other instances made to Mongo alone change the tag in outbox mode too.
+     * A todo held by both is counted twice, which only has to be stable, not exact.
+     */
+    @Override
+    public TodoStamp stamp() {
+        if (todoReconciler.isEnabled()) {
+            return todoOutbox.isEnabled() ? todoSqliteRepository.stamp() : todoMongoRepository.stamp();
+        }
+        CompletableFuture<TodoStamp> sqliteStamp = readExecutor.submit(todoSqliteRepository::stamp);
+        TodoStamp mongoStamp = todoMongoRepository.stamp();
+        return StoreReadExecutor.await(sqliteStamp).plus(mongoStamp);
+    }
+
+    @Override
+    public Todo save(Todo todo) {
+        if (todoOutbox.isEnabled()) {
+            return todoOutbox.save(todo);
+        }
+        Todo savedMongoTodo = todoMongoRepository.save(todo);
+        return mirrorToSqlite("save", () -> todoSqliteRepository.save(savedMongoTodo));
+    }
+
+    @Override
+    public Optional<Todo> updateIfExists(String id, TodoPatch patch, LocalDateTime updatedAt) {
+        if (todoOutbox.isEnabled()) {
+            return todoOutbox.updateIfExists(id, patch, updatedAt);
+        }
+        Optional<Todo> updated = todoMongoRepository.updateIfExists(id, patch, updatedAt);
+        if (updated.isPresent()) {
+            Todo mongoTodo = updated.get();
+            mirrorToSqlite("update", () -> {
+                if (todoSqliteRepository.updateIfExists(id, patch, updatedAt) == 0) {
+                    todoSqliteRepository.save(mongoTodo);
+                }
+            });
+        } else if (todoSqliteRepository.updateIfExists(id, patch, updatedAt) > 0) {
+            // Only SQLite had it, after a half-applied earlier write; put it back into Mongo.
+            updated = todoSqliteRepository.findById(id);
+            updated.ifPresent(todoMongoRepository::save);
+        }
+        return updated;
+    }
+
+    @Override
+    public long removeById(String id) {
+        if (todoOutbox.isEnabled()) {
+            return todoOutbox.removeById(id);
+        }
+        long mongoDeleted = todoMongoRepository.removeById(id);
+        long sqliteDeleted = mirrorToSqlite("delete", () -> (long) todoSqliteRepository.removeById(id));
+        // A half-applied earlier write can leave the todo in one store only.
+        return Math.max(mongoDeleted, sqliteDeleted);
+    }
+
+    @Override
+    public void applyBatch(Collection<Todo> upserts, Collection<String> deletes) {
+        if (todoOutbox.isEnabled()) {
+            todoOutbox.applyBatch(upserts, deletes);
+        } else {
+            todoMongoRepository.applyBatch(upserts, deletes);
+            mirrorToSqlite("bulk", () -> todoSqliteRepository.applyBatch(upserts, deletes));
+        }
+    }
+
+    /**
+     * Candidates come from SQLite, the store {@link #purgeArchived} deletes from, and are archived
+     * in Mongo as well where Mongo's copy is still archivable. In sync mode the rest of the batch
+     * goes to todos only Mongo still has live, after a failed mirror write, so both stores'
+     * completed todos leave the merged reads.
+     */
+    @Override
+    public List<String> archiveCompleted(LocalDateTime updatedBefore, LocalDateTime deletedAt, int limit) {
+        if (todoOutbox.isEnabled()) {
+            return todoOutbox.archiveCompleted(updatedBefore, deletedAt, limit);
+        }
+        List<String> ids = new ArrayList<>(todoSqliteRepository.archiveCompleted(updatedBefore, deletedAt, limit));
+        todoMongoRepository.archiveCompleted(ids, updatedBefore, deletedAt);
+        if (ids.size() < limit) {
+            List<String> mongoOnly = todoMongoRepository.archiveCompleted(updatedBefore, deletedAt, limit - ids.size());
+            mirrorToSqlite("archive", () -> todoSqliteRepository.markArchived(mongoOnly, deletedAt));
+            ids.addAll(mongoOnly);
+        }
+        return ids;
+    }
+
+    /**
+     * Purges SQLite only; Mongo's TTL index expires the same todos on its own.
+     */
+    @Override
+    public long purgeArchived(LocalDateTime deletedBefore, int limit) {
+        return todoSqliteRepository.purgeArchived(deletedBefore, limit);
+    }
+
+    @Override
+    public void compact(int maxPages) {
+        todoSqliteRepository.incrementalVacuum(maxPages);
+    }
+
+    private <T> T mirrorToSqlite(String operation, Supplier<T> write) {
+        try {
+            return write.get();
+        } catch (RuntimeException e) {
+            todoMetrics.partialWriteFailure(operation);
+            throw e;
+        }
+    }
+
+    private void mirrorToSqlite(String operation, Runnable write) {
+        mirrorToSqlite(operation, () -> {
+            write.run();
+            return null;
+        });
+    }
+}
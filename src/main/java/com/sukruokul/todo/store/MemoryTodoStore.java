@@ -0,0 +1,220 @@
+package com.sukruokul.todo.store;
+
+import com.sukruokul.todo.model.Todo;
+import com.sukruokul.todo.model.TodoCursor;
+import com.sukruokul.todo.model.TodoFilter;
+import com.sukruokul.todo.model.TodoPatch;
+import com.sukruokul.todo.model.TodoStamp;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+
+/**
+ * Process-local store for edge nodes and tests; contents are lost on restart. Todos are held by
+ * id in a {@link ConcurrentHashMap} and indexed by (createdAt, id) in a
+ * {@link ConcurrentSkipListMap}, so reads, pages and counts never take a lock. Writes to one id
+ * are serialized by the id map's {@code compute}, which also keeps the index in step with it;
+ * writes to different ids do not contend. Archived todos move to an index of their own, so live
+ * reads and counts never step over them, and completed live todos are also indexed by
+ * (updatedAt, id), so archival reads the oldest of them without scanning the rest. Callers only
+ * ever see copies.
+ */
+public class MemoryTodoStore implements TodoStore {
+
+    private final ConcurrentHashMap<String, Todo> byId = new ConcurrentHashMap<>();
+    private final NavigableMap<TodoCursor, Todo> sorted = new ConcurrentSkipListMap<>(TodoCursor.KEY_ORDER);
+    private final NavigableMap<TodoCursor, Todo> archived = new ConcurrentSkipListMap<>(TodoCursor.KEY_ORDER);
+    /** Completed live todos keyed by (updatedAt, id), in the shape of a cursor. */
+    private final NavigableMap<TodoCursor, Todo> completed = new ConcurrentSkipListMap<>(TodoCursor.KEY_ORDER);
+
+    @Override
+    public List<Todo> findAll() {
+        return sorted.values().stream().map(Todo::copy).toList();
+    }
+
+    @Override
+    public List<String> findLiveIds() {
+        return List.copyOf(byId.keySet());
+    }
+
+    @Override
+    public List<Todo> findWrittenAfter(LocalDateTime since) {
+        return Stream.concat(sorted.values().stream(), archived.values().stream())
+                .filter(todo -> todo.getUpdatedAt() != null && todo.getUpdatedAt().isAfter(since))
+                .map(Todo::copy)
+                .toList();
+    }
+
+    @Override
+    public Optional<Todo> findById(String id) {
+        return Optional.ofNullable(byId.get(id)).map(Todo::copy);
+    }
+
+    @Override
+    public List<Todo> findAllById(Collection<String> ids) {
+        List<Todo> todos = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            Todo todo = byId.get(id);
+            if (todo != null) {
+                todos.add(todo.copy());
+            }
+        }
+        return todos;
+    }
+
+    @Override
+    public List<Todo> findFiltered(TodoFilter filter, TodoCursor after, int limit) {
+        return matching(filter, after).limit(limit).map(Todo::copy).toList();
+    }
+
+    /**
+     * Walks the index directly; there is no round trip to save by fetching in chunks.
+     */
+    @Override
+    public Iterator<Todo> iterator(TodoFilter filter, TodoCursor after, int chunkSize) {
+        return matching(filter, after).map(Todo::copy).iterator();
+    }
+
+    @Override
+    public long count(TodoFilter filter) {
+        return filter.isUnfiltered() ? byId.size() : matching(filter, null).count();
+    }
+
+    @Override
+    public TodoStamp stamp() {
+        return TodoStamp.of(sorted.values());
+    }
+
+    @Override
+    public Todo save(Todo todo) {
+        Todo copy = todo.copy();
+        byId.compute(copy.getId(), (id, current) -> {
+            if (current != null) {
+                sorted.remove(TodoCursor.of(current));
+                completed.remove(completedKey(current));
+            }
+            sorted.put(TodoCursor.of(copy), copy);
+            indexCompleted(copy);
+            return copy;
+        });
+        return copy.copy();
+    }
+
+    @Override
+    public Optional<Todo> updateIfExists(String id, TodoPatch patch, LocalDateTime updatedAt) {
+        Todo updated = byId.computeIfPresent(id, (key, current) -> {
+            Todo next = current.copy();
+            if (patch.title() != null) {
+                next.setTitle(patch.title());
+            }
+            if (patch.completed() != null) {
+                next.setCompleted(patch.completed());
+            }
+            next.setUpdatedAt(updatedAt);
+            // Same (createdAt, id) key, so the index entry is replaced in place.
+            sorted.put(TodoCursor.of(next), next);
+            completed.remove(completedKey(current));
+            indexCompleted(next);
+            return next;
+        });
+        return Optional.ofNullable(updated).map(Todo::copy);
+    }
+
+    @Override
+    public long removeById(String id) {
+        boolean[] removed = new boolean[1];
+        byId.computeIfPresent(id, (key, current) -> {
+            sorted.remove(TodoCursor.of(current));
+            completed.remove(completedKey(current));
+            removed[0] = true;
+            return null;
+        });
+        return removed[0] ? 1 : 0;
+    }
+
+    /**
+     * Applied one todo at a time; concurrent readers may see part of the batch.
+     */
+    @Override
+    public void applyBatch(Collection<Todo> upserts, Collection<String> deletes) {
+        upserts.forEach(this::save);
+        deletes.forEach(this::removeById);
+    }
+
+    @Override
+    public List<String> archiveCompleted(LocalDateTime updatedBefore, LocalDateTime deletedAt, int limit) {
+        // Keys below (updatedBefore, "") are the todos last written before updatedBefore.
+        List<Todo> candidates = completed.headMap(new TodoCursor(updatedBefore, ""), false).values().stream()
+                .limit(limit)
+                .toList();
+        List<String> ids = new ArrayList<>(candidates.size());
+        for (Todo candidate : candidates) {
+            boolean[] moved = new boolean[1];
+            byId.computeIfPresent(candidate.getId(), (id, current) -> {
+                // Written since the scan.
+                if (!archivable(current, updatedBefore)) {
+                    return current;
+                }
+                Todo next = current.copy();
+                next.setDeletedAt(deletedAt);
+                next.setUpdatedAt(deletedAt);
+                sorted.remove(TodoCursor.of(current));
+                completed.remove(completedKey(current));
+                archived.put(TodoCursor.of(next), next);
+                moved[0] = true;
+                return null;
+            });
+            if (moved[0]) {
+                ids.add(candidate.getId());
+            }
+        }
+        return ids;
+    }
+
+    @Override
+    public long purgeArchived(LocalDateTime deletedBefore, int limit) {
+        List<Todo> expired = archived.values().stream()
+                .filter(todo -> todo.getDeletedAt().isBefore(deletedBefore))
+                .sorted(Comparator.comparing(Todo::getDeletedAt))
+                .limit(limit)
+                .toList();
+        expired.forEach(todo -> archived.remove(TodoCursor.of(todo)));
+        return expired.size();
+    }
+
+    private void indexCompleted(Todo todo) {
+        if (todo.isCompleted() && todo.getUpdatedAt() != null) {
+            completed.put(completedKey(todo), todo);
+        }
+    }
+
+    private static TodoCursor completedKey(Todo todo) {
+        return new TodoCursor(todo.getUpdatedAt(), todo.getId());
+    }
+
+    private static boolean archivable(Todo todo, LocalDateTime updatedBefore) {
+        return todo.isCompleted() && todo.getUpdatedAt() != null && todo.getUpdatedAt().isBefore(updatedBefore);
+    }
+
+    private Stream<Todo> matching(TodoFilter filter, TodoCursor after) {
+        NavigableMap<TodoCursor, Todo> index = filter.archived() ? archived : sorted;
+        NavigableMap<TodoCursor, Todo> view = filter.descending() ? index.descendingMap() : index;
+        if (after != null) {
+            view = view.tailMap(after, false);
+        }
+        Stream<Todo> todos = view.values().stream();
+        if (filter.descending() && filter.createdAfter() != null) {
+            todos = todos.takeWhile(todo -> todo.getCreatedAt() != null && todo.getCreatedAt().isAfter(filter.createdAfter()));
+        }
+        return todos.filter(filter::matches);
+    }
+}
@@ -0,0 +1,97 @@
+package com.sukruokul.todo.store;
+
+import com.sukruokul.todo.model.Todo;
+import com.sukruokul.todo.model.TodoCursor;
+import com.sukruokul.todo.model.TodoFilter;
+import com.sukruokul.todo.model.TodoPatch;
+import com.sukruokul.todo.model.TodoStamp;
+import com.sukruokul.todo.repository.mongo.TodoMongoRepository;
+import lombok.RequiredArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Mongo only; updates stay a single {@code findAndModify}, and archived todos expire through the
+ * TTL index on {@code deletedAt}.
+ */
+@RequiredArgsConstructor
+public class MongoTodoStore implements TodoStore {
+
+    private final TodoMongoRepository todoMongoRepository;
+
+    @Override
+    public List<Todo> findAll() {
+        return todoMongoRepository.findByDeletedAtIsNull();
+    }
+
+    @Override
+    public List<String> findLiveIds() {
+        return todoMongoRepository.findLiveIds();
+    }
+
+    @Override
+    public List<Todo> findWrittenAfter(LocalDateTime since) {
+        return todoMongoRepository.findByUpdatedAtGreaterThan(since);
+    }
+
+    @Override
+    public Optional<Todo> findById(String id) {
+        return todoMongoRepository.findById(id).filter(todo -> !todo.isArchived());
+    }
+
+    @Override
+    public List<Todo> findAllById(Collection<String> ids) {
+        return todoMongoRepository.findAllById(ids).stream().filter(todo -> !todo.isArchived()).toList();
+    }
+
+    @Override
+    public List<Todo> findFiltered(TodoFilter filter, TodoCursor after, int limit) {
+        return todoMongoRepository.findFiltered(filter, after, limit);
+    }
+
+    @Override
+    public long count(TodoFilter filter) {
+        return todoMongoRepository.countFiltered(filter);
+    }
+
+    @Override
+    public TodoStamp stamp() {
+        return todoMongoRepository.stamp();
+    }
+
+    @Override
+    public Todo save(Todo todo) {
+        return todoMongoRepository.save(todo);
+    }
+
+    @Override
+    public Optional<Todo> updateIfExists(String id, TodoPatch patch, LocalDateTime updatedAt) {
+        return todoMongoRepository.updateIfExists(id, patch, updatedAt);
+    }
+
+    @Override
+    public long removeById(String id) {
+        return todoMongoRepository.removeById(id);
+    }
+
+    @Override
+    public void applyBatch(Collection<Todo> upserts, Collection<String> deletes) {
+        todoMongoRepository.applyBatch(upserts, deletes);
+    }
+
+    @Override
+    public List<String> archiveCompleted(LocalDateTime updatedBefore, LocalDateTime deletedAt, int limit) {
+        return todoMongoRepository.archiveCompleted(updatedBefore, deletedAt, limit);
+    }
+
+    /**
+     * Nothing to do: the TTL index on {@code deletedAt} removes archived todos.
+     */
+    @Override
+    public long purgeArchived(LocalDateTime deletedBefore, int limit) {
+        return 0;
+    }
+}
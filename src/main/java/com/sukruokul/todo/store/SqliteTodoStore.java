@@ -0,0 +1,101 @@
+package com.sukruokul.todo.store;
+
+import com.sukruokul.todo.model.Todo;
+import com.sukruokul.todo.model.TodoCursor;
+import com.sukruokul.todo.model.TodoFilter;
+import com.sukruokul.todo.model.TodoPatch;
+import com.sukruokul.todo.model.TodoStamp;
+import com.sukruokul.todo.repository.jpa.TodoRepository;
+import lombok.RequiredArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * SQLite only: one local round trip per operation and no Mongo dependency on the request path.
+ */
+@RequiredArgsConstructor
+public class SqliteTodoStore implements TodoStore {
+
+    private final TodoRepository todoSqliteRepository;
+
+    @Override
+    public List<Todo> findAll() {
+        return todoSqliteRepository.findByDeletedAtIsNull();
+    }
+
+    @Override
+    public List<String> findLiveIds() {
+        return todoSqliteRepository.findLiveIds();
+    }
+
+    @Override
+    public List<Todo> findWrittenAfter(LocalDateTime since) {
+        return todoSqliteRepository.findByUpdatedAtGreaterThan(since);
+    }
+
+    @Override
+    public Optional<Todo> findById(String id) {
+        return todoSqliteRepository.findById(id).filter(todo -> !todo.isArchived());
+    }
+
+    @Override
+    public List<Todo> findAllById(Collection<String> ids) {
+        return todoSqliteRepository.findAllById(ids).stream().filter(todo -> !todo.isArchived()).toList();
+    }
+
+    @Override
+    public List<Todo> findFiltered(TodoFilter filter, TodoCursor after, int limit) {
+        return todoSqliteRepository.findFiltered(filter, after, limit);
+    }
+
+    @Override
+    public long count(TodoFilter filter) {
+        return todoSqliteRepository.countFiltered(filter);
+    }
+
+    @Override
+    public TodoStamp stamp() {
+        return todoSqliteRepository.stamp();
+    }
+
+    @Override
+    public Todo save(Todo todo) {
+        return todoSqliteRepository.save(todo);
+    }
+
+    @Override
+    public Optional<Todo> updateIfExists(String id, TodoPatch patch, LocalDateTime updatedAt) {
+        if (todoSqliteRepository.updateIfExists(id, patch, updatedAt) == 0) {
+            return Optional.empty();
+        }
+        return todoSqliteRepository.findById(id);
+    }
+
+    @Override
+    public long removeById(String id) {
+        return todoSqliteRepository.removeById(id);
+    }
+
+    @Override
+    public void applyBatch(Collection<Todo> upserts, Collection<String> deletes) {
+        todoSqliteRepository.applyBatch(upserts, deletes);
+    }
+
+    @Override
+    public List<String> archiveCompleted(LocalDateTime updatedBefore, LocalDateTime deletedAt, int limit) {
+        return todoSqliteRepository.archiveCompleted(updatedBefore, deletedAt, limit);
+    }
+
+    @Override
+    public long purgeArchived(LocalDateTime deletedBefore, int limit) {
+        return todoSqliteRepository.purgeArchived(deletedBefore, limit);
+    }
+
+    @Override
+    public void compact(int maxPages) {
+        todoSqliteRepository.incrementalVacuum(maxPages);
+    }
+}
@@ -0,0 +1,117 @@
+package com.sukruokul.todo.store;
+
+import com.sukruokul.todo.model.Todo;
+import com.sukruokul.todo.model.TodoCursor;
+import com.sukruokul.todo.model.TodoFilter;
+import com.sukruokul.todo.model.TodoPatch;
+import com.sukruokul.todo.model.TodoStamp;
+import com.sukruokul.todo.service.KeysetMergeIterator;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Where {@code TodoService} keeps todos, selected with {@code todo.store.backend}: {@code dual}
+ * (Mongo and SQLite, the default), {@code sqlite}, {@code mongo} or {@code memory}. Caching,
+ * ETags and change events stay in the service, so every backend gets them; the tags are derived
+ * from what the store returns, see {@link #stamp()}.
+ * <p>
+ * Archived todos stay in the store until they are purged, but only a {@link TodoFilter#archived()}
+ * filter reads them; every other read and write acts on live todos alone.
+ */
+public interface TodoStore {
+
+    List<Todo> findAll();
+
+    /**
+     * Ids of the todos {@link #findAll()} returns, without loading the todos.
+     */
+    List<String> findLiveIds();
+
+    /**
+     * Todos written after {@code since}, archived ones included, so a follower polling for changes
+     * sees archival as well as writes.
+     */
+    List<Todo> findWrittenAfter(LocalDateTime since);
+
+    Optional<Todo> findById(String id);
+
+    List<Todo> findAllById(Collection<String> ids);
+
+    /**
+     * Keyset page of todos matching {@code filter}, strictly after {@code after} (or from the
+     * start when {@code null}) in the filter's createdAt direction.
+     */
+    List<Todo> findFiltered(TodoFilter filter, TodoCursor after, int limit);
+
+    /**
+     * Todos matching {@code filter} after {@code after} in the filter's order, fetched
+     * {@code chunkSize} at a time.
+     */
+    default Iterator<Todo> iterator(TodoFilter filter, TodoCursor after, int chunkSize) {
+        return new KeysetMergeIterator((position, limit) -> findFiltered(filter, position, limit),
+                (position, limit) -> List.of(), after, chunkSize, filter.order());
+    }
+
+    long count(TodoFilter filter);
+
+    /**
+     * Count and latest {@code updatedAt} of the todos {@link #findAll()} returns, in one aggregate
+     * query; the list ETag is derived from it.
+     */
+    TodoStamp stamp();
+
+    Todo save(Todo todo);
+
+    /**
+     * Applies {@code patch} without reading the todo first.
+     *
+     * @return the todo as stored after the update, or empty if there is no todo with {@code id}
+     */
+    Optional<Todo> updateIfExists(String id, TodoPatch patch, LocalDateTime updatedAt);
+
+    /**
+     * @return the number of todos deleted, 0 if there is no todo with {@code id}
+     */
+    long removeById(String id);
+
+    /**
+     * Applies all upserts and deletes as one batch.
+     */
+    void applyBatch(Collection<Todo> upserts, Collection<String> deletes);
+
+    /**
+     * Archives up to {@code limit} completed todos last written before {@code updatedBefore},
+     * oldest first, setting their {@code deletedAt} and {@code updatedAt} to {@code deletedAt}.
+     *
+     * @return ids of the todos archived
+     */
+    List<String> archiveCompleted(LocalDateTime updatedBefore, LocalDateTime deletedAt, int limit);
+
+    /**
+     * Deletes up to {@code limit} todos archived before {@code deletedBefore}. A store that
+     * expires archived todos by itself, as Mongo does with its TTL index, deletes nothing here.
+     *
+     * @return the number of todos deleted
+     */
+    long purgeArchived(LocalDateTime deletedBefore, int limit);
+
+    /**
+     * True when every todo lives in Mongo and SQLite both, as with {@code dual}. Only then does
+     * {@code ReactiveTodoService} read and write the two stores itself, over the reactive Mongo
+     * driver; any other store is reached through {@code TodoService}.
+     */
+    default boolean spansMongoAndSqlite() {
+        return false;
+    }
+
+    /**
+     * Gives space freed by purges back to the file system, at most {@code maxPages} pages of it,
+     * where the store needs to be told to.
+     */
+    default void compact(int maxPages) {
+    }
+}
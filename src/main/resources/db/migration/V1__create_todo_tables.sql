@@ -0,0 +1,9 @@
+-- Schema as ddl-auto=update created it before migrations. Databases that predate migrations are
+-- baselined below this version (spring.flyway.baseline-on-migrate), so this runs on them too and
+-- only adds what they lack; migration 1.1 (TodoUpdatedAtMigration) adds updated_at to older tables.
+create table if not exists todo (id varchar(255) not null, completed boolean not null, created_at timestamp, title varchar(255), updated_at timestamp, primary key (id));
+create index if not exists idx_todo_created_at_id on todo (created_at, id);
+create index if not exists idx_todo_completed_created_at on todo (completed, created_at);
+create index if not exists idx_todo_title on todo (title);
+
+create table if not exists todo_outbox (id integer, created_at timestamp, operation varchar(255) not null check (operation in ('UPSERT','DELETE')), todo_id varchar(255) not null, primary key (id));
@@ -0,0 +1,4 @@
+-- Soft delete: archived todos keep the time they were archived until the archive job purges them.
+alter table todo add column deleted_at timestamp;
+create index idx_todo_completed_updated_at on todo (completed, updated_at);
+create index idx_todo_deleted_at on todo (deleted_at);
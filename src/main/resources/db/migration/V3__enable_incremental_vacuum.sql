@@ -0,0 +1,6 @@
+-- Lets the archive job hand pages freed by purges back to the file system a bounded number at a
+-- time (PRAGMA incremental_vacuum) rather than the file only ever growing. Switching an existing
+-- database over takes one full VACUUM, which rewrites the file and cannot run in a transaction;
+-- it may renumber rowids, which the FTS5 search index repairs at startup.
+PRAGMA auto_vacuum = INCREMENTAL;
+VACUUM;
@@ -0,0 +1,112 @@
+package com.sukruokul.todo;
+
+import com.sukruokul.todo.model.Todo;
+import com.sukruokul.todo.repository.jpa.TodoRepository;
+import com.sukruokul.todo.search.Fts5TodoSearchIndex;
+import com.sukruokul.todo.search.InvertedTodoIndex;
+import com.sukruokul.todo.search.TodoSearchIndex;
+import com.sukruokul.todo.store.MemoryTodoStore;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static com.sukruokul.todo.TodoFixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs {@link Fts5TodoSearchIndex} against a real SQLite file, migrated by Flyway as at startup.
+ * Nothing is rolled back, so the triggers see committed writes as they do in the app.
+ * author: sukru.okul
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class Fts5TodoSearchIndexTest {
+
+    @TempDir
+    static Path dataDir;
+
+    @DynamicPropertySource
+    static void sqliteFile(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> "jdbc:sqlite:" + dataDir.resolve("todos.db"));
+    }
+
+    @Configuration
+    @EnableJpaRepositories(basePackageClasses = TodoRepository.class)
+    @EntityScan(basePackageClasses = Todo.class)
+    static class SqliteOnly {
+    }
+
+    @Autowired
+    private TodoRepository todoRepository;
+
+    @Test
+    @DisplayName("Should match every term as a word prefix, rank exact words first like the memory index, and follow writes")
+    void search_MatchesRanksAndFollowsWrites() throws Exception {
+        List<Todo> todos = List.of(
+                todo("a", "Buy milk today", 0),
+                todo("b", "Milkshake", 1),
+                todo("c", "Call the milkman", 2),
+                todo("d", "Pay bills", 3),
+                todo("e", "Walk the dog", 4),
+                todo("f", "Read a book", 5));
+        todoRepository.saveAll(todos);
+        Todo archived = todo("g", "Milk", 6);
+        archived.setDeletedAt(BASE);
+        todoRepository.save(archived);
+        Fts5TodoSearchIndex index = new Fts5TodoSearchIndex(todoRepository);
+        assertThrows(IllegalStateException.class, () -> index.search("milk", 0, 10));
+        index.start();
+
+        TodoSearchIndex.Result milk = index.search("MILK", 0, 10);
+        assertEquals(3, milk.total(), "archived todos are not indexed");
+        assertEquals("a", milk.todos().get(0).getId(), "exact word outranks a shorter title that only starts with it");
+        assertEquals("a", memoryIndexSearch(todos, "milk").get(0));
+        assertEquals(List.of("b"), ids(index.search("milksh", 0, 10)));
+        assertEquals(List.of("a"), ids(index.search("buy mil", 0, 10)));
+        assertEquals(0, index.search("buy bills", 0, 10).total());
+        assertEquals(0, index.search("\" OR *", 0, 10).total());
+
+        TodoSearchIndex.Result second = index.search("milk", 1, 1);
+        assertEquals(3, second.total());
+        assertEquals(1, second.todos().size());
+        assertNotEquals("a", second.todos().get(0).getId());
+
+        todoRepository.save(todo("h", "Oat milk", 7));
+        Todo renamed = todoRepository.findById("d").orElseThrow();
+        renamed.setTitle("Pay çalışma bills");
+        todoRepository.save(renamed);
+        assertEquals(List.of("h"), ids(index.search("oat", 0, 10)));
+        assertEquals(List.of("d"), ids(index.search("calis", 0, 10)));
+        todoRepository.deleteById("h");
+        assertEquals(0, index.search("oat", 0, 10).total());
+    }
+
+    private static List<String> memoryIndexSearch(List<Todo> todos, String query) throws InterruptedException {
+        MemoryTodoStore store = new MemoryTodoStore();
+        todos.forEach(store::save);
+        InvertedTodoIndex index = new InvertedTodoIndex(store, 100);
+        try {
+            index.start();
+            for (int i = 0; i < 100 && !index.isReady(); i++) {
+                Thread.sleep(20);
+            }
+            return ids(index.search(query, 0, 10));
+        } finally {
+            index.stop();
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.sukruokul.todo;
+
+import com.sukruokul.todo.model.Todo;
+import com.sukruokul.todo.search.InvertedTodoIndex;
+import com.sukruokul.todo.search.TodoSearchIndex;
+import com.sukruokul.todo.search.TodoTokenizer;
+import com.sukruokul.todo.store.MemoryTodoStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static com.sukruokul.todo.TodoFixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * author: sukru.okul
+ */
+class InvertedTodoIndexTest {
+
+    private final MemoryTodoStore store = new MemoryTodoStore();
+    private final InvertedTodoIndex index = new InvertedTodoIndex(store, 2);
+
+    @AfterEach
+    void tearDown() {
+        index.stop();
+    }
+
+    @Test
+    @DisplayName("Should build from the store at startup and match every query term as a word prefix")
+    void search_PrefixTermsRankedAndPaged() throws Exception {
+        store.save(todo("a", "Buy milk", 0));
+        store.save(todo("b", "Buy milkshake powder", 1));
+        store.save(todo("c", "Call the milkman", 2));
+        store.save(todo("d", "Pay bills", 3));
+        assertThrows(IllegalStateException.class, () -> index.search("milk", 0, 10));
+        awaitReady();
+
+        TodoSearchIndex.Result milk = index.search("MILK", 0, 10);
+        assertEquals(3, milk.total());
+        assertEquals("a", milk.todos().get(0).getId(), "exact term outranks prefix matches");
+
+        assertEquals(List.of("b"), ids(index.search("buy powd", 0, 10)));
+        assertEquals(0, index.search("buy bills", 0, 10).total());
+
+        TodoSearchIndex.Result second = index.search("milk", 1, 1);
+        assertEquals(3, second.total());
+        assertEquals(1, second.todos().size());
+        assertNotEquals("a", second.todos().get(0).getId());
+    }
+
+    @Test
+    @DisplayName("Should follow title changes and deletes, and not let the startup build revive a deleted todo")
+    void writes_UpdateIndex() throws Exception {
+        store.save(todo("a", "Write report", 0));
+        index.start();
+        // Still in the store the build reads from, as with a delete racing the build.
+        index.removed("a");
+        awaitReady();
+        assertEquals(0, index.search("report", 0, 10).total());
+
+        Todo renamed = todo("b", "Write report", 1);
+        written(renamed);
+        Todo newer = renamed.copy();
+        newer.setTitle("Review slides");
+        newer.setUpdatedAt(BASE.plusDays(1));
+        written(newer);
+        index.indexed(renamed);
+
+        assertEquals(0, index.search("report", 0, 10).total(), "older version must not replace the newer one");
+        assertEquals(List.of("b"), ids(index.search("slid", 0, 10)));
+        store.removeById("b");
+        index.removed("b");
+        assertEquals(0, index.search("review", 0, 10).total());
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    @DisplayName("Should rank the same when every query term is common enough to be intersected as bitsets")
+    void search_CommonTermsIntersected() throws Exception {
+        awaitReady();
+        for (int i = 0; i < 200; i++) {
+            written(todo("t" + i, i % 2 == 0 ? "Weekly task review" : "Weekly tasks", i));
+        }
+        written(todo("short", "Weekly task", 300));
+
+        TodoSearchIndex.Result result = index.search("week task", 0, 3);
+        assertEquals(201, result.total());
+        assertEquals(List.of("short", "t198", "t196"), ids(result), "exact and shorter titles first, then newest");
+        assertEquals(100, index.search("weekly task review", 0, 0).total());
+
+        for (int i = 0; i < 200; i++) {
+            store.removeById("t" + i);
+            index.removed("t" + i);
+        }
+        assertEquals(List.of("short"), ids(index.search("week task", 0, 10)));
+    }
+
+    @Test
+    @DisplayName("Should fold case and diacritics and split on punctuation")
+    void tokenize_FoldsText() {
+        assertEquals(List.of("calisma", "plani", "2024", "calis"), TodoTokenizer.tokenize("Çalışma-planı 2024 ÇALIŞ çalışma"));
+    }
+
+    /**
+     * Writes {@code todo} to the store and then the index, in the order {@code TodoService} does;
+     * search pages are loaded from the store.
+     */
+    private void written(Todo todo) {
+        store.save(todo);
+        index.indexed(todo);
+    }
+
+    private void awaitReady() throws InterruptedException {
+        index.start();
+        for (int i = 0; i < 100 && !index.isReady(); i++) {
+            Thread.sleep(20);
+        }
+        assertTrue(index.isReady());
+    }
+}
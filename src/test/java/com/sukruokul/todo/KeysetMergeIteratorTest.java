@@ -0,0 +1,92 @@
+package com.sukruokul.todo;
+
+import com.sukruokul.todo.model.Todo;
+import com.sukruokul.todo.service.KeysetMergeIterator;
+import com.sukruokul.todo.model.TodoCursor;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * author: sukru.okul
+ */
+class KeysetMergeIteratorTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    private static Todo todo(String id, int minute) {
+        return new Todo(id, "Todo " + id, false, BASE.plusMinutes(minute));
+    }
+
+    private static KeysetMergeIterator.ChunkFetcher store(List<Todo> sorted, AtomicInteger calls) {
+        return (after, limit) -> {
+            calls.incrementAndGet();
+            return sorted.stream()
+                    .filter(t -> after == null || TodoCursor.ORDER.compare(t, new Todo(after.id(), null, false, after.createdAt())) > 0)
+                    .limit(limit)
+                    .toList();
+        };
+    }
+
+    @Test
+    @DisplayName("Should merge both stores in order and emit shared todos once")
+    void merge_OrderedAndDeduplicated() {
+        List<Todo> sqlite = List.of(todo("a", 1), todo("c", 3), todo("d", 4), todo("f", 6));
+        List<Todo> mongo = List.of(todo("b", 2), todo("c", 3), todo("e", 5));
+
+        KeysetMergeIterator iterator = new KeysetMergeIterator(store(sqlite, new AtomicInteger()),
+                store(mongo, new AtomicInteger()), null, 2);
+
+        List<String> ids = new ArrayList<>();
+        iterator.forEachRemaining(t -> ids.add(t.getId()));
+        assertEquals(List.of("a", "b", "c", "d", "e", "f"), ids);
+    }
+
+    @Test
+    @DisplayName("Should emit a shared todo once when its copies differ below a millisecond")
+    void merge_SubMillisecondCopiesDeduplicated() {
+        Todo precise = todo("b", 2);
+        precise.setCreatedAt(precise.getCreatedAt().plusNanos(400_000));
+        List<Todo> sqlite = List.of(todo("a", 1), precise, todo("c", 3));
+        List<Todo> mongo = List.of(todo("b", 2), todo("c", 3));
+
+        KeysetMergeIterator iterator = new KeysetMergeIterator(store(sqlite, new AtomicInteger()),
+                store(mongo, new AtomicInteger()), null, 2);
+
+        List<String> ids = new ArrayList<>();
+        iterator.forEachRemaining(t -> ids.add(t.getId()));
+        assertEquals(List.of("a", "b", "c"), ids);
+    }
+
+    @Test
+    @DisplayName("Should fetch chunks lazily and resume after the cursor")
+    void merge_LazyFromCursor() {
+        List<Todo> sqlite = List.of(todo("a", 1), todo("b", 2), todo("c", 3), todo("d", 4));
+        AtomicInteger sqliteCalls = new AtomicInteger();
+        AtomicInteger mongoCalls = new AtomicInteger();
+
+        KeysetMergeIterator iterator = new KeysetMergeIterator(store(sqlite, sqliteCalls),
+                store(List.of(), mongoCalls), TodoCursor.of(sqlite.get(0)), 2);
+
+        assertEquals("b", iterator.next().getId());
+        assertEquals(1, sqliteCalls.get());
+        assertEquals("c", iterator.next().getId());
+        assertEquals("d", iterator.next().getId());
+        assertFalse(iterator.hasNext());
+        assertEquals(1, mongoCalls.get());
+    }
+
+    @Test
+    @DisplayName("Should round-trip an encoded cursor and reject garbage")
+    void cursor_RoundTrip() {
+        TodoCursor cursor = TodoCursor.of(todo("x|y", 7));
+        assertEquals(cursor, TodoCursor.decode(cursor.encode()));
+        assertThrows(IllegalArgumentException.class, () -> TodoCursor.decode("not-a-cursor"));
+    }
+}
@@ -0,0 +1,125 @@
+package com.sukruokul.todo;
+
+import com.sukruokul.todo.model.Todo;
+import com.sukruokul.todo.model.TodoCursor;
+import com.sukruokul.todo.model.TodoFilter;
+import com.sukruokul.todo.model.TodoPatch;
+import com.sukruokul.todo.store.MemoryTodoStore;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+import static com.sukruokul.todo.TodoFixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * author: sukru.okul
+ */
+class MemoryTodoStoreTest {
+
+    private final MemoryTodoStore store = new MemoryTodoStore();
+
+    @Test
+    @DisplayName("Should page in createdAt order in both directions and apply filters")
+    void findFiltered_KeysetOrder() {
+        store.applyBatch(List.of(todo("c", 2, true), todo("a", 0, false), todo("b", 1, true)), List.of());
+
+        assertEquals(List.of("a", "b"), ids(store.findFiltered(TodoFilter.NONE, null, 2)));
+        assertEquals(List.of("c"), ids(store.findFiltered(TodoFilter.NONE, TodoCursor.of(todo("b", 1, true)), 2)));
+        TodoFilter completedNewestFirst = new TodoFilter(true, null, null, true);
+        assertEquals(List.of("c", "b"), ids(store.findFiltered(completedNewestFirst, null, 10)));
+        assertEquals(2, store.count(new TodoFilter(true, null, null, false)));
+        assertEquals(List.of("a", "b", "c"), ids(store.findAll()));
+    }
+
+    @Test
+    @DisplayName("Should patch and remove only existing todos and hand out copies")
+    void conditionalWrites() {
+        store.save(todo("a", 0, false));
+        LocalDateTime updatedAt = BASE.plusDays(1);
+
+        Todo patched = store.updateIfExists("a", new TodoPatch(null, true), updatedAt).orElseThrow();
+        assertTrue(patched.isCompleted());
+        assertEquals("Todo a", patched.getTitle());
+        assertEquals(updatedAt, patched.getUpdatedAt());
+        assertTrue(store.updateIfExists("missing", new TodoPatch("x", null), updatedAt).isEmpty());
+
+        patched.setTitle("changed by caller");
+        assertEquals("Todo a", store.findById("a").orElseThrow().getTitle());
+
+        assertEquals(1, store.removeById("a"));
+        assertEquals(0, store.removeById("a"));
+        assertTrue(store.findFiltered(TodoFilter.NONE, null, 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should keep the createdAt index in step with the id map under concurrent writes")
+    void concurrentWrites_IndexStaysConsistent() throws Exception {
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            IntStream.range(0, 2000).forEach(i -> executor.execute(() -> {
+                String id = "t" + (i % 100);
+                switch (i % 3) {
+                    case 0 -> store.save(todo(id, i % 100, false));
+                    case 1 -> store.updateIfExists(id, new TodoPatch(null, true), BASE);
+                    default -> store.removeById(id);
+                }
+            }));
+        }
+
+        List<Todo> ordered = store.findFiltered(TodoFilter.NONE, null, 1000);
+        assertEquals(store.count(TodoFilter.NONE), ordered.size());
+        ordered.forEach(todo -> assertEquals(todo, store.findById(todo.getId()).orElseThrow()));
+    }
+
+    @Test
+    @DisplayName("Should move old completed todos out of every live read into the archive, then purge them after the retention")
+    void archiveAndPurge() {
+        Todo oldDone = todo("a", 0, true);
+        oldDone.setUpdatedAt(BASE);
+        Todo recentDone = todo("b", 1, true);
+        recentDone.setUpdatedAt(BASE.plusDays(10));
+        Todo oldOpen = todo("c", 2, false);
+        oldOpen.setUpdatedAt(BASE);
+        store.applyBatch(List.of(oldDone, recentDone, oldOpen), List.of());
+        LocalDateTime archivedAt = BASE.plusDays(31);
+
+        assertEquals(List.of("a"), store.archiveCompleted(BASE.plusDays(5), archivedAt, 10));
+        assertEquals(List.of("b", "c"), ids(store.findAll()));
+        assertEquals(List.of("b", "c"), ids(store.findFiltered(TodoFilter.NONE, null, 10)));
+        assertEquals(1, store.count(new TodoFilter(true, null, null, false)));
+        assertTrue(store.findById("a").isEmpty());
+        assertTrue(store.updateIfExists("a", new TodoPatch("x", null), archivedAt).isEmpty());
+        assertEquals(0, store.removeById("a"));
+        Todo archived = store.findFiltered(TodoFilter.ARCHIVED, null, 10).get(0);
+        assertEquals(archivedAt, archived.getDeletedAt());
+        assertEquals(archivedAt, archived.getUpdatedAt());
+
+        assertEquals(0, store.purgeArchived(archivedAt, 10));
+        assertEquals(1, store.purgeArchived(archivedAt.plusDays(7), 10));
+        assertEquals(0, store.count(TodoFilter.ARCHIVED));
+    }
+
+    @Test
+    @DisplayName("Should archive the longest finished todos first and follow completions, reopenings and deletes")
+    void archiveCompleted_OldestFirstFollowsWrites() {
+        Todo newer = todo("a", 0, true);
+        newer.setUpdatedAt(BASE.plusDays(2));
+        Todo older = todo("b", 1, true);
+        older.setUpdatedAt(BASE.plusDays(1));
+        store.applyBatch(List.of(newer, older, todo("c", 2, false), todo("d", 3, true), todo("e", 4, true)), List.of());
+        store.updateIfExists("c", new TodoPatch(null, true), BASE);
+        store.updateIfExists("d", new TodoPatch(null, false), BASE);
+        store.removeById("e");
+        LocalDateTime archivedAt = BASE.plusDays(31);
+
+        assertEquals(List.of("c", "b"), store.archiveCompleted(BASE.plusDays(5), archivedAt, 2));
+        assertEquals(List.of("a"), store.archiveCompleted(BASE.plusDays(5), archivedAt, 2));
+        assertEquals(List.of(), store.archiveCompleted(BASE.plusDays(5), archivedAt, 2));
+        assertEquals(List.of("d"), ids(store.findAll()));
+    }
+}
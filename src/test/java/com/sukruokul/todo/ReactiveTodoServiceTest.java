@@ -0,0 +1,142 @@
+package com.sukruokul.todo;
+
+import com.sukruokul.todo.model.Todo;
+import com.sukruokul.todo.model.TodoCursor;
+import com.sukruokul.todo.model.TodoFilter;
+import com.sukruokul.todo.model.TodoPatch;
+import com.sukruokul.todo.repository.jpa.TodoRepository;
+import com.sukruokul.todo.repository.reactive.ReactiveTodoMongoRepository;
+import com.sukruokul.todo.service.ReactiveTodoService;
+import com.sukruokul.todo.service.TodoCache;
+import com.sukruokul.todo.service.TodoEventBus;
+import com.sukruokul.todo.service.TodoMetrics;
+import com.sukruokul.todo.service.TodoOutbox;
+import com.sukruokul.todo.service.TodoService;
+import com.sukruokul.todo.search.TodoSearchIndex;
+import com.sukruokul.todo.store.DualTodoStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * author: sukru.okul
+ */
+@ExtendWith(MockitoExtension.class)
+class ReactiveTodoServiceTest {
+
+    @Mock
+    private ReactiveTodoMongoRepository reactiveMongoRepository;
+
+    @Mock
+    private TodoRepository todoRepository;
+
+    @Mock
+    private TodoService todoService;
+
+    @Mock
+    private DualTodoStore dualTodoStore;
+
+    @Mock
+    private TodoOutbox todoOutbox;
+
+    @Mock
+    private TodoEventBus todoEventBus;
+
+    @Mock
+    private TodoSearchIndex todoSearchIndex;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private ReactiveTodoService reactiveTodoService;
+
+    @BeforeEach
+    void setUp() {
+        when(dualTodoStore.spansMongoAndSqlite()).thenReturn(true);
+        DefaultListableBeanFactory beans = new DefaultListableBeanFactory();
+        beans.registerSingleton("reactiveTodoMongoRepository", reactiveMongoRepository);
+        reactiveTodoService = new ReactiveTodoService(beans.getBeanProvider(ReactiveTodoMongoRepository.class), todoRepository, todoService, dualTodoStore,
+                new TodoCache(true, 100, Duration.ofMinutes(1), Duration.ofSeconds(10)), todoOutbox,
+                new TodoMetrics(meterRegistry), todoEventBus, todoSearchIndex, Schedulers.immediate());
+    }
+
+    @Test
+    @DisplayName("Should merge both stores in createdAt order, reading SQLite in chunks and dropping duplicates")
+    void findAll_MergesChunkedSqliteWithMongo() {
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 0, 0);
+        Todo a = new Todo("a", "A", false, base);
+        Todo b = new Todo("b", "B", false, base.plusMinutes(1));
+        Todo c = new Todo("c", "C", false, base.plusMinutes(2));
+        Todo d = new Todo("d", "D", false, base.plusMinutes(3));
+        when(todoRepository.findFiltered(eq(TodoFilter.NONE), isNull(), eq(2))).thenReturn(List.of(a, c));
+        when(todoRepository.findFiltered(TodoFilter.NONE, TodoCursor.of(c), 2)).thenReturn(List.of(d));
+        when(reactiveMongoRepository.findFiltered(TodoFilter.NONE)).thenReturn(Flux.just(b, c));
+
+        StepVerifier.create(reactiveTodoService.findAll(TodoFilter.NONE, 2))
+                .expectNext(a, b, c, d)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Should fall back to SQLite when the todo is missing in Mongo")
+    void findById_FallsBackToSqlite() {
+        Todo todo = new Todo("1", "Only in SQLite", false, LocalDateTime.now());
+        when(reactiveMongoRepository.findById("1")).thenReturn(Mono.empty());
+        when(todoRepository.findById("1")).thenReturn(Optional.of(todo));
+
+        StepVerifier.create(reactiveTodoService.findById("1"))
+                .expectNext(todo)
+                .verifyComplete();
+        assertEquals(1.0, meterRegistry.counter("todo.read.sqlite.fallbacks").count());
+    }
+
+    @Test
+    @DisplayName("Should record a partial failure when the SQLite mirror of a Mongo write fails")
+    void save_SqliteFailureIsCounted() {
+        Todo todo = new Todo(null, "New", false, null);
+        when(todoOutbox.isEnabled()).thenReturn(false);
+        when(reactiveMongoRepository.save(any(Todo.class))).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+        when(todoRepository.save(any(Todo.class))).thenThrow(new RuntimeException("SQLite down"));
+
+        StepVerifier.create(reactiveTodoService.save(todo))
+                .verifyErrorMessage("SQLite down");
+        assertEquals(1.0, meterRegistry.counter("todo.write.partial.failures", "operation", "save").count());
+        verify(todoService, never()).save(any(Todo.class));
+    }
+
+    @Test
+    @DisplayName("Should report a missing todo from the single Mongo update without further round trips")
+    void update_MissingTodoOneRoundTrip() {
+        TodoPatch patch = new TodoPatch(null, true);
+        when(todoOutbox.isEnabled()).thenReturn(false);
+        when(reactiveMongoRepository.updateIfExists(eq("1"), eq(patch), any())).thenReturn(Mono.empty());
+
+        StepVerifier.create(reactiveTodoService.update("1", patch, null))
+                .verifyComplete();
+        verify(todoRepository, never()).updateIfExists(anyString(), any(), any());
+        verifyNoInteractions(todoService);
+    }
+}
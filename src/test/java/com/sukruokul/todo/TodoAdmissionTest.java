@@ -0,0 +1,167 @@
+package com.sukruokul.todo;
+
+import com.sukruokul.todo.admission.AdmissionFilter;
+import com.sukruokul.todo.admission.ReactiveAdmissionFilter;
+import com.sukruokul.todo.admission.TodoAdmission;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * author: sukru.okul
+ */
+class TodoAdmissionTest {
+
+    private final AtomicLong clock = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+
+    @Test
+    @DisplayName("Should admit a burst per client and endpoint, then answer 429 until the bucket refills")
+    void rateLimit_BurstThenRetryAfter() {
+        TodoAdmission admission = new TodoAdmission(true, "ip", "default=10/5, createTodo=0.5/2", 100, 0, 0,
+                Duration.ofSeconds(1), clock::get);
+
+        assertTrue(admit(admission, "/api/todos/createTodo", "POST", null, "10.0.0.1").admitted());
+        assertTrue(admit(admission, "/api/todos/createTodo", "POST", null, "10.0.0.1").admitted());
+        TodoAdmission.Decision limited = admit(admission, "/api/todos/createTodo", "POST", null, "10.0.0.1");
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, limited.status());
+        assertEquals(2, limited.retryAfterSeconds(), "one permit every two seconds");
+
+        assertTrue(admit(admission, "/api/todos/createTodo", "POST", null, "10.0.0.2").admitted(), "other clients have their own bucket");
+        assertTrue(admit(admission, "/api/todos/getTodo/42", "GET", null, "10.0.0.1").admitted(), "other endpoints have their own limit");
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        assertTrue(admit(admission, "/api/todos/createTodo", "POST", null, "10.0.0.1").admitted());
+        assertFalse(admit(admission, "/api/todos/createTodo", "POST", null, "10.0.0.1").admitted());
+        assertTrue(admit(admission, "/actuator/health", "GET", null, "10.0.0.1").admitted(), "paths outside the API are not limited");
+    }
+
+    @Test
+    @DisplayName("Should key clients by the configured header and fall back to the IP without it")
+    void rateLimit_KeyedByHeader() {
+        TodoAdmission admission = new TodoAdmission(true, "header:X-Client-Id", "default=1/1", 100, 0, 0,
+                Duration.ofSeconds(1), clock::get);
+        assertEquals("X-Client-Id", admission.clientHeader());
+
+        assertTrue(admit(admission, "/api/todos/count", "GET", "alice", "10.0.0.1").admitted());
+        assertTrue(admit(admission, "/api/todos/count", "GET", "bob", "10.0.0.1").admitted());
+        assertFalse(admit(admission, "/api/todos/count", "GET", "alice", "10.0.0.9").admitted());
+        assertTrue(admit(admission, "/api/todos/count", "GET", null, "10.0.0.1").admitted());
+        assertFalse(admit(admission, "/api/todos/count", "GET", " ", "10.0.0.1").admitted());
+    }
+
+    @Test
+    @DisplayName("Should limit a client that rotates its header per IP once the client table is full, without starving newcomers")
+    void admissionFilter_RotatingHeaderLimitedPerIp() throws Exception {
+        TodoAdmission admission = new TodoAdmission(true, "header:X-Client-Id", "default=1/2", 3, 0, 0,
+                Duration.ofSeconds(1), clock::get);
+        AdmissionFilter filter = new AdmissionFilter(admission);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(200, filter(filter, "rotating-" + i, "10.0.0.66").getStatus());
+        }
+        assertEquals(200, filter(filter, "rotating-3", "10.0.0.66").getStatus());
+        assertEquals(200, filter(filter, "rotating-4", "10.0.0.66").getStatus());
+        MockHttpServletResponse limited = filter(filter, "rotating-5", "10.0.0.66");
+        assertEquals(429, limited.getStatus(), "new keys past the table share the caller's IP bucket");
+        assertEquals("1", limited.getHeader(HttpHeaders.RETRY_AFTER));
+
+        assertEquals(200, filter(filter, "carol", "10.0.0.2").getStatus(), "a newcomer from another IP is not starved");
+        assertEquals(200, filter(filter, "rotating-0", "10.0.0.66").getStatus(), "tracked keys keep their own bucket");
+    }
+
+    @Test
+    @DisplayName("Should charge encoded and matrix-parameter paths to the endpoint they reach in both filters")
+    void admissionFilter_NormalizedPath() throws Exception {
+        TodoAdmission admission = new TodoAdmission(true, "ip", "default=10/5, createTodo=0.5/2", 100, 0, 0,
+                Duration.ofSeconds(1), clock::get);
+        AdmissionFilter filter = new AdmissionFilter(admission);
+
+        assertEquals(200, post(filter, "/api/todos/create%54odo").getStatus());
+        assertEquals(200, post(filter, "/api/todos/createTodo;x=1").getStatus());
+        assertEquals(429, post(filter, "/api/todos/createTodo").getStatus());
+        assertEquals(429, post(filter, "/api/todos/create%54odo;jsessionid=1").getStatus());
+
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.method(HttpMethod.POST, URI.create("/api/todos/create%54odo;x=1"))
+                .remoteAddress(new InetSocketAddress("10.0.0.1", 5000)));
+        new ReactiveAdmissionFilter(admission).filter(exchange, e -> Mono.empty()).block();
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, exchange.getResponse().getStatusCode());
+    }
+
+    @Test
+    @DisplayName("Should shed requests over the in-flight and write caps with 503 and take them again once released")
+    void shedding_CapsInFlight() {
+        TodoAdmission admission = new TodoAdmission(false, "ip", "", 100, 3, 1, Duration.ofSeconds(5), clock::get);
+        admission.bindTo(new SimpleMeterRegistry());
+
+        TodoAdmission.Decision write = admission.admit("/api/todos/createTodo", "POST", null, "10.0.0.1");
+        TodoAdmission.Decision secondWrite = admission.admit("/api/todos/updateTodo/1", "PATCH", null, "10.0.0.1");
+        assertTrue(write.admitted());
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, secondWrite.status());
+        assertEquals(5, secondWrite.retryAfterSeconds());
+
+        TodoAdmission.Decision read = admission.admit("/api/todos/getTodos", "GET", null, "10.0.0.1");
+        assertTrue(read.admitted());
+        assertTrue(admission.admit("/api/todos/stream", "GET", null, "10.0.0.1").admitted(), "change streams hold no slot");
+        assertTrue(admission.admit("/api/todos/count", "GET", null, "10.0.0.1").admitted());
+        assertEquals(3, admission.inFlight());
+        assertFalse(admission.admit("/api/todos/count", "GET", null, "10.0.0.1").admitted());
+
+        admission.release(write);
+        admission.release(read);
+        assertEquals(1, admission.inFlight());
+        assertTrue(admission.admit("/api/todos/deleteTodo/1", "DELETE", null, "10.0.0.1").admitted());
+    }
+
+    @Test
+    @DisplayName("Should reject a malformed limit or client key at startup")
+    void config_Validated() {
+        assertThrows(IllegalArgumentException.class, () -> new TodoAdmission(true, "ip", "createTodos=10/20", 100, 0, 0,
+                Duration.ofSeconds(1), clock::get));
+        assertThrows(IllegalArgumentException.class, () -> new TodoAdmission(true, "ip", "default=10", 100, 0, 0,
+                Duration.ofSeconds(1), clock::get));
+        assertThrows(IllegalArgumentException.class, () -> new TodoAdmission(true, "ip", "default=0/1", 100, 0, 0,
+                Duration.ofSeconds(1), clock::get));
+        assertThrows(IllegalArgumentException.class, () -> new TodoAdmission(false, "cookie", "", 100, 0, 0,
+                Duration.ofSeconds(1), clock::get));
+    }
+
+    private static MockHttpServletResponse filter(AdmissionFilter filter, String clientId, String ip) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/todos/count");
+        request.addHeader("X-Client-Id", clientId);
+        request.setRemoteAddr(ip);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    private static MockHttpServletResponse post(AdmissionFilter filter, String uri) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", uri);
+        request.setRemoteAddr("10.0.0.1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    private static TodoAdmission.Decision admit(TodoAdmission admission, String path, String method, String clientId, String ip) {
+        TodoAdmission.Decision decision = admission.admit(path, method, clientId, ip);
+        admission.release(decision);
+        return decision;
+    }
+}
@@ -0,0 +1,153 @@
+package com.sukruokul.todo;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sukruokul.todo.model.Todo;
+import com.sukruokul.todo.service.TodoEvent;
+import com.sukruokul.todo.service.TodoEventBus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * author: sukru.okul
+ */
+class TodoEventBusTest {
+
+    private final TodoEventBus bus = new TodoEventBus(new ObjectMapper().findAndRegisterModules(), 100, 3, 10, Duration.ofMinutes(1));
+
+    @AfterEach
+    void tearDown() {
+        bus.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should keep only the latest change per todo for a subscriber that is still sending")
+    void slowSubscriber_Coalesces() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingSink sink = new RecordingSink(release);
+        bus.subscribe(sink, null);
+
+        bus.created(todo("a", "first"));
+        TodoEvent blocked = sink.next();
+        bus.updated(todo("a", "second"));
+        bus.created(todo("b", "other"));
+        bus.updated(todo("a", "third"));
+        release.countDown();
+
+        assertEquals(TodoEvent.Type.CREATED, blocked.type());
+        TodoEvent b = sink.next();
+        TodoEvent a = sink.next();
+        assertEquals("b", b.todoId());
+        assertEquals(TodoEvent.Type.UPDATED, a.type());
+        assertTrue(a.data().contains("third"));
+        assertTrue(a.id() > b.id(), "pending changes are delivered in id order");
+        assertNull(sink.poll());
+    }
+
+    @Test
+    @DisplayName("Should replay retained changes after Last-Event-ID and reset on an unknown id")
+    void subscribe_ResumesFromLastEventId() throws Exception {
+        RecordingSink first = new RecordingSink(null);
+        bus.subscribe(first, null);
+        bus.created(todo("a", "one"));
+        TodoEvent seen = first.next();
+        bus.updated(todo("a", "two"));
+        bus.deleted("b");
+
+        RecordingSink resumed = new RecordingSink(null);
+        bus.subscribe(resumed, Long.toString(seen.id()));
+        assertEquals(List.of(TodoEvent.Type.UPDATED, TodoEvent.Type.DELETED), List.of(resumed.next().type(), resumed.next().type()));
+
+        RecordingSink stale = new RecordingSink(null);
+        bus.subscribe(stale, "42");
+        TodoEvent reset = stale.next();
+        assertEquals(TodoEvent.Type.RESET, reset.type());
+        assertNull(stale.poll());
+
+        bus.updated(todo("c", "after reset"));
+        assertTrue(stale.next().id() > reset.id());
+    }
+
+    @Test
+    @DisplayName("Should replace an overflowing backlog with a single reset and enforce the subscriber limit")
+    void overflow_ResetsAndLimitsSubscribers() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingSink sink = new RecordingSink(release);
+        bus.subscribe(sink, null);
+
+        bus.created(todo("a", "blocked"));
+        sink.next();
+        List<Todo> burst = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            burst.add(todo("t" + i, "burst"));
+        }
+        burst.forEach(bus::created);
+        release.countDown();
+
+        TodoEvent reset = sink.next();
+        assertEquals(TodoEvent.Type.RESET, reset.type());
+        assertNull(sink.poll());
+
+        for (int i = 1; i < 10; i++) {
+            bus.subscribe(new RecordingSink(null), null);
+        }
+        assertFalse(bus.acceptsSubscribers());
+        assertThrows(IllegalStateException.class, () -> bus.subscribe(new RecordingSink(null), null));
+    }
+
+    private static Todo todo(String id, String title) {
+        return new Todo(id, title, false, LocalDateTime.now());
+    }
+
+    /**
+     * Records events as they are sent; with a latch, the first send blocks until it is released.
+     */
+    private static final class RecordingSink implements TodoEventBus.Sink {
+
+        private final BlockingQueue<TodoEvent> events = new LinkedBlockingQueue<>();
+        private CountDownLatch release;
+
+        RecordingSink(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void send(TodoEvent event) {
+            events.add(event);
+            if (release != null) {
+                CountDownLatch latch = release;
+                release = null;
+                try {
+                    latch.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        @Override
+        public void heartbeat() {
+        }
+
+        TodoEvent next() throws InterruptedException {
+            TodoEvent event = events.poll(5, TimeUnit.SECONDS);
+            assertNotNull(event, "expected an event");
+            return event;
+        }
+
+        TodoEvent poll() throws InterruptedException {
+            return events.poll(200, TimeUnit.MILLISECONDS);
+        }
+    }
+}
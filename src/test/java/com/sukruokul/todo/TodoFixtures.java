@@ -0,0 +1,52 @@
+package com.sukruokul.todo;
+
+import com.sukruokul.todo.model.Todo;
+import com.sukruokul.todo.search.TodoSearchIndex;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Todos and id helpers shared by the store, replica and search index tests; times are minutes
+ * after {@link #BASE}.
+ * author: sukru.okul
+ */
+final class TodoFixtures {
+
+    static final LocalDateTime BASE = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    private TodoFixtures() {
+    }
+
+    /**
+     * Open todo last written when it was created.
+     */
+    static Todo todo(String id, String title, int minute) {
+        return todo(id, title, minute, 0);
+    }
+
+    /**
+     * Open todo last written {@code updatedMinutes} after it was created.
+     */
+    static Todo todo(String id, String title, int createdMinute, int updatedMinutes) {
+        return new Todo(id, title, false, BASE.plusMinutes(createdMinute), BASE.plusMinutes(createdMinute + updatedMinutes));
+    }
+
+    /**
+     * Todo titled after its id, last written when it was created.
+     */
+    static Todo todo(String id, int minute, boolean completed) {
+        Todo todo = todo(id, "Todo " + id, minute);
+        todo.setCompleted(completed);
+        return todo;
+    }
+
+    static List<String> ids(Collection<Todo> todos) {
+        return todos.stream().map(Todo::getId).toList();
+    }
+
+    static List<String> ids(TodoSearchIndex.Result result) {
+        return ids(result.todos());
+    }
+}
@@ -0,0 +1,65 @@
+package com.sukruokul.todo;
+
+import com.sukruokul.todo.id.TodoIdGenerator;
+import com.sukruokul.todo.id.TodoIds;
+import com.sukruokul.todo.id.UlidGenerator;
+import com.sukruokul.todo.id.UuidV7Generator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * author: sukru.okul
+ */
+class TodoIdGeneratorTest {
+
+    @Test
+    @DisplayName("Should produce strictly increasing ULIDs within a millisecond and when the clock steps back")
+    void ulid_IsMonotonic() {
+        AtomicLong clock = new AtomicLong(1_700_000_000_000L);
+        TodoIdGenerator generator = new UlidGenerator(new Random(42), clock::get);
+
+        assertStrictlyIncreasing(generator, clock);
+        String id = generator.nextId();
+        assertEquals(26, id.length());
+        assertTrue(id.matches("[0-9A-HJKMNP-TV-Z]{26}"));
+    }
+
+    @Test
+    @DisplayName("Should produce strictly increasing version 7 UUIDs within a millisecond and when the clock steps back")
+    void uuidV7_IsMonotonic() {
+        AtomicLong clock = new AtomicLong(1_700_000_000_000L);
+        TodoIdGenerator generator = new UuidV7Generator(new Random(42), clock::get);
+
+        assertStrictlyIncreasing(generator, clock);
+        UUID id = UUID.fromString(generator.nextId());
+        assertEquals(7, id.version());
+        assertEquals(2, id.variant());
+        assertEquals(clock.get(), id.getMostSignificantBits() >>> 16);
+    }
+
+    @Test
+    @DisplayName("Should reject an unknown generator name")
+    void forName_Unknown() {
+        assertThrows(IllegalArgumentException.class, () -> TodoIds.forName("snowflake"));
+    }
+
+    private static void assertStrictlyIncreasing(TodoIdGenerator generator, AtomicLong clock) {
+        String previous = generator.nextId();
+        for (int i = 0; i < 10_000; i++) {
+            if (i == 5_000) {
+                clock.addAndGet(-10);
+            } else if (i % 100 == 0) {
+                clock.incrementAndGet();
+            }
+            String next = generator.nextId();
+            assertTrue(next.compareTo(previous) > 0, previous + " >= " + next);
+            previous = next;
+        }
+    }
+}
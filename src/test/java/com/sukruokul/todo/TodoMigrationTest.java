@@ -0,0 +1,89 @@
+package com.sukruokul.todo;
+
+import com.sukruokul.todo.config.TodoUpdatedAtMigration;
+import com.sukruokul.todo.model.Todo;
+import com.sukruokul.todo.repository.jpa.TodoRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Starts on a SQLite file as the first release's {@code ddl-auto=update} left it, with no
+ * {@code updated_at}, outbox table or Flyway history, and checks the migrations bring it up to
+ * the current schema with the stored todo intact.
+ * author: sukru.okul
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TodoMigrationTest {
+
+    @TempDir
+    static Path dataDir;
+
+    @DynamicPropertySource
+    static void baselineReleaseDatabase(DynamicPropertyRegistry registry) throws SQLException {
+        String url = "jdbc:sqlite:" + dataDir.resolve("todos.db");
+        try (Connection connection = DriverManager.getConnection(url);
+             Statement statement = connection.createStatement()) {
+            statement.executeUpdate("create table todo (id varchar(255) not null, completed boolean not null, created_at timestamp, title varchar(255), primary key (id))");
+            statement.executeUpdate("insert into todo (id, completed, created_at, title) values ('a', 1, '2024-01-01 10:00:00', 'Buy milk')");
+        }
+        registry.add("spring.datasource.url", () -> url);
+    }
+
+    @Configuration
+    @EnableJpaRepositories(basePackageClasses = TodoRepository.class)
+    @EntityScan(basePackageClasses = Todo.class)
+    @Import(TodoUpdatedAtMigration.class)
+    static class SqliteOnly {
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TodoRepository todoRepository;
+
+    @Test
+    @DisplayName("Should migrate a database created before migrations existed to the current schema")
+    void migrate_BaselineReleaseDatabase() {
+        List<String> versions = jdbcTemplate.queryForList(
+                "select version from flyway_schema_history where success = 1 order by installed_rank", String.class);
+        assertEquals(List.of("0", "1", "1.1", "2", "3"), versions);
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "select count(*) from sqlite_master where type = 'table' and name = 'todo_outbox'", Integer.class));
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "select count(*) from sqlite_master where type = 'index' and name = 'idx_todo_completed_updated_at'", Integer.class));
+
+        Todo todo = todoRepository.findById("a").orElseThrow();
+        assertEquals("Buy milk", todo.getTitle());
+        assertTrue(todo.isCompleted());
+        assertEquals(LocalDateTime.of(2024, 1, 1, 10, 0), todo.getCreatedAt());
+        assertEquals(todo.getCreatedAt(), todo.getUpdatedAt(), "updated_at is backfilled from created_at");
+        assertNull(todo.getDeletedAt());
+        assertEquals(1, todoRepository.stamp().count());
+    }
+}
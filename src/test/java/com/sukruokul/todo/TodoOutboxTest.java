@@ -0,0 +1,99 @@
+package com.sukruokul.todo;
+
+import com.sukruokul.todo.model.Todo;
+import com.sukruokul.todo.model.TodoOutboxEntry;
+import com.sukruokul.todo.repository.jpa.TodoOutboxRepository;
+import com.sukruokul.todo.repository.jpa.TodoRepository;
+import com.sukruokul.todo.repository.mongo.TodoMongoRepository;
+import com.sukruokul.todo.service.TodoOutbox;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * author: sukru.okul
+ */
+@ExtendWith(MockitoExtension.class)
+class TodoOutboxTest {
+
+    @Mock
+    private TodoRepository todoRepository;
+
+    @Mock
+    private TodoMongoRepository todoMongoRepository;
+
+    @Mock
+    private TodoOutboxRepository outboxRepository;
+
+    private TodoOutbox todoOutbox;
+
+    @BeforeEach
+    void setUp() {
+        todoOutbox = new TodoOutbox(todoRepository, todoMongoRepository, outboxRepository, "outbox", 100);
+    }
+
+    @Test
+    @DisplayName("Should record an outbox entry alongside the SQLite write")
+    void save_RecordsEntry() {
+        Todo todo = new Todo("1", "Test Todo", false, LocalDateTime.now());
+        when(todoRepository.save(todo)).thenReturn(todo);
+
+        todoOutbox.save(todo);
+
+        verify(outboxRepository).save(argThat(entry -> entry.getTodoId().equals("1")
+                && entry.getOperation() == TodoOutboxEntry.Operation.UPSERT));
+        verifyNoInteractions(todoMongoRepository);
+    }
+
+    @Test
+    @DisplayName("Should assign increasing ids to new entries so their inserts can be batched")
+    void newEntries_AssignedIncreasingIds() {
+        TodoOutboxEntry first = new TodoOutboxEntry("1", TodoOutboxEntry.Operation.UPSERT);
+        TodoOutboxEntry second = new TodoOutboxEntry("1", TodoOutboxEntry.Operation.DELETE);
+
+        assertTrue(first.isNew());
+        assertTrue(second.getId() > first.getId());
+    }
+
+    @Test
+    @DisplayName("Should mirror the latest state per todo and clear the drained batch")
+    void drain_CoalescesAndMirrors() {
+        Todo kept = new Todo("1", "Kept", true, LocalDateTime.now());
+        List<TodoOutboxEntry> batch = List.of(
+                new TodoOutboxEntry(1L, "1", TodoOutboxEntry.Operation.UPSERT, null),
+                new TodoOutboxEntry(2L, "2", TodoOutboxEntry.Operation.UPSERT, null),
+                new TodoOutboxEntry(3L, "1", TodoOutboxEntry.Operation.UPSERT, null),
+                new TodoOutboxEntry(4L, "2", TodoOutboxEntry.Operation.DELETE, null));
+        when(outboxRepository.findAllByOrderByIdAsc(any(Pageable.class))).thenReturn(batch);
+        when(todoRepository.findAllById(Set.of("1"))).thenReturn(List.of(kept));
+
+        int drained = todoOutbox.drain();
+
+        assertEquals(4, drained);
+        verify(todoMongoRepository).applyBatch(List.of(kept), Set.of("2"));
+        verify(outboxRepository).deleteAllInBatch(batch);
+    }
+
+    @Test
+    @DisplayName("Should keep entries in the outbox when Mongo is unavailable")
+    void drain_MongoDown() {
+        List<TodoOutboxEntry> batch = List.of(new TodoOutboxEntry(1L, "1", TodoOutboxEntry.Operation.DELETE, null));
+        when(outboxRepository.findAllByOrderByIdAsc(any(Pageable.class))).thenReturn(batch);
+        doThrow(new IllegalStateException("mongo down")).when(todoMongoRepository).applyBatch(any(), any());
+
+        assertThrows(IllegalStateException.class, () -> todoOutbox.drain());
+        verify(outboxRepository, never()).deleteAllInBatch(any());
+    }
+}
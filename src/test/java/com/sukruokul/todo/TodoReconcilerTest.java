@@ -0,0 +1,145 @@
+package com.sukruokul.todo;
+
+import com.sukruokul.todo.model.Todo;
+import com.sukruokul.todo.repository.jpa.TodoRepository;
+import com.sukruokul.todo.repository.mongo.TodoMongoRepository;
+import com.sukruokul.todo.service.TodoMetrics;
+import com.sukruokul.todo.service.TodoOutbox;
+import com.sukruokul.todo.service.TodoReconciler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * author: sukru.okul
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class TodoReconcilerTest {
+
+    private static final LocalDateTime OLD = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @Mock
+    private TodoRepository todoRepository;
+
+    @Mock
+    private TodoMongoRepository todoMongoRepository;
+
+    @Mock
+    private TodoOutbox todoOutbox;
+
+    private final NavigableMap<String, Todo> sqlite = new TreeMap<>();
+    private final NavigableMap<String, Todo> mongo = new TreeMap<>();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private TodoReconciler reconciler;
+
+    @BeforeEach
+    void setUp() {
+        when(todoRepository.findByIdGreaterThanOrderByIdAsc(anyString(), any(Pageable.class)))
+                .thenAnswer(invocation -> chunk(sqlite, invocation.getArgument(0), invocation.getArgument(1)));
+        when(todoMongoRepository.findByIdGreaterThanOrderByIdAsc(anyString(), any(Pageable.class)))
+                .thenAnswer(invocation -> chunk(mongo, invocation.getArgument(0), invocation.getArgument(1)));
+        when(todoRepository.findAllById(anyCollection()))
+                .thenAnswer(invocation -> byIds(sqlite, invocation.getArgument(0)));
+        when(todoMongoRepository.findAllById(anyCollection()))
+                .thenAnswer(invocation -> byIds(mongo, invocation.getArgument(0)));
+        reconciler = new TodoReconciler(todoRepository, todoMongoRepository, todoOutbox,
+                new TodoMetrics(meterRegistry), true, 2, Duration.ZERO, Duration.ofSeconds(30),
+                Duration.ofMinutes(10), Duration.ofMinutes(1));
+    }
+
+    @Test
+    @DisplayName("Should repair only differing records in SQLite from Mongo in sync mode, across chunks")
+    void syncMode_RepairsSqliteFromMongo() throws InterruptedException {
+        put(sqlite, mongo, todo("a", "Same"));
+        put(mongo, todo("b", "Fresh"));
+        put(sqlite, todo("b", "Stale"));
+        put(mongo, todo("c", "Missing in SQLite"));
+        put(sqlite, mongo, todo("d", "Same"));
+        put(sqlite, todo("e", "Orphan"));
+        put(sqlite, mongo, todo("f", "Same"));
+        when(todoOutbox.isEnabled()).thenReturn(false);
+
+        assertEquals(3, reconciler.reconcile());
+
+        verify(todoRepository).applyBatch(List.of(mongo.get("b")), List.of());
+        verify(todoRepository).applyBatch(List.of(mongo.get("c")), List.of());
+        verify(todoRepository).applyBatch(List.of(), List.of("e"));
+        verify(todoMongoRepository, never()).applyBatch(anyCollection(), anyCollection());
+        assertEquals(1.0, meterRegistry.counter("todo.reconcile.divergent", "kind", "mismatched").count());
+        assertEquals(1.0, meterRegistry.counter("todo.reconcile.divergent", "kind", "missing_in_sqlite").count());
+        assertEquals(1.0, meterRegistry.counter("todo.reconcile.divergent", "kind", "missing_in_mongo").count());
+        assertEquals(3.0, meterRegistry.counter("todo.reconcile.repaired").count());
+    }
+
+    @Test
+    @DisplayName("Should repair Mongo from SQLite in outbox mode and leave recently written records alone")
+    void outboxMode_RepairsMongoAndSkipsRecentWrites() throws InterruptedException {
+        put(sqlite, todo("a", "Pending drain"));
+        Todo recent = todo("b", "Just written");
+        recent.setUpdatedAt(LocalDateTime.now());
+        put(sqlite, recent);
+        when(todoOutbox.isEnabled()).thenReturn(true);
+
+        assertEquals(2, reconciler.reconcile());
+
+        verify(todoMongoRepository).applyBatch(List.of(sqlite.get("a")), List.of());
+        verify(todoRepository, never()).applyBatch(anyCollection(), anyCollection());
+    }
+
+    @Test
+    @DisplayName("Should skip chunks whose digests match without re-reading or writing")
+    void identicalStores_NoRepair() throws InterruptedException {
+        for (String id : List.of("a", "b", "c", "d", "e")) {
+            put(sqlite, mongo, todo(id, "Todo " + id));
+        }
+
+        assertEquals(0, reconciler.reconcile());
+
+        verify(todoRepository, never()).findAllById(anyCollection());
+        verify(todoRepository, never()).applyBatch(anyCollection(), anyCollection());
+        verify(todoMongoRepository, never()).applyBatch(anyCollection(), anyCollection());
+    }
+
+    private static Todo todo(String id, String title) {
+        return new Todo(id, title, false, OLD, OLD);
+    }
+
+    private static void put(NavigableMap<String, Todo> store, Todo todo) {
+        store.put(todo.getId(), todo);
+    }
+
+    private static void put(NavigableMap<String, Todo> first, NavigableMap<String, Todo> second, Todo todo) {
+        first.put(todo.getId(), todo);
+        second.put(todo.getId(), todo.copy());
+    }
+
+    private static List<Todo> chunk(NavigableMap<String, Todo> store, String after, Pageable pageable) {
+        return store.tailMap(after, false).values().stream().limit(pageable.getPageSize()).toList();
+    }
+
+    private static List<Todo> byIds(NavigableMap<String, Todo> store, Collection<String> ids) {
+        return ids.stream().filter(store::containsKey).map(store::get).toList();
+    }
+}
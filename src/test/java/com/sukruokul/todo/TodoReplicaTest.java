@@ -0,0 +1,229 @@
+package com.sukruokul.todo;
+
+import com.sukruokul.todo.model.Todo;
+import com.sukruokul.todo.model.TodoCursor;
+import com.sukruokul.todo.model.TodoFilter;
+import com.sukruokul.todo.repository.mongo.ChangeStreamsUnsupportedException;
+import com.sukruokul.todo.repository.mongo.TodoChangeFeed;
+import com.sukruokul.todo.service.TodoReplica;
+import com.sukruokul.todo.store.TodoStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+import static com.sukruokul.todo.TodoFixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs {@link TodoReplica} against a fake store: a map-backed collection whose writes are
+ * published on a fake change feed, optionally without change-stream support.
+ * author: sukru.okul
+ */
+class TodoReplicaTest {
+
+    private TodoReplica replica;
+
+    @AfterEach
+    void tearDown() {
+        if (replica != null) {
+            replica.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("Should seed from Mongo and follow inserts, updates and deletes from the change stream")
+    void followsChangeStream() {
+        FakeMongo mongo = new FakeMongo(true);
+        mongo.save(todo("a", "Alpha", 0, 0));
+        mongo.save(todo("b", "Beta", 1, 0));
+        replica = mongo.replica(Duration.ofMinutes(5));
+
+        replica.start();
+        await(replica::isServing);
+        assertEquals(List.of("a", "b"), ids(replica.findAll()));
+
+        mongo.save(todo("c", "Gamma", 2, 0));
+        Todo renamed = todo("a", "Alpha renamed", 0, 1);
+        renamed.setCompleted(true);
+        mongo.save(renamed);
+        mongo.delete("b");
+
+        await(() -> replica.size() == 2 && replica.findById("a").map(Todo::isCompleted).orElse(false));
+        assertEquals(Optional.empty(), replica.findById("b"));
+        assertEquals("Alpha renamed", replica.findById("a").orElseThrow().getTitle());
+        assertEquals(List.of("c"), ids(iterate(new TodoFilter(false, null, null, false), null)));
+        assertEquals(List.of("a"), ids(iterate(new TodoFilter(null, null, "Alp", true), null)));
+        assertEquals(List.of("a"), ids(iterate(new TodoFilter(null, null, null, true), TodoCursor.of(mongo.docs.get("c")))));
+    }
+
+    @Test
+    @DisplayName("Should drop todos archived in Mongo, whether they arrive by change stream or by reload")
+    void dropsArchivedTodos() {
+        FakeMongo mongo = new FakeMongo(true);
+        mongo.save(todo("a", "Alpha", 0, 0));
+        Todo archivedBeforeStart = todo("b", "Beta", 1, 0);
+        archivedBeforeStart.setDeletedAt(BASE);
+        mongo.save(archivedBeforeStart);
+        replica = mongo.replica(Duration.ofMinutes(5));
+
+        replica.start();
+        await(replica::isServing);
+        assertEquals(List.of("a"), ids(replica.findAll()));
+
+        Todo archived = todo("a", "Alpha", 0, 5);
+        archived.setDeletedAt(archived.getUpdatedAt());
+        mongo.save(archived);
+
+        await(() -> replica.size() == 0);
+        assertEquals(Optional.empty(), replica.findById("a"));
+    }
+
+    @Test
+    @DisplayName("Should poll the updatedAt watermark and drop deleted ids on the next poll when change streams are unavailable")
+    void pollsWithoutChangeStreams() {
+        FakeMongo mongo = new FakeMongo(false);
+        mongo.save(todo("a", "Alpha", 0, 0));
+        mongo.save(todo("b", "Beta", 1, 0));
+        replica = mongo.replica(Duration.ofMinutes(5));
+
+        replica.start();
+        await(replica::isServing);
+
+        Todo updated = todo("a", "Alpha", 0, 0);
+        updated.setCompleted(true);
+        updated.setUpdatedAt(LocalDateTime.now());
+        mongo.save(updated);
+        await(() -> replica.findById("a").map(Todo::isCompleted).orElse(false));
+
+        mongo.delete("b");
+        await(() -> replica.findById("b").isEmpty());
+        assertEquals(1, replica.size());
+    }
+
+    @Test
+    @DisplayName("Should keep a local write when an older version of the same todo arrives later")
+    void keepsNewerVersion() {
+        FakeMongo mongo = new FakeMongo(true);
+        replica = mongo.replica(Duration.ofMinutes(5));
+        replica.start();
+        await(replica::isServing);
+
+        replica.apply(todo("a", "Newer", 0, 2));
+        replica.apply(todo("a", "Older", 0, 1));
+
+        assertEquals("Newer", replica.findById("a").orElseThrow().getTitle());
+        replica.findById("a").orElseThrow().setTitle("Mutated copy");
+        assertEquals("Newer", replica.findById("a").orElseThrow().getTitle());
+    }
+
+    private List<Todo> iterate(TodoFilter filter, TodoCursor after) {
+        List<Todo> todos = new ArrayList<>();
+        replica.iterator(filter, after).forEachRemaining(todos::add);
+        return todos;
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "Condition not met within 5 seconds");
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail(e);
+            }
+        }
+    }
+
+    /**
+     * The {@code todos} collection as a map. {@link TodoStore} reads are answered from it and
+     * every write is published on {@link #feed} like a change-stream event.
+     */
+    private static final class FakeMongo {
+
+        private final Map<String, Todo> docs = new ConcurrentHashMap<>();
+        private final FakeChangeFeed feed;
+        private final TodoStore store = mock(TodoStore.class);
+
+        FakeMongo(boolean changeStreams) {
+            feed = new FakeChangeFeed(changeStreams);
+            when(store.findAll()).thenAnswer(invocation ->
+                    docs.values().stream().filter(todo -> !todo.isArchived()).map(Todo::copy).toList());
+            when(store.findLiveIds()).thenAnswer(invocation ->
+                    docs.values().stream().filter(todo -> !todo.isArchived()).map(Todo::getId).toList());
+            when(store.findWrittenAfter(any())).thenAnswer(invocation -> {
+                LocalDateTime since = invocation.getArgument(0);
+                return docs.values().stream().filter(todo -> todo.getUpdatedAt().isAfter(since)).map(Todo::copy).toList();
+            });
+        }
+
+        TodoReplica replica(Duration fullResyncInterval) {
+            return new TodoReplica(store, feed, true, Duration.ofMillis(20), fullResyncInterval);
+        }
+
+        void save(Todo todo) {
+            docs.put(todo.getId(), todo.copy());
+            feed.publish(listener -> listener.upserted(todo.copy()));
+        }
+
+        void delete(String id) {
+            docs.remove(id);
+            feed.publish(listener -> listener.deleted(id));
+        }
+    }
+
+    private static final class FakeChangeFeed implements TodoChangeFeed {
+
+        private final boolean supported;
+        private final BlockingQueue<Consumer<Listener>> events = new LinkedBlockingQueue<>();
+        private volatile boolean closed;
+
+        FakeChangeFeed(boolean supported) {
+            this.supported = supported;
+        }
+
+        void publish(Consumer<Listener> event) {
+            if (supported) {
+                events.add(event);
+            }
+        }
+
+        @Override
+        public void watch(Listener listener) {
+            if (!supported) {
+                throw new ChangeStreamsUnsupportedException("standalone server", null);
+            }
+            while (!closed) {
+                try {
+                    Consumer<Listener> event = events.poll(10, TimeUnit.MILLISECONDS);
+                    if (event != null) {
+                        event.accept(listener);
+                    }
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.sukruokul.todo;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.sukruokul.todo.json.TodoJsonModule;
+import com.sukruokul.todo.model.Todo;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * author: sukru.okul
+ */
+class TodoSerializerTest {
+
+    private final ObjectMapper reflective = builder().build();
+    private final ObjectMapper lean = builder().modulesToInstall(new TodoJsonModule()).build();
+
+    @Test
+    @DisplayName("Should write the same JSON as the bean serializer, including every fraction-of-second shape, nulls and archived todos")
+    void serialize_MatchesBeanSerializer() throws Exception {
+        List<Todo> todos = new ArrayList<>();
+        todos.add(new Todo("a", "Quote \" and ünicode   \n", true, LocalDateTime.of(2024, 1, 2, 3, 4), null));
+        todos.add(new Todo(null, null, false, null, LocalDateTime.of(1, 12, 31, 23, 59, 59, 100_000_000)));
+        todos.add(new Todo("far", "Year 10000", false, LocalDateTime.of(10_000, 1, 1, 0, 0), LocalDateTime.of(-5, 6, 7, 8, 9)));
+        todos.add(new Todo("archived", "Done", true, LocalDateTime.of(2024, 1, 2, 3, 4), LocalDateTime.of(2024, 2, 3, 4, 5, 6, 7_000_000),
+                LocalDateTime.of(2024, 2, 3, 4, 5, 6, 7_000_000)));
+        Random random = new Random(7);
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 0, 0);
+        for (int nanoDigits = 0; nanoDigits <= 9; nanoDigits++) {
+            int nanos = random.nextInt(1_000_000_000);
+            int unit = (int) Math.pow(10, 9 - nanoDigits);
+            LocalDateTime time = base.plusSeconds(random.nextInt(400_000_000)).withNano(nanos / unit * unit);
+            todos.add(new Todo("t" + nanoDigits, "Todo " + nanoDigits, nanoDigits % 2 == 0, time, time.withNano(120_000_000)));
+        }
+
+        assertEquals(reflective.writeValueAsString(todos), lean.writeValueAsString(todos));
+        assertEquals(reflective.writeValueAsString(todos), lean.writeValueAsString(todos.stream()),
+                "a Stream body is written as the same array");
+    }
+
+    @Test
+    @DisplayName("Should encode the same tree in CBOR and Smile")
+    void serialize_BinaryFormats() throws Exception {
+        Todo todo = new Todo("a", "Çalışma planı", true, LocalDateTime.of(2024, 5, 6, 7, 8, 9, 123_000_000), null);
+        ObjectMapper cbor = builder().modulesToInstall(new TodoJsonModule()).factory(new CBORFactory()).build();
+        ObjectMapper smile = builder().modulesToInstall(new TodoJsonModule()).factory(new SmileFactory()).build();
+
+        assertEquals(lean.readTree(lean.writeValueAsBytes(todo)), cbor.readTree(cbor.writeValueAsBytes(todo)));
+        assertEquals(lean.readTree(lean.writeValueAsBytes(todo)), smile.readTree(smile.writeValueAsBytes(Stream.of(todo))).get(0));
+        assertEquals("2024-05-06T07:08:09.123", cbor.readTree(cbor.writeValueAsBytes(todo)).get("createdAt").asText());
+    }
+
+    /** Spring Boot's defaults: ISO dates rather than timestamp arrays. */
+    private static Jackson2ObjectMapperBuilder builder() {
+        return Jackson2ObjectMapperBuilder.json().featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+}
@@ -1,24 +1,50 @@
 package com.sukruokul.todo;
 
+import com.sukruokul.todo.dto.BulkTodoOperationDTO;
+import com.sukruokul.todo.dto.BulkTodoResultDTO;
+import com.sukruokul.todo.dto.TodoPageDTO;
 import com.sukruokul.todo.model.Todo;
 import com.sukruokul.todo.repository.mongo.TodoMongoRepository;
 import com.sukruokul.todo.repository.jpa.TodoRepository;
+import com.sukruokul.todo.service.StoreReadExecutor;
+import com.sukruokul.todo.service.TodoCache;
+import com.sukruokul.todo.service.TodoEventBus;
+import com.sukruokul.todo.service.TodoMetrics;
+import com.sukruokul.todo.model.TodoCursor;
+import com.sukruokul.todo.model.TodoFilter;
+import com.sukruokul.todo.model.TodoPatch;
+import com.sukruokul.todo.model.TodoStamp;
+import com.sukruokul.todo.service.TodoOutbox;
+import com.sukruokul.todo.service.TodoReconciler;
+import com.sukruokul.todo.service.TodoReplica;
 import com.sukruokul.todo.service.TodoService;
+import com.sukruokul.todo.service.TodoVersions;
+import com.sukruokul.todo.service.PreconditionFailedException;
+import com.sukruokul.todo.service.VersionedTodo;
+import com.sukruokul.todo.search.TodoSearchIndex;
+import com.sukruokul.todo.store.DualTodoStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString; // anyString'i import edin
 import static org.mockito.Mockito.*;
 
@@ -34,13 +60,43 @@ class TodoServiceTest {
     @Mock
     private TodoMongoRepository todoMongoRepository;
 
-    @InjectMocks
+    @Mock
+    private TodoOutbox todoOutbox;
+
+    @Spy
+    private TodoCache todoCache = new TodoCache(true, 100, Duration.ofMinutes(1), Duration.ofSeconds(10));
+
+    @Spy
+    private StoreReadExecutor readExecutor = new StoreReadExecutor(false);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private TodoMetrics todoMetrics = new TodoMetrics(meterRegistry);
+
+    @Mock
+    private TodoReplica todoReplica;
+
+    @Mock
+    private TodoReconciler todoReconciler;
+
+    @Spy
+    private TodoVersions todoVersions = new TodoVersions();
+
+    @Mock
+    private TodoEventBus todoEventBus;
+
+    @Mock
+    private TodoSearchIndex todoSearchIndex;
+
     private TodoService todoService;
 
     private Todo testTodo;
 
     @BeforeEach
     void setUp() {
+        todoService = new TodoService(new DualTodoStore(todoRepository, todoMongoRepository, todoOutbox, readExecutor, todoMetrics, todoReconciler),
+                todoCache, todoReplica, todoVersions, todoEventBus, todoSearchIndex);
         testTodo = new Todo("1", "Test Todo", false, LocalDateTime.now());
     }
 
@@ -77,14 +133,14 @@ class TodoServiceTest {
     @DisplayName("Should retrieve all todos successfully from SQL database")
     void findAll_Success() {
         List<Todo> todos = Arrays.asList(testTodo, new Todo("2", "Another Todo", true, LocalDateTime.now()));
-        when(todoRepository.findAll()).thenReturn(todos);
+        when(todoRepository.findByDeletedAtIsNull()).thenReturn(todos);
 
         List<Todo> foundTodos = todoService.findAll();
 
         // Then: Verify results
         assertNotNull(foundTodos);
         assertEquals(2, foundTodos.size());
-        verify(todoRepository, times(1)).findAll();
+        verify(todoRepository, times(1)).findByDeletedAtIsNull();
     }
 
     @Test
@@ -109,4 +165,346 @@ class TodoServiceTest {
         assertFalse(foundTodo.isPresent());
         verify(todoRepository, times(1)).findById(anyString());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should serve reads from the replica without touching the stores once it is loaded")
+    void findById_ServedByReplica() {
+        when(todoReplica.isServing()).thenReturn(true);
+        when(todoReplica.findById(testTodo.getId())).thenReturn(Optional.of(testTodo));
+        when(todoReplica.findAll()).thenReturn(List.of(testTodo));
+
+        assertEquals(testTodo, todoService.findById(testTodo.getId()).orElseThrow());
+        assertEquals(List.of(testTodo), todoService.findAll());
+        verifyNoInteractions(todoRepository, todoMongoRepository);
+    }
+
+    @Test
+    @DisplayName("Should read SQLite first in outbox mode and not fall back to Mongo over a pending write")
+    void findById_OutboxModeReadsSqliteFirst() {
+        when(todoOutbox.isEnabled()).thenReturn(true);
+        when(todoRepository.findById(testTodo.getId())).thenReturn(Optional.of(testTodo));
+        when(todoRepository.findById("deleted")).thenReturn(Optional.empty());
+        when(todoOutbox.isPending("deleted")).thenReturn(true);
+
+        assertEquals(testTodo, todoService.findById(testTodo.getId()).orElseThrow());
+        assertTrue(todoService.findById("deleted").isEmpty());
+        verify(todoMongoRepository, never()).findById(anyString());
+    }
+
+    @Test
+    @DisplayName("Should read only the primary store in findAll while reconciliation is enabled")
+    void findAll_PrimaryOnlyWithReconciliation() {
+        when(todoReconciler.isEnabled()).thenReturn(true);
+        when(todoOutbox.isEnabled()).thenReturn(false);
+        when(todoMongoRepository.findByDeletedAtIsNull()).thenReturn(List.of(testTodo));
+
+        assertEquals(List.of(testTodo), todoService.findAll());
+        verify(todoRepository, never()).findByDeletedAtIsNull();
+    }
+
+    @Test
+    @DisplayName("Should leave a Mongo-only todo with a pending outbox entry out of findAll in outbox mode")
+    void findAll_OutboxModeSkipsPendingDeletes() {
+        Todo deleted = new Todo("2", "Deleted here", false, testTodo.getCreatedAt().plusSeconds(1));
+        Todo remote = new Todo("3", "Written elsewhere", false, testTodo.getCreatedAt().plusSeconds(2));
+        when(todoOutbox.isEnabled()).thenReturn(true);
+        when(todoOutbox.pendingIds()).thenReturn(Set.of("2"));
+        when(todoRepository.findByDeletedAtIsNull()).thenReturn(List.of(testTodo));
+        when(todoMongoRepository.findByDeletedAtIsNull()).thenReturn(List.of(testTodo, deleted, remote));
+        when(todoRepository.findLiveIds()).thenReturn(List.of("1"));
+        when(todoMongoRepository.findLiveIds()).thenReturn(List.of("1", "2", "3"));
+
+        assertEquals(List.of(testTodo, remote), todoService.findAll());
+        DualTodoStore store = new DualTodoStore(todoRepository, todoMongoRepository, todoOutbox, readExecutor, todoMetrics, todoReconciler);
+        assertEquals(List.of("1", "3"), store.findLiveIds());
+    }
+
+    @Test
+    @DisplayName("Should count in the primary store of each write mode")
+    void count_PrimaryStore() {
+        TodoFilter filter = new TodoFilter(true, null, null, false);
+        when(todoMongoRepository.countFiltered(filter)).thenReturn(3L);
+        when(todoRepository.countFiltered(filter)).thenReturn(2L);
+
+        assertEquals(3, todoService.count(filter));
+        when(todoOutbox.isEnabled()).thenReturn(true);
+        assertEquals(2, todoService.count(filter));
+        verify(todoMongoRepository).countFiltered(filter);
+        verify(todoRepository).countFiltered(filter);
+    }
+
+    @Test
+    @DisplayName("Should derive ETags from the stored todo and reject an update whose If-Match tag is stale")
+    void update_IfMatch() {
+        TodoPatch patch = new TodoPatch(null, true);
+        testTodo.setUpdatedAt(testTodo.getCreatedAt());
+        Todo written = testTodo.copy();
+        written.setCompleted(true);
+        written.setUpdatedAt(testTodo.getUpdatedAt().plusSeconds(1));
+        when(todoMongoRepository.findById("1")).thenReturn(Optional.of(testTodo));
+        when(todoMongoRepository.updateIfExists(eq("1"), eq(patch), any())).thenReturn(Optional.of(written));
+        when(todoRepository.updateIfExists(eq("1"), eq(patch), any())).thenReturn(1);
+        String itemTag = TodoVersions.itemETag(testTodo);
+        assertEquals(itemTag, TodoVersions.itemETag(testTodo.copy()));
+
+        VersionedTodo updated = todoService.update("1", patch, itemTag).orElseThrow();
+
+        assertEquals(TodoVersions.itemETag(written), updated.eTag());
+        assertNotEquals(itemTag, updated.eTag());
+        when(todoMongoRepository.findById("1")).thenReturn(Optional.of(written));
+        PreconditionFailedException stale = assertThrows(PreconditionFailedException.class, () -> todoService.update("1", patch, itemTag));
+        assertEquals(updated.eTag(), stale.getCurrentETag());
+        assertEquals(updated.eTag(), todoService.update("1", patch, "\"other\", " + updated.eTag()).orElseThrow().eTag());
+        verify(todoMongoRepository, times(2)).updateIfExists(eq("1"), eq(patch), any());
+    }
+
+    @Test
+    @DisplayName("Should derive the list ETag from the stores' count and latest write")
+    void listETag_FromStoredData() {
+        LocalDateTime last = LocalDateTime.of(2024, 1, 1, 12, 0);
+        when(todoRepository.stamp()).thenReturn(new TodoStamp(2, last));
+        when(todoMongoRepository.stamp()).thenReturn(new TodoStamp(2, last.minusMinutes(1)));
+        String listTag = todoService.listETag();
+
+        assertTrue(listTag.startsWith("W/"));
+        assertEquals(listTag, todoService.listETag());
+        when(todoMongoRepository.stamp()).thenReturn(new TodoStamp(1, last.minusMinutes(1)));
+        assertNotEquals(listTag, todoService.listETag());
+        when(todoMongoRepository.stamp()).thenReturn(new TodoStamp(2, last.plusNanos(1_000_000)));
+        assertNotEquals(listTag, todoService.listETag());
+    }
+
+    @Test
+    @DisplayName("Should update and delete with one conditional write per store and report missing todos")
+    void conditionalWrites_NoPreRead() {
+        TodoPatch patch = new TodoPatch(null, true);
+        when(todoMongoRepository.updateIfExists(eq("1"), eq(patch), any())).thenReturn(Optional.of(testTodo));
+        when(todoRepository.updateIfExists(eq("1"), eq(patch), any())).thenReturn(0);
+        when(todoMongoRepository.removeById("1")).thenReturn(1L);
+
+        assertSame(testTodo, todoService.update("1", patch, null).orElseThrow().todo());
+        verify(todoRepository).save(testTodo); // missing from SQLite: upserted from the Mongo result
+        assertTrue(todoService.update("missing", patch, null).isEmpty());
+        assertEquals(1, todoService.deleteById("1"));
+        assertEquals(0, todoService.deleteById("missing"));
+
+        verify(todoMongoRepository, never()).findById(anyString());
+        verify(todoRepository, never()).findById(anyString());
+        verify(todoMongoRepository, never()).save(any(Todo.class));
+        verify(todoEventBus).updated(testTodo);
+        verify(todoEventBus).deleted("1");
+        verifyNoMoreInteractions(todoEventBus);
+    }
+
+    @Test
+    @DisplayName("Should return a merged page with a continuation cursor when more todos exist")
+    void findPage_ReturnsCursor() {
+        Todo later = new Todo("2", "Another Todo", true, testTodo.getCreatedAt().plusSeconds(1));
+        when(todoRepository.findFiltered(TodoFilter.NONE, null, 1)).thenReturn(List.of(testTodo, later));
+        when(todoMongoRepository.findFiltered(TodoFilter.NONE, null, 1)).thenReturn(List.of(testTodo));
+
+        TodoPageDTO page = todoService.findPage(TodoFilter.NONE, null, 1);
+
+        assertEquals(List.of(testTodo), page.getItems());
+        assertEquals(TodoCursor.of(testTodo).encode(), page.getNextCursor());
+    }
+
+    @Test
+    @DisplayName("Should push filters down to both stores and merge in the requested direction")
+    void streamAll_FilteredDescending() {
+        TodoFilter filter = new TodoFilter(true, null, "Te", true);
+        Todo older = new Todo("0", "Test older", true, testTodo.getCreatedAt().minusDays(1));
+        Todo newer = new Todo("2", "Test newer", true, testTodo.getCreatedAt().plusDays(1));
+        when(todoRepository.findFiltered(eq(filter), any(), anyInt())).thenReturn(List.of(newer, older), List.of());
+        when(todoMongoRepository.findFiltered(eq(filter), any(), anyInt())).thenReturn(List.of(newer), List.of());
+
+        List<Todo> todos = todoService.streamAll(filter, 10).toList();
+
+        assertEquals(List.of(newer, older), todos);
+        verify(todoRepository, never()).findByDeletedAtIsNull();
+    }
+
+    @Test
+    @DisplayName("Should serve repeated lookups, including misses, from the cache")
+    void findById_CachesHitsAndMisses() {
+        when(todoMongoRepository.findById(testTodo.getId())).thenReturn(Optional.of(testTodo));
+
+        todoService.findById(testTodo.getId());
+        todoService.findById("missing");
+        Optional<Todo> cached = todoService.findById(testTodo.getId());
+        todoService.findById("missing");
+
+        assertEquals(testTodo, cached.orElseThrow());
+        assertNotSame(testTodo, cached.get());
+        verify(todoMongoRepository, times(1)).findById(testTodo.getId());
+        verify(todoRepository, times(1)).findById("missing");
+        assertEquals(2, todoCache.stats().hitCount());
+        assertEquals(2, todoCache.stats().missCount());
+    }
+
+    @Test
+    @DisplayName("Should refresh the cache on update and invalidate it on delete")
+    void writes_KeepCacheFresh() {
+        when(todoMongoRepository.findById(testTodo.getId())).thenReturn(Optional.of(testTodo));
+        todoService.findById(testTodo.getId());
+
+        Todo changed = new Todo(testTodo.getId(), "Changed", true, testTodo.getCreatedAt());
+        when(todoMongoRepository.save(any(Todo.class))).thenReturn(changed);
+        when(todoRepository.save(any(Todo.class))).thenReturn(changed);
+        todoService.update(changed);
+        assertEquals("Changed", todoService.findById(testTodo.getId()).orElseThrow().getTitle());
+
+        todoService.deleteById(testTodo.getId());
+        when(todoMongoRepository.findById(testTodo.getId())).thenReturn(Optional.empty());
+        assertTrue(todoService.findById(testTodo.getId()).isEmpty());
+        verify(todoMongoRepository, times(2)).findById(testTodo.getId());
+    }
+
+    @Test
+    @DisplayName("Should publish a change event for every successful write and none for a failed one")
+    void writes_PublishChangeEvents() {
+        Todo created = new Todo(null, "New", false, null);
+        when(todoMongoRepository.save(any(Todo.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(todoRepository.save(any(Todo.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        when(todoMongoRepository.removeById(testTodo.getId())).thenReturn(1L);
+
+        todoService.save(created);
+        todoService.update(testTodo);
+        todoService.deleteById(testTodo.getId());
+
+        verify(todoEventBus).created(created);
+        verify(todoEventBus).updated(testTodo);
+        verify(todoEventBus).deleted(testTodo.getId());
+
+        when(todoRepository.save(any(Todo.class))).thenThrow(new IllegalStateException("SQLite down"));
+        assertThrows(IllegalStateException.class, () -> todoService.update(testTodo));
+        verifyNoMoreInteractions(todoEventBus);
+    }
+
+    @Test
+    @DisplayName("Should commit only to the outbox path when outbox mode is enabled")
+    void save_OutboxMode() {
+        when(todoOutbox.isEnabled()).thenReturn(true);
+        when(todoOutbox.save(testTodo)).thenReturn(testTodo);
+
+        Todo savedTodo = todoService.save(testTodo);
+
+        assertSame(testTodo, savedTodo);
+        verify(todoOutbox, times(1)).save(testTodo);
+        verifyNoInteractions(todoMongoRepository, todoRepository);
+    }
+
+    @Test
+    @DisplayName("Should apply bulk operations in one batch per store and report per-item statuses")
+    void bulk_MixedOperations() {
+        when(todoMongoRepository.findAllById(Set.of("1", "missing"))).thenReturn(List.of(testTodo));
+        when(todoRepository.findAllById(Set.of("1", "missing"))).thenReturn(List.of());
+
+        List<BulkTodoResultDTO> results = todoService.bulk(List.of(
+                new BulkTodoOperationDTO(BulkTodoOperationDTO.Action.CREATE, null, "New", false),
+                new BulkTodoOperationDTO(BulkTodoOperationDTO.Action.UPDATE, "1", "Renamed", true),
+                new BulkTodoOperationDTO(BulkTodoOperationDTO.Action.DELETE, "missing", null, false),
+                new BulkTodoOperationDTO(BulkTodoOperationDTO.Action.CREATE, null, " ", false)));
+
+        assertEquals(List.of(201, 200, 404, 400), results.stream().map(BulkTodoResultDTO::getStatus).toList());
+        assertEquals("Renamed", testTodo.getTitle());
+        verify(todoMongoRepository, times(1)).applyBatch(argThat(upserts -> upserts.size() == 2), eq(List.of()));
+        verify(todoRepository, times(1)).applyBatch(argThat(upserts -> upserts.size() == 2), eq(List.of()));
+        verify(todoMongoRepository, never()).save(any(Todo.class));
+    }
+
+    @Test
+    @DisplayName("Should query both stores concurrently and fall back to SQLite in parallel read mode")
+    void findById_ParallelReads() {
+        StoreReadExecutor parallel = new StoreReadExecutor(true);
+        TodoService parallelService = new TodoService(new DualTodoStore(todoRepository, todoMongoRepository, todoOutbox, parallel, todoMetrics, todoReconciler),
+                new TodoCache(false, 0, Duration.ZERO, Duration.ZERO), todoReplica, todoVersions, todoEventBus, todoSearchIndex);
+        when(todoMongoRepository.findById(testTodo.getId())).thenReturn(Optional.empty());
+        when(todoRepository.findById(testTodo.getId())).thenReturn(Optional.of(testTodo));
+        try {
+            assertEquals(testTodo, parallelService.findById(testTodo.getId()).orElseThrow());
+            verify(todoRepository, times(1)).findById(testTodo.getId());
+        } finally {
+            parallel.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Should answer from Mongo in parallel read mode without waiting for or interrupting the SQLite read")
+    void findById_ParallelReadCancelled() throws InterruptedException {
+        StoreReadExecutor parallel = new StoreReadExecutor(true);
+        TodoService parallelService = new TodoService(new DualTodoStore(todoRepository, todoMongoRepository, todoOutbox, parallel, todoMetrics, todoReconciler),
+                new TodoCache(false, 0, Duration.ZERO, Duration.ZERO), todoReplica, todoVersions, todoEventBus, todoSearchIndex);
+        CountDownLatch sqliteStarted = new CountDownLatch(1);
+        CountDownLatch sqliteReleased = new CountDownLatch(1);
+        CountDownLatch sqliteFinished = new CountDownLatch(1);
+        AtomicBoolean sqliteInterrupted = new AtomicBoolean();
+        when(todoRepository.findById(testTodo.getId())).thenAnswer(invocation -> {
+            sqliteStarted.countDown();
+            try {
+                sqliteReleased.await(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                // An interrupted driver call would drop its pooled connection.
+                sqliteInterrupted.set(true);
+            }
+            sqliteFinished.countDown();
+            return Optional.empty();
+        });
+        when(todoMongoRepository.findById(testTodo.getId())).thenAnswer(invocation -> {
+            sqliteStarted.await();
+            return Optional.of(testTodo);
+        });
+        try {
+            assertEquals(testTodo, parallelService.findById(testTodo.getId()).orElseThrow());
+            assertEquals(1, sqliteFinished.getCount(), "answered while the SQLite read was still running");
+            sqliteReleased.countDown();
+            assertTrue(sqliteFinished.await(5, TimeUnit.SECONDS));
+            assertFalse(sqliteInterrupted.get());
+        } finally {
+            parallel.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Should count SQLite fallbacks, merge duplicates and partial dual-write failures")
+    void metrics_DualStoreCounters() {
+        Todo sqliteOnly = new Todo("2", "Only in SQLite", false, LocalDateTime.now());
+        when(todoRepository.findByDeletedAtIsNull()).thenReturn(List.of(testTodo, sqliteOnly));
+        when(todoMongoRepository.findByDeletedAtIsNull()).thenReturn(List.of(testTodo));
+        when(todoRepository.findById("2")).thenReturn(Optional.of(sqliteOnly));
+        when(todoMongoRepository.save(any(Todo.class))).thenReturn(testTodo);
+        when(todoRepository.save(any(Todo.class))).thenThrow(new IllegalStateException("disk full"));
+
+        todoService.findAll();
+        todoService.findById("2");
+        assertThrows(IllegalStateException.class, () -> todoService.update(testTodo));
+
+        assertEquals(1, meterRegistry.counter("todo.merge.duplicates").count());
+        assertEquals(1, meterRegistry.counter("todo.read.sqlite.fallbacks").count());
+        assertEquals(1, meterRegistry.counter("todo.write.partial.failures", "operation", "save").count());
+    }
+
+    @Test
+    @DisplayName("Should archive SQLite's candidates in both stores, then those only Mongo has live, and drop them from the cache, replica and search index")
+    void archiveCompleted_ActsAsDelete() {
+        Todo archived = testTodo.copy();
+        archived.setDeletedAt(LocalDateTime.now());
+        when(todoMongoRepository.findById("1")).thenReturn(Optional.of(testTodo), Optional.of(archived));
+        LocalDateTime updatedBefore = LocalDateTime.now().minusDays(30);
+        when(todoRepository.archiveCompleted(eq(updatedBefore), any(), eq(500))).thenReturn(List.of("1", "2"));
+        when(todoMongoRepository.archiveCompleted(eq(List.of("1", "2")), eq(updatedBefore), any())).thenReturn(List.of("1"));
+        when(todoMongoRepository.archiveCompleted(eq(updatedBefore), any(), eq(498))).thenReturn(List.of("3"));
+        assertTrue(todoService.findById("1").isPresent());
+
+        assertEquals(3, todoService.archiveCompleted(updatedBefore, 500));
+
+        verify(todoRepository, times(1)).markArchived(eq(List.of("3")), any());
+        verify(todoReplica, times(1)).remove("1");
+        verify(todoReplica, times(1)).remove("3");
+        verify(todoSearchIndex, times(1)).removed("1");
+        verify(todoEventBus, times(1)).deleted("1");
+        assertTrue(todoService.findById("1").isEmpty(), "archived in Mongo, so neither cached nor looked up in SQLite");
+        verify(todoRepository, never()).findById("1");
+    }
+}